@@ -0,0 +1,55 @@
+package com.tsu.notification.benchmarks;
+
+import com.tsu.common.enums.MessageChannel;
+import com.tsu.notification.infrastructure.dispatcher.ChannelDispatcher;
+import com.tsu.notification.infrastructure.dispatcher.ChannelDispatcherFactory;
+import com.tsu.notification.infrastructure.dispatcher.EmailChannelDispatcher;
+import com.tsu.notification.infrastructure.dispatcher.PushChannelDispatcher;
+import com.tsu.notification.infrastructure.dispatcher.SmsChannelDispatcher;
+import com.tsu.notification.infrastructure.metrics.DeliveryLatencyTracker;
+import com.tsu.notification.infrastructure.metrics.NotificationMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dispatcher lookup done once per consumed message
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ChannelDispatcherFactoryBenchmark {
+
+    @Param({"email", "sms", "notification"})
+    private MessageChannel channel;
+
+    private ChannelDispatcherFactory factory;
+
+    @Setup
+    public void setup() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        factory = new ChannelDispatcherFactory(List.of(
+                dispatcher(EmailChannelDispatcher.class, MessageChannel.email),
+                dispatcher(SmsChannelDispatcher.class, MessageChannel.sms),
+                dispatcher(PushChannelDispatcher.class, MessageChannel.notification)),
+                new NotificationMetrics(registry, new DeliveryLatencyTracker(registry)));
+        factory.getDispatcher(channel);
+    }
+
+    @Benchmark
+    public ChannelDispatcher getDispatcher() {
+        return factory.getDispatcher(channel);
+    }
+
+    private static ChannelDispatcher dispatcher(Class<? extends ChannelDispatcher> type, MessageChannel channel) {
+        ChannelDispatcher dispatcher = Mockito.mock(type);
+        Mockito.when(dispatcher.getChannel()).thenReturn(channel);
+        return dispatcher;
+    }
+}
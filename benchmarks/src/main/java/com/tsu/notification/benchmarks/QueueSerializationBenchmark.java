@@ -0,0 +1,101 @@
+package com.tsu.notification.benchmarks;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.tsu.common.enums.MessageChannel;
+import com.tsu.notification.entities.OutboxMessageTb;
+import com.tsu.notification.infrastructure.logging.HotPathLog;
+import com.tsu.notification.infrastructure.metrics.DeliveryLatencyTracker;
+import com.tsu.notification.infrastructure.metrics.NotificationMetrics;
+import com.tsu.notification.infrastructure.queue.ChannelQueueProperties;
+import com.tsu.notification.infrastructure.queue.MessageQueue;
+import com.tsu.notification.infrastructure.queue.OutboxEventMessage;
+import com.tsu.notification.infrastructure.queue.QueueMessage;
+import com.tsu.notification.infrastructure.queue.QueuePublisher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outbox event serialization on publish and deserialization on consume
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class QueueSerializationBenchmark {
+
+    private QueuePublisher publisher;
+    private OutboxMessageTb event;
+    private ObjectMapper objectMapper;
+    private JavaType messageType;
+    private String body;
+
+    @Setup
+    public void setup() throws Exception {
+        objectMapper = JsonMapper.builder().findAndAddModules().build();
+        messageType = objectMapper.getTypeFactory().constructParametricType(QueueMessage.class, OutboxEventMessage.class);
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        NotificationMetrics metrics = new NotificationMetrics(registry, new DeliveryLatencyTracker(registry));
+        ChannelQueueProperties queueProperties = new ChannelQueueProperties();
+        queueProperties.getNotificationEvents().setQueueUrl("https://sqs.us-east-1.amazonaws.com/123456789012/notification-events");
+        publisher = new QueuePublisher(new DiscardingMessageQueue(), objectMapper, metrics, new HotPathLog(), queueProperties);
+
+        event = new OutboxMessageTb();
+        event.setId(UUID.randomUUID());
+        event.setMessageType(MessageChannel.email);
+        event.setMessageId(UUID.randomUUID());
+        event.setEventType("EMAIL_REQUESTED");
+        event.setPartitionKey(UUID.randomUUID().toString());
+        event.setCreatedDate(Instant.now());
+        event.setAttemptCount(0);
+
+        body = objectMapper.writeValueAsString(QueueMessage.create(event.getEventType(), OutboxEventMessage.builder()
+                .eventId(event.getId())
+                .messageType(event.getMessageType())
+                .messageId(event.getMessageId())
+                .eventType(event.getEventType())
+                .partitionKey(event.getPartitionKey())
+                .createdTimestamp(event.getCreatedDate().toEpochMilli())
+                .build()));
+    }
+
+    @Benchmark
+    public String publishOutboxEvent() {
+        return publisher.publishOutboxEvent(event);
+    }
+
+    @Benchmark
+    public QueueMessage<OutboxEventMessage> deserializeQueueMessage() throws Exception {
+        return objectMapper.readValue(body, messageType);
+    }
+
+    /**
+     * Queue stub: the SQS call is not part of the measured work
+     */
+    private static class DiscardingMessageQueue implements MessageQueue {
+
+        @Override
+        public String sendMessage(String queueName, String messageBody, Map<String, String> attributes) {
+            return "benchmark";
+        }
+
+        @Override
+        public String sendMessageWithDelay(String queueName, String messageBody, int delaySeconds, Map<String, String> attributes) {
+            return "benchmark";
+        }
+
+        @Override
+        public boolean isHealthy() {
+            return true;
+        }
+    }
+}
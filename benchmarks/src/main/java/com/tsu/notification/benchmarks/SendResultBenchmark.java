@@ -0,0 +1,30 @@
+package com.tsu.notification.benchmarks;
+
+import com.tsu.notification.infrastructure.adapter.SendResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SendResult construction, once per provider call
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class SendResultBenchmark {
+
+    private String providerId = "0100018c-provider-message-id";
+
+    @Benchmark
+    public SendResult success() {
+        return SendResult.success(providerId, "AWS_SES");
+    }
+
+    @Benchmark
+    public SendResult failure() {
+        return SendResult.failure("Rate exceeded", "SES_THROTTLED", false);
+    }
+}
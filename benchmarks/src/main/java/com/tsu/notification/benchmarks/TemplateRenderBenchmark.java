@@ -0,0 +1,55 @@
+package com.tsu.notification.benchmarks;
+
+import com.tsu.notification.infrastructure.template.CompiledTemplate;
+import com.tsu.notification.infrastructure.template.TemplateEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Template compilation and cached rendering of email/push content
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class TemplateRenderBenchmark {
+
+    private static final String SUBJECT = "Your order {{order.id}} has shipped";
+    private static final String BODY = """
+            <p>Hi {{name}},</p>
+            <p>Your order <b>{{order.id}}</b> is on its way and should arrive by {{order.eta}}.</p>
+            <p>{{{footer}}}</p>
+            """;
+
+    private TemplateEngine engine;
+    private Map<String, Object> variables;
+
+    @Setup
+    public void setup() {
+        engine = new TemplateEngine(new SimpleMeterRegistry(), 1000);
+        variables = Map.of(
+                "name", "Alex <alex@example.com>",
+                "order", Map.of("id", "A-10023", "eta", "Friday"),
+                "footer", "<a href=\"https://example.com/unsubscribe\">Unsubscribe</a>");
+    }
+
+    @Benchmark
+    public CompiledTemplate compile() {
+        return CompiledTemplate.compile(BODY);
+    }
+
+    @Benchmark
+    public String renderText() {
+        return engine.renderText(SUBJECT, variables);
+    }
+
+    @Benchmark
+    public String renderHtml() {
+        return engine.renderHtml(BODY, variables);
+    }
+}
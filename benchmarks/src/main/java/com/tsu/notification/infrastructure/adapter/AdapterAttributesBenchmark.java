@@ -0,0 +1,60 @@
+package com.tsu.notification.infrastructure.adapter;
+
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import software.amazon.awssdk.services.sns.SnsClient;
+import software.amazon.awssdk.services.sns.model.MessageAttributeValue;
+
+import java.lang.reflect.Field;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-message attribute/payload maps built by the SMS and push adapters
+ * (same package to reach the package-private builders)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class AdapterAttributesBenchmark {
+
+    private AwsSnsSenderAdapter snsAdapter;
+    private FcmApnsPushSenderAdapter pushAdapter;
+    private Map<String, Object> smsMetadata;
+    private Map<String, Object> pushMetadata;
+
+    @Setup
+    public void setup() throws Exception {
+        snsAdapter = new AwsSnsSenderAdapter(Mockito.mock(SnsClient.class));
+        setField(snsAdapter, "smsType", "Transactional");
+        setField(snsAdapter, "maxPrice", "1.00");
+        setField(snsAdapter, "senderId", "BXNOTIFY");
+        pushAdapter = new FcmApnsPushSenderAdapter();
+
+        smsMetadata = Map.of("smsType", "Promotional", "campaign", "spring-sale");
+        pushMetadata = Map.of(
+                "notificationId", "6f1c2a9e-3b7d-4e1a-9c55-0d2f3a4b5c6d",
+                "deepLink", "app://orders/A-10023",
+                "badge", 3,
+                "silent", false);
+    }
+
+    @Benchmark
+    public Map<String, MessageAttributeValue> buildSmsAttributes() {
+        return snsAdapter.buildSmsAttributes(smsMetadata);
+    }
+
+    @Benchmark
+    public Map<String, String> convertMetadataToStringMap() {
+        return pushAdapter.convertMetadataToStringMap(pushMetadata);
+    }
+
+    private static void setField(Object target, String name, Object value) throws Exception {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
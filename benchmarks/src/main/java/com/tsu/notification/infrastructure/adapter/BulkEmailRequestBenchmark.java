@@ -0,0 +1,117 @@
+package com.tsu.notification.infrastructure.adapter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tsu.notification.infrastructure.template.TemplateEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import software.amazon.awssdk.services.ses.SesClient;
+import software.amazon.awssdk.services.ses.model.*;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One SendBulkTemplatedEmail call (50 destinations) against a mocked SesClient:
+ * SES server-side templates (per-destination variables as template data, rendered by SES)
+ * versus the service's path (render locally with TemplateEngine, pass the content through
+ * the fixed bulk template). The SES baseline only measures the client-side cost, the
+ * rendering itself then happens at SES.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class BulkEmailRequestBenchmark {
+
+    private static final int RECIPIENTS = 50;
+    private static final String SUBJECT = "Your order {{order.id}} has shipped";
+    private static final String BODY = """
+            <p>Hi {{name}},</p>
+            <p>Your order <b>{{order.id}}</b> is on its way and should arrive by {{order.eta}}.</p>
+            <p>{{{footer}}}</p>
+            """;
+
+    private SesClient sesClient;
+    private ObjectMapper objectMapper;
+    private TemplateEngine engine;
+    private AwsSesSenderAdapter adapter;
+    private List<String> addresses;
+    private List<Map<String, Object>> variables;
+
+    @Setup
+    public void setup() throws Exception {
+        sesClient = Mockito.mock(SesClient.class, Mockito.withSettings().stubOnly());
+        BulkEmailDestinationStatus status = BulkEmailDestinationStatus.builder()
+                .status(BulkEmailStatus.SUCCESS)
+                .messageId("0100018f-bench")
+                .build();
+        Mockito.when(sesClient.sendBulkTemplatedEmail(Mockito.any(SendBulkTemplatedEmailRequest.class)))
+                .thenReturn(SendBulkTemplatedEmailResponse.builder()
+                        .status(Collections.nCopies(RECIPIENTS, status))
+                        .build());
+
+        objectMapper = new ObjectMapper();
+        engine = new TemplateEngine(new SimpleMeterRegistry(), 1000);
+        adapter = new AwsSesSenderAdapter(sesClient, objectMapper);
+        setField(adapter, "fromAddress", "noreply@example.com");
+        setField(adapter, "fromName", "Notification Service");
+
+        addresses = new ArrayList<>(RECIPIENTS);
+        variables = new ArrayList<>(RECIPIENTS);
+        for (int i = 0; i < RECIPIENTS; i++) {
+            addresses.add("user" + i + "@example.com");
+            variables.add(Map.of(
+                    "name", "User " + i,
+                    "order", Map.of("id", "A-" + (10000 + i), "eta", "Friday"),
+                    "footer", "<a href=\"https://example.com/unsubscribe\">Unsubscribe</a>"));
+        }
+    }
+
+    /**
+     * Baseline: SES renders a stored user template from per-destination variables
+     */
+    @Benchmark
+    public SendBulkTemplatedEmailResponse sesTemplate() throws Exception {
+        List<BulkEmailDestination> destinations = new ArrayList<>(RECIPIENTS);
+        for (int i = 0; i < RECIPIENTS; i++) {
+            destinations.add(BulkEmailDestination.builder()
+                    .destination(Destination.builder().toAddresses(addresses.get(i)).build())
+                    .replacementTemplateData(objectMapper.writeValueAsString(variables.get(i)))
+                    .build());
+        }
+        return sesClient.sendBulkTemplatedEmail(SendBulkTemplatedEmailRequest.builder()
+                .source("Notification Service <noreply@example.com>")
+                .template("bx-order-shipped")
+                .defaultTemplateData("{}")
+                .destinations(destinations)
+                .build());
+    }
+
+    /**
+     * Service path: local render, content passed through the fixed bulk template
+     */
+    @Benchmark
+    public List<SendResult> localRender() {
+        List<BulkEmailRecipient> recipients = new ArrayList<>(RECIPIENTS);
+        for (int i = 0; i < RECIPIENTS; i++) {
+            Map<String, Object> vars = variables.get(i);
+            recipients.add(new BulkEmailRecipient(addresses.get(i),
+                    engine.renderText(SUBJECT, vars),
+                    engine.renderHtml(BODY, vars)));
+        }
+        return adapter.sendBulkEmail(recipients);
+    }
+
+    private static void setField(Object target, String name, Object value) throws Exception {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
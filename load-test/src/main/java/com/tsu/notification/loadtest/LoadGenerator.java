@@ -0,0 +1,117 @@
+package com.tsu.notification.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Seeds the outbox at a fixed rate through POST /api/v1/notifications
+ * <p>
+ * Open-loop: requests are issued on schedule regardless of response time, so a slow
+ * service shows up as rising latency and drops rather than as a lower offered rate.
+ */
+@Slf4j
+public class LoadGenerator {
+
+    private static final long TICK_MS = 10;
+
+    private final LoadTestConfig config;
+    private final URI endpoint;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor();
+    private final Semaphore inFlight;
+    private final AtomicLong sequence = new AtomicLong();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private double owed;
+
+    public LoadGenerator(LoadTestConfig config, int port) {
+        this.config = config;
+        this.endpoint = URI.create("http://localhost:" + port + "/api/v1/notifications");
+        this.inFlight = new Semaphore(config.maxInFlightRequests());
+    }
+
+    public void start() {
+        ticker.scheduleAtFixedRate(this::tick, 0, TICK_MS, TimeUnit.MILLISECONDS);
+        log.info("Load generator started: rate={}/s, channels={}", config.rate(), config.channels());
+    }
+
+    public void stop() {
+        ticker.shutdownNow();
+    }
+
+    public long accepted() {
+        return accepted.sum();
+    }
+
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    private void tick() {
+        owed += config.rate() * TICK_MS / 1000.0;
+        while (owed >= 1) {
+            owed--;
+            if (!inFlight.tryAcquire()) {
+                dropped.increment();
+                continue;
+            }
+            send(sequence.incrementAndGet());
+        }
+    }
+
+    private void send(long n) {
+        HttpRequest request = HttpRequest.newBuilder(endpoint)
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body(n)))
+                .build();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    inFlight.release();
+                    if (error == null && response.statusCode() < 300) {
+                        accepted.increment();
+                    } else {
+                        rejected.increment();
+                        if (error != null && log.isDebugEnabled()) {
+                            log.debug("Create request failed: n={}", n, error);
+                        }
+                    }
+                });
+    }
+
+    private String body(long n) {
+        String channels = String.join("\",\"", config.channels());
+        return """
+                {
+                  "type": "TRANSACTIONAL",
+                  "priority": "HIGH",
+                  "userId": "%s",
+                  "recipientEmail": "loadtest+%d@example.com",
+                  "recipientPhone": "+1555%07d",
+                  "subject": "Load test %d",
+                  "body": "Load test notification %d",
+                  "channels": ["%s"],
+                  "idempotencyKey": "loadtest-%s"
+                }
+                """.formatted(UUID.randomUUID(), n, n % 10_000_000, n, n, channels, UUID.randomUUID());
+    }
+}
@@ -0,0 +1,39 @@
+package com.tsu.notification.loadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Load test parameters, read from -Dloadtest.* system properties
+ *
+ * @param rate     notifications created per second
+ * @param warmup   load before measuring starts (JIT, pools, queue steady state)
+ * @param duration measured window
+ * @param drain    time after the load stops for in-flight messages to finish
+ * @param channels channels requested on each notification (EMAIL, SMS, PUSH)
+ * @param maxInFlightRequests cap on concurrent create requests; beyond it the generator counts drops
+ * @param sqsPort  port of the in-process SQS server
+ */
+public record LoadTestConfig(double rate,
+                             Duration warmup,
+                             Duration duration,
+                             Duration drain,
+                             List<String> channels,
+                             int maxInFlightRequests,
+                             int sqsPort) {
+
+    public static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                Double.parseDouble(System.getProperty("loadtest.rate", "50")),
+                Duration.parse(System.getProperty("loadtest.warmup", "PT15S")),
+                Duration.parse(System.getProperty("loadtest.duration", "PT1M")),
+                Duration.parse(System.getProperty("loadtest.drain", "PT10S")),
+                Arrays.stream(System.getProperty("loadtest.channels", "EMAIL,SMS").split(","))
+                        .map(String::trim)
+                        .filter(channel -> !channel.isEmpty())
+                        .toList(),
+                Integer.parseInt(System.getProperty("loadtest.max-in-flight-requests", "200")),
+                Integer.parseInt(System.getProperty("loadtest.sqs-port", "9324")));
+    }
+}
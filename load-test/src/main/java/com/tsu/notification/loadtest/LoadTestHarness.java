@@ -0,0 +1,132 @@
+package com.tsu.notification.loadtest;
+
+import com.tsu.notification.bootstrap.AwsNotificationBootstrap;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.elasticmq.rest.sqs.SQSRestServer;
+import org.elasticmq.rest.sqs.SQSRestServerBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.CreateQueueRequest;
+import software.amazon.awssdk.services.sqs.model.QueueAttributeName;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Offline end-to-end load test of outbox → SQS → consumer → adapter
+ * <p>
+ * - SQS: in-process ElasticMQ server
+ * - Providers: MOCK email/SMS adapters with injected latency and errors (notification.mock.*)
+ * - Database: the service's configured datasource (a local Postgres, DB_URL)
+ * <p>
+ * Notifications are created through the public API at loadtest.rate per second; after the
+ * warmup, the measured window reports sustained delivery throughput, end-to-end p50/p99 and
+ * Hikari connection usage, all read from the service's own meters.
+ */
+@Slf4j
+public class LoadTestHarness {
+
+    private static final String QUEUE_NAME = "notification-events";
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+
+        SQSRestServer sqsServer = SQSRestServerBuilder.withPort(config.sqsPort()).withInterface("localhost").start();
+        sqsServer.waitUntilStarted();
+        String endpoint = "http://localhost:" + config.sqsPort();
+        String queueUrl = createQueue(endpoint);
+
+        // ElasticMQ accepts any credentials; the service uses the default provider chain
+        System.setProperty("aws.accessKeyId", "loadtest");
+        System.setProperty("aws.secretAccessKey", "loadtest");
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(AwsNotificationBootstrap.class)
+                .profiles("loadtest")
+                .properties(Map.of(
+                        "aws.sqs.endpoint", endpoint,
+                        "queue.notification-events.queue-url", queueUrl))
+                .run(args);
+        try {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            run(config, port, context.getBean(MeterRegistry.class));
+        } finally {
+            context.close();
+            sqsServer.stopAndWait();
+        }
+    }
+
+    private static void run(LoadTestConfig config, int port, MeterRegistry registry) throws InterruptedException {
+        LoadGenerator generator = new LoadGenerator(config, port);
+        MetricsSampler sampler = new MetricsSampler(registry);
+
+        generator.start();
+        log.info("Warming up for {}", config.warmup());
+        Thread.sleep(config.warmup().toMillis());
+
+        sampler.start();
+        Map<String, Long> deliveredBefore = sampler.delivered();
+        long failedBefore = sampler.failedProviderCalls();
+        long acceptedBefore = generator.accepted();
+        long started = System.nanoTime();
+        log.info("Measuring for {}", config.duration());
+        Thread.sleep(config.duration().toMillis());
+
+        Map<String, Long> deliveredAfter = sampler.delivered();
+        long failedAfter = sampler.failedProviderCalls();
+        long acceptedAfter = generator.accepted();
+        double seconds = (System.nanoTime() - started) / 1e9;
+        generator.stop();
+        sampler.stop();
+
+        report(config, generator, sampler, seconds, acceptedAfter - acceptedBefore,
+                deliveredBefore, deliveredAfter, failedAfter - failedBefore);
+
+        log.info("Draining for {}", config.drain());
+        Thread.sleep(config.drain().toMillis());
+    }
+
+    private static void report(LoadTestConfig config, LoadGenerator generator, MetricsSampler sampler, double seconds,
+                               long created, Map<String, Long> deliveredBefore, Map<String, Long> deliveredAfter,
+                               long failed) {
+        StringBuilder out = new StringBuilder("\n=== Load test report ===\n");
+        out.append("Offered rate:        %.1f notifications/s, channels=%s%n".formatted(config.rate(), config.channels()));
+        out.append("Created (measured):  %d (%.1f/s), rejected total=%d, dropped total=%d%n"
+                .formatted(created, created / seconds, generator.rejected(), generator.dropped()));
+
+        long deliveredTotal = 0;
+        Map<String, double[]> percentiles = sampler.latencyPercentiles();
+        for (Map.Entry<String, Long> entry : deliveredAfter.entrySet()) {
+            long delivered = entry.getValue() - deliveredBefore.getOrDefault(entry.getKey(), 0L);
+            deliveredTotal += delivered;
+            double[] p = percentiles.getOrDefault(entry.getKey(), new double[]{Double.NaN, Double.NaN});
+            out.append("Delivered %-10s %d (%.1f/s), end-to-end p50=%.0f ms p99=%.0f ms%n"
+                    .formatted(entry.getKey() + ":", delivered, delivered / seconds, p[0], p[1]));
+        }
+        double errorRate = deliveredTotal + failed == 0 ? 0 : (double) failed / (deliveredTotal + failed);
+        out.append("Sustained delivery:  %.1f messages/s, provider failures=%d (%.2f%%)%n"
+                .formatted(deliveredTotal / seconds, failed, errorRate * 100));
+        out.append("DB connections:      active avg=%.1f max=%.0f of %.0f, pending max=%.0f%n"
+                .formatted(sampler.averageActiveConnections(), sampler.maxActiveConnections(),
+                        sampler.maxPoolSize(), sampler.maxPendingConnections()));
+        log.info(out.toString());
+    }
+
+    private static String createQueue(String endpoint) {
+        try (SqsClient sqs = SqsClient.builder()
+                .endpointOverride(URI.create(endpoint))
+                .region(Region.US_EAST_1)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("loadtest", "loadtest")))
+                .build()) {
+            return sqs.createQueue(CreateQueueRequest.builder()
+                    .queueName(QUEUE_NAME)
+                    .attributes(Map.of(QueueAttributeName.VISIBILITY_TIMEOUT, String.valueOf(Duration.ofSeconds(30).toSeconds())))
+                    .build()).queueUrl();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.tsu.notification.loadtest;
+
+import com.tsu.notification.infrastructure.metrics.NotificationMetrics;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads throughput, latency and connection pool usage from the service's own meters
+ * <p>
+ * - delivered: count of notification.latency{segment=end_to_end} per channel
+ * - failed: count of notification.provider.send{result=error}
+ * - latency: p50/p99 of notification.latency{segment=end_to_end} (percentiles enabled by the loadtest profile)
+ * - pool: hikari.connections.active / pending, sampled every second
+ */
+public class MetricsSampler {
+
+    private final MeterRegistry registry;
+    private final ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+    private volatile double maxActive;
+    private volatile double maxPending;
+    private double activeSum;
+    private long samples;
+
+    public MetricsSampler(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void start() {
+        sampler.scheduleAtFixedRate(this::samplePool, 0, 1, TimeUnit.SECONDS);
+    }
+
+    public void stop() {
+        sampler.shutdownNow();
+    }
+
+    /**
+     * Delivered messages per channel so far
+     */
+    public Map<String, Long> delivered() {
+        Map<String, Long> delivered = new TreeMap<>();
+        registry.find("notification.latency").tag("segment", "end_to_end").timers()
+                .forEach(timer -> delivered.merge(timer.getId().getTag("channel"), timer.count(), Long::sum));
+        return delivered;
+    }
+
+    public long failedProviderCalls() {
+        return registry.find("notification.provider.send").tag("result", NotificationMetrics.RESULT_ERROR).timers().stream()
+                .mapToLong(Timer::count)
+                .sum();
+    }
+
+    /**
+     * End-to-end p50/p99 per channel, in milliseconds
+     */
+    public Map<String, double[]> latencyPercentiles() {
+        Map<String, double[]> percentiles = new TreeMap<>();
+        for (Timer timer : registry.find("notification.latency").tag("segment", "end_to_end").timers()) {
+            double p50 = Double.NaN;
+            double p99 = Double.NaN;
+            for (ValueAtPercentile value : timer.takeSnapshot().percentileValues()) {
+                if (value.percentile() == 0.5) {
+                    p50 = value.value(TimeUnit.MILLISECONDS);
+                } else if (value.percentile() == 0.99) {
+                    p99 = value.value(TimeUnit.MILLISECONDS);
+                }
+            }
+            percentiles.put(timer.getId().getTag("channel"), new double[]{p50, p99});
+        }
+        return percentiles;
+    }
+
+    public double maxActiveConnections() {
+        return maxActive;
+    }
+
+    public double maxPendingConnections() {
+        return maxPending;
+    }
+
+    public synchronized double averageActiveConnections() {
+        return samples == 0 ? 0 : activeSum / samples;
+    }
+
+    public double maxPoolSize() {
+        Gauge max = registry.find("hikari.connections.max").gauge();
+        return max != null ? max.value() : Double.NaN;
+    }
+
+    private synchronized void samplePool() {
+        Gauge active = registry.find("hikari.connections.active").gauge();
+        Gauge pending = registry.find("hikari.connections.pending").gauge();
+        if (active != null) {
+            maxActive = Math.max(maxActive, active.value());
+            activeSum += active.value();
+            samples++;
+        }
+        if (pending != null) {
+            maxPending = Math.max(maxPending, pending.value());
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.tsu.notification.infrastructure.adapter;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -8,6 +10,8 @@ import org.springframework.stereotype.Component;
 import software.amazon.awssdk.services.ses.SesClient;
 import software.amazon.awssdk.services.ses.model.*;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -16,6 +20,7 @@ import java.util.Map;
  * Features:
  * - Send simple emails (HTML/Plain text)
  * - Send templated emails
+ * - Send bulk emails (SendBulkTemplatedEmail, up to 50 destinations per call)
  * - Configuration sets for tracking
  * - Reply-to addresses
  */
@@ -25,7 +30,15 @@ import java.util.Map;
 @Slf4j
 public class AwsSesSenderAdapter implements EmailSenderAdapter {
 
+    private static final int MAX_BULK_DESTINATIONS = 50;
+    /**
+     * The one SES template used for bulk sends: it only inserts the content rendered by the caller
+     */
+    static final String BULK_TEMPLATE_NAME = "bx-bulk-rendered";
+
     private final SesClient sesClient;
+    private final ObjectMapper objectMapper;
+    private volatile boolean bulkTemplateReady;
 
     @Value("${notification.channels.email.from-address:noreply@example.com}")
     private String fromAddress;
@@ -36,9 +49,14 @@ public class AwsSesSenderAdapter implements EmailSenderAdapter {
     @Value("${notification.channels.email.configuration-set:#{null}}")
     private String configurationSet;
 
+    @Override
+    public String getProviderName() {
+        return "AWS_SES";
+    }
+
     @Override
     public SendResult sendEmail(String to, String subject, String body, Map<String, Object> metadata) {
-        log.info("Sending email via AWS SES to: {} , subject: {}", to, subject);
+        log.debug("Sending email via AWS SES to: {} , subject: {}", to, subject);
 
         try {
             // Build message
@@ -80,7 +98,7 @@ public class AwsSesSenderAdapter implements EmailSenderAdapter {
             SendEmailResponse response = sesClient.sendEmail(requestBuilder.build());
             String messageId = response.messageId();
 
-            log.info("Email sent successfully via AWS SES: messageId={}, to={}",
+            log.debug("Email sent successfully via AWS SES: messageId={}, to={}",
                     messageId, to);
 
             return SendResult.success(messageId, "AWS_SES");
@@ -126,7 +144,7 @@ public class AwsSesSenderAdapter implements EmailSenderAdapter {
             String templateId,
             Map<String, Object> templateData
     ) {
-        log.info("Sending templated email via AWS SES: recipient={}, template={}",
+        log.debug("Sending templated email via AWS SES: recipient={}, template={}",
                 recipient, templateId);
 
         try {
@@ -153,7 +171,7 @@ public class AwsSesSenderAdapter implements EmailSenderAdapter {
             );
             String messageId = response.messageId();
 
-            log.info("Templated email sent successfully via AWS SES: messageId={}, template={}",
+            log.debug("Templated email sent successfully via AWS SES: messageId={}, template={}",
                     messageId, templateId);
 
             return SendResult.success(messageId, "AWS_SES_TEMPLATE");
@@ -178,6 +196,129 @@ public class AwsSesSenderAdapter implements EmailSenderAdapter {
         }
     }
 
+    @Override
+    public boolean supportsBulk() {
+        return true;
+    }
+
+    @Override
+    public int getMaxBulkRecipients() {
+        return MAX_BULK_DESTINATIONS;
+    }
+
+    /**
+     * Send via SendBulkTemplatedEmail
+     * <p>
+     * Content is rendered locally, like sendEmail, and passed as replacement data of a single
+     * fixed template ({{{subject}}} / {{{body}}}). SES therefore never renders user templates:
+     * a placeholder without data cannot turn into an asynchronous RenderingFailure, and the
+     * account holds one template however many distinct emails are sent.
+     */
+    @Override
+    public List<SendResult> sendBulkEmail(List<BulkEmailRecipient> recipients) {
+        List<SendResult> results = new ArrayList<>(recipients.size());
+        try {
+            ensureBulkTemplate();
+            for (int from = 0; from < recipients.size(); from += MAX_BULK_DESTINATIONS) {
+                List<BulkEmailRecipient> chunk = recipients.subList(from, Math.min(recipients.size(), from + MAX_BULK_DESTINATIONS));
+                try {
+                    results.addAll(sendBulkChunk(chunk));
+                } catch (TemplateDoesNotExistException e) {
+                    // Deleted outside the service: recreate it and retry the chunk once
+                    bulkTemplateReady = false;
+                    ensureBulkTemplate();
+                    results.addAll(sendBulkChunk(chunk));
+                }
+            }
+            return results;
+
+        } catch (SesException e) {
+            log.error("AWS SES bulk error: {}", e.awsErrorDetails().errorMessage(), e);
+            return failAll(results, recipients.size(), SendResult.failure(
+                    "SES error: " + e.awsErrorDetails().errorMessage(), "SES_ERROR"));
+
+        } catch (Exception e) {
+            log.error("Unexpected error sending bulk email via SES", e);
+            return failAll(results, recipients.size(), SendResult.failure(e.getMessage(), "EMAIL_SEND_ERROR"));
+        }
+    }
+
+    private List<SendResult> sendBulkChunk(List<BulkEmailRecipient> chunk) throws JsonProcessingException {
+        List<BulkEmailDestination> destinations = new ArrayList<>(chunk.size());
+        for (BulkEmailRecipient recipient : chunk) {
+            destinations.add(BulkEmailDestination.builder()
+                    .destination(Destination.builder().toAddresses(recipient.to()).build())
+                    .replacementTemplateData(buildTemplateDataJson(Map.of(
+                            "subject", recipient.subject(),
+                            "body", recipient.body())))
+                    .build());
+        }
+        var requestBuilder = SendBulkTemplatedEmailRequest.builder()
+                .source(formatFromAddress())
+                .template(BULK_TEMPLATE_NAME)
+                .defaultTemplateData("{}")
+                .destinations(destinations);
+        if (configurationSet != null && !configurationSet.isBlank()) {
+            requestBuilder.configurationSetName(configurationSet);
+        }
+
+        SendBulkTemplatedEmailResponse response = sesClient.sendBulkTemplatedEmail(requestBuilder.build());
+        List<SendResult> results = new ArrayList<>(chunk.size());
+        for (BulkEmailDestinationStatus status : response.status()) {
+            results.add(toSendResult(status));
+        }
+        log.debug("Bulk email sent via AWS SES: destinations={}", chunk.size());
+        return results;
+    }
+
+    private SendResult toSendResult(BulkEmailDestinationStatus status) {
+        BulkEmailStatus code = status.status();
+        if (code == BulkEmailStatus.SUCCESS) {
+            return SendResult.success(status.messageId(), "AWS_SES_BULK");
+        }
+        String error = status.error() != null ? status.error() : String.valueOf(code);
+        if (code == null) {
+            return SendResult.failure(error, "SES_ERROR");
+        }
+        return switch (code) {
+            case MESSAGE_REJECTED -> SendResult.failure("Email rejected: " + error, "SES_REJECTED");
+            case MAIL_FROM_DOMAIN_NOT_VERIFIED -> SendResult.failure("Domain not verified: " + error, "SES_DOMAIN_NOT_VERIFIED");
+            case TEMPLATE_DOES_NOT_EXIST -> SendResult.failure("Template not found: " + error, "SES_TEMPLATE_NOT_FOUND");
+            case ACCOUNT_SENDING_PAUSED -> SendResult.failure("Account sending paused: " + error, "SES_ACCOUNT_PAUSED");
+            case ACCOUNT_THROTTLED, ACCOUNT_DAILY_QUOTA_EXCEEDED -> SendResult.failure("Throttled: " + error, "SES_THROTTLED");
+            default -> SendResult.failure("SES error: " + error, "SES_ERROR");
+        };
+    }
+
+    /**
+     * Create the bulk pass-through template once (triple braces: content is inserted unescaped)
+     */
+    private void ensureBulkTemplate() {
+        if (bulkTemplateReady) {
+            return;
+        }
+        try {
+            sesClient.createTemplate(CreateTemplateRequest.builder()
+                    .template(Template.builder()
+                            .templateName(BULK_TEMPLATE_NAME)
+                            .subjectPart("{{{subject}}}")
+                            .htmlPart("{{{body}}}")
+                            .build())
+                    .build());
+            log.info("Created SES bulk template: {}", BULK_TEMPLATE_NAME);
+        } catch (AlreadyExistsException e) {
+            log.debug("SES bulk template already exists: {}", BULK_TEMPLATE_NAME);
+        }
+        bulkTemplateReady = true;
+    }
+
+    private static List<SendResult> failAll(List<SendResult> results, int total, SendResult failure) {
+        while (results.size() < total) {
+            results.add(failure);
+        }
+        return results;
+    }
+
     /**
      * Format from address with name
      */
@@ -192,43 +333,11 @@ public class AwsSesSenderAdapter implements EmailSenderAdapter {
      * Build template data as JSON string
      * AWS SES expects template data in JSON format
      */
-    private String buildTemplateDataJson(Map<String, Object> templateData) {
+    private String buildTemplateDataJson(Map<String, Object> templateData) throws JsonProcessingException {
         if (templateData == null || templateData.isEmpty()) {
             return "{}";
         }
-
-        StringBuilder json = new StringBuilder("{");
-        boolean first = true;
-
-        for (Map.Entry<String, Object> entry : templateData.entrySet()) {
-            if (!first) {
-                json.append(",");
-            }
-            json.append("\"").append(entry.getKey()).append("\":");
-
-            Object value = entry.getValue();
-            if (value instanceof String) {
-                json.append("\"").append(escapeJson((String) value)).append("\"");
-            } else if (value instanceof Number || value instanceof Boolean) {
-                json.append(value);
-            } else {
-                json.append("\"").append(escapeJson(value.toString())).append("\"");
-            }
-
-            first = false;
-        }
-        json.append("}");
-
-        return json.toString();
-    }
-
-    private String escapeJson(String input) {
-        if (input == null) return "";
-        return input.replace("\\", "\\\\")
-                .replace("\"", "\\\"")
-                .replace("\n", "\\n")
-                .replace("\r", "\\r")
-                .replace("\t", "\\t");
+        return objectMapper.writeValueAsString(templateData);
     }
 
     /**
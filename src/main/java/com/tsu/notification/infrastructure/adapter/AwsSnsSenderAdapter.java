@@ -37,9 +37,14 @@ public class AwsSnsSenderAdapter implements SmsSenderAdapter {
     @Value("${notification.channels.sms.max-price:1.00}")
     private String maxPrice;
 
+    @Override
+    public String getProviderName() {
+        return "AWS_SNS";
+    }
+
     @Override
     public SendResult sendSms(String phoneNumber, String message, Map<String, Object> metadata) {
-        log.info("Sending SMS via AWS SNS to: {}", phoneNumber);
+        log.debug("Sending SMS via AWS SNS to: {}", phoneNumber);
 
         // Validate phone number
         if (!isValidPhoneNumber(phoneNumber)) {
@@ -65,7 +70,7 @@ public class AwsSnsSenderAdapter implements SmsSenderAdapter {
             PublishResponse response = snsClient.publish(request);
             String messageId = response.messageId();
 
-            log.info("SMS sent successfully via AWS SNS: messageId={}, phoneNumber={}",
+            log.debug("SMS sent successfully via AWS SNS: messageId={}, phoneNumber={}",
                 messageId, phoneNumber);
 
             return SendResult.success(messageId, "AWS_SNS");
@@ -104,7 +109,7 @@ public class AwsSnsSenderAdapter implements SmsSenderAdapter {
     /**
      * Build SMS attributes for AWS SNS
      */
-    private Map<String, MessageAttributeValue> buildSmsAttributes(Map<String, Object> metadata) {
+    Map<String, MessageAttributeValue> buildSmsAttributes(Map<String, Object> metadata) {
         Map<String, MessageAttributeValue> attributes = new HashMap<>();
 
         // SMS Type: Transactional (higher priority, better delivery) or Promotional
@@ -0,0 +1,11 @@
+package com.tsu.notification.infrastructure.adapter;
+
+/**
+ * One destination of a bulk send, with its subject and body already rendered
+ *
+ * @param to      Email address
+ * @param subject Rendered subject
+ * @param body    Rendered HTML body
+ */
+public record BulkEmailRecipient(String to, String subject, String body) {
+}
@@ -1,5 +1,6 @@
 package com.tsu.notification.infrastructure.adapter;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -8,6 +9,11 @@ import java.util.Map;
  */
 public interface EmailSenderAdapter {
 
+    /**
+     * Provider name used for metrics and per-provider limits (e.g., AWS_SES, MOCK)
+     */
+    String getProviderName();
+
     /**
      * Send email via provider
      *
@@ -32,4 +38,33 @@ public interface EmailSenderAdapter {
         String templateId,
         Map<String, Object> templateData
     );
+
+    /**
+     * Whether sendBulkEmail is supported
+     */
+    default boolean supportsBulk() {
+        return false;
+    }
+
+    /**
+     * Maximum recipients per sendBulkEmail call
+     */
+    default int getMaxBulkRecipients() {
+        return 1;
+    }
+
+    /**
+     * Send many emails in one provider call
+     * Subjects and bodies are rendered by the caller (TemplateEngine), exactly as for sendEmail,
+     * so a bulk send never depends on provider-side template rendering.
+     * Providers without a bulk API send one sendEmail per recipient.
+     *
+     * @param recipients At most getMaxBulkRecipients() destinations with their rendered content
+     * @return one SendResult per recipient, in the same order
+     */
+    default List<SendResult> sendBulkEmail(List<BulkEmailRecipient> recipients) {
+        return recipients.stream()
+                .map(recipient -> sendEmail(recipient.to(), recipient.subject(), recipient.body(), Map.of()))
+                .toList();
+    }
 }
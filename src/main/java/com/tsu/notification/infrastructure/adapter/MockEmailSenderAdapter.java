@@ -1,30 +1,46 @@
 package com.tsu.notification.infrastructure.adapter;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
 import java.util.Map;
-import java.util.UUID;
 
 /**
  * Mock implementation for email sending (for testing/development)
+ * Latency, quota and errors can be simulated for load tests (notification.mock.email.*, see ProviderSimulator)
  */
 @Component
 @ConditionalOnProperty(name = "notification.channels.email.provider", havingValue = "MOCK", matchIfMissing = true)
-@RequiredArgsConstructor
 @Slf4j
 public class MockEmailSenderAdapter implements EmailSenderAdapter {
 
+    private final ProviderSimulator simulator;
+
+    public MockEmailSenderAdapter(Environment environment) {
+        this.simulator = ProviderSimulator.from(environment, "email", 0.0);
+    }
+
+    @Override
+    public String getProviderName() {
+        return "MOCK";
+    }
+
     @Override
     public SendResult sendEmail(String to, String subject, String body, Map<String, Object> metadata) {
-        log.info("MOCK: Sending email to: {}, subject: {}", to, subject);
+        log.debug("MOCK: Sending email to: {}, subject: {}", to, subject);
 
         try {
+            SendResult simulated = simulator.apply("EMAIL_SEND_ERROR", "SES_REJECTED");
+            if (simulated != null) {
+                return simulated;
+            }
+
             // Simulate successful send
-            String messageId = "mock-email-" + UUID.randomUUID();
-            log.info("MOCK: Email sent successfully: messageId={}", messageId);
+            String messageId = simulator.nextMessageId();
+            log.debug("MOCK: Email sent successfully: messageId={}", messageId);
 
             return SendResult.success(messageId, "MOCK_EMAIL_PROVIDER");
 
@@ -40,10 +56,14 @@ public class MockEmailSenderAdapter implements EmailSenderAdapter {
             String templateId,
             Map<String, Object> templateData
     ) {
-        log.info("MOCK: Sending templated email: recipient={}, templateId={}", recipient, templateId);
+        log.debug("MOCK: Sending templated email: recipient={}, templateId={}", recipient, templateId);
 
         try {
-            String messageId = "mock-template-email-" + UUID.randomUUID();
+            SendResult simulated = simulator.apply("TEMPLATE_EMAIL_ERROR", "SES_TEMPLATE_NOT_FOUND");
+            if (simulated != null) {
+                return simulated;
+            }
+            String messageId = simulator.nextMessageId();
             return SendResult.success(messageId, "MOCK_TEMPLATE_EMAIL_PROVIDER");
 
         } catch (Exception e) {
@@ -51,4 +71,29 @@ public class MockEmailSenderAdapter implements EmailSenderAdapter {
             return SendResult.failure(e.getMessage(), "TEMPLATE_EMAIL_ERROR");
         }
     }
+
+    @Override
+    public boolean supportsBulk() {
+        return true;
+    }
+
+    @Override
+    public int getMaxBulkRecipients() {
+        return 50;
+    }
+
+    /**
+     * One simulated provider call for the whole batch; failures apply to every recipient
+     */
+    @Override
+    public List<SendResult> sendBulkEmail(List<BulkEmailRecipient> recipients) {
+        log.debug("MOCK: Sending bulk email: recipients={}", recipients.size());
+        SendResult simulated = simulator.apply("EMAIL_SEND_ERROR", "SES_REJECTED");
+        if (simulated != null) {
+            return recipients.stream().map(recipient -> simulated).toList();
+        }
+        return recipients.stream()
+                .map(recipient -> SendResult.success(simulator.nextMessageId(), "MOCK_BULK_EMAIL_PROVIDER"))
+                .toList();
+    }
 }
@@ -0,0 +1,37 @@
+package com.tsu.notification.infrastructure.adapter;
+
+import com.tsu.notification.entities.DevicePushTokenTb;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Mock implementation for push sending (for testing/development)
+ * Latency, quota and errors can be simulated for load tests (notification.mock.push.*, see ProviderSimulator)
+ */
+@Component
+@ConditionalOnProperty(name = "notification.channels.push.provider", havingValue = "MOCK")
+@Slf4j
+public class MockPushSenderAdapter implements PushSenderAdapter {
+
+    private final ProviderSimulator simulator;
+
+    public MockPushSenderAdapter(Environment environment) {
+        this.simulator = ProviderSimulator.from(environment, "push", 0.0);
+    }
+
+    @Override
+    public SendResult sendPush(DevicePushTokenTb deviceToken, String title, String body, Map<String, Object> metadata) {
+        log.debug("MOCK: Sending push notification: platform={}, deviceId={}",
+                deviceToken.getPlatform(), deviceToken.getDeviceId());
+
+        SendResult simulated = simulator.apply("PUSH_SEND_ERROR", "UNREGISTERED");
+        if (simulated != null) {
+            return simulated;
+        }
+        return SendResult.success(simulator.nextMessageId(), "MOCK_" + deviceToken.getPlatform());
+    }
+}
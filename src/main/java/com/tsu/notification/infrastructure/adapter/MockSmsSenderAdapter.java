@@ -1,25 +1,35 @@
 package com.tsu.notification.infrastructure.adapter;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
 
 import java.util.Map;
-import java.util.UUID;
 
 /**
  * Mock implementation for SMS sending (for testing/development)
+ * Latency, quota and errors can be simulated for load tests (notification.mock.sms.*, see ProviderSimulator)
  */
 @Component
 @ConditionalOnProperty(name = "notification.channels.sms.provider", havingValue = "MOCK", matchIfMissing = true)
-@RequiredArgsConstructor
 @Slf4j
 public class MockSmsSenderAdapter implements SmsSenderAdapter {
 
+    private final ProviderSimulator simulator;
+
+    public MockSmsSenderAdapter(Environment environment) {
+        this.simulator = ProviderSimulator.from(environment, "sms", 0.05);
+    }
+
+    @Override
+    public String getProviderName() {
+        return "MOCK";
+    }
+
     @Override
     public SendResult sendSms(String phoneNumber, String message, Map<String, Object> metadata) {
-        log.info("MOCK: Sending SMS to: {}, message length: {}", phoneNumber, message.length());
+        log.debug("MOCK: Sending SMS to: {}, message length: {}", phoneNumber, message.length());
 
         try {
             // Validate phone number
@@ -31,15 +41,16 @@ public class MockSmsSenderAdapter implements SmsSenderAdapter {
                 );
             }
 
-            // Simulate rate limiting (for testing retry logic)
-            if (Math.random() < 0.05) {
-                log.warn("MOCK: Simulating rate limit");
-                return SendResult.failure("Rate limit exceeded", "RATE_LIMIT");
+            // Simulate latency, throttling and provider errors (for testing retry logic)
+            SendResult simulated = simulator.apply("RATE_LIMIT", "SNS_INVALID_PARAMETER");
+            if (simulated != null) {
+                log.debug("MOCK: Simulated SMS failure: errorCode={}", simulated.getErrorCode());
+                return simulated;
             }
 
             // Simulate successful send
-            String messageId = "mock-sms-" + UUID.randomUUID();
-            log.info("MOCK: SMS sent successfully: messageId={}", messageId);
+            String messageId = simulator.nextMessageId();
+            log.debug("MOCK: SMS sent successfully: messageId={}", messageId);
 
             return SendResult.success(messageId, "MOCK_SMS_PROVIDER");
 
@@ -0,0 +1,100 @@
+package com.tsu.notification.infrastructure.adapter;
+
+import com.tsu.notification.infrastructure.ratelimit.TokenBucketRateLimiter;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Provider behavior simulated by the mock adapters (load tests and local capacity checks)
+ * <p>
+ * Configured per channel under notification.mock.&lt;channel&gt;:
+ * - latency-ms: median latency per call
+ * - latency-p99-ms: if above latency-ms, latency is log-normal with this p99 (long tail);
+ *   otherwise latency-ms plus uniform latency-jitter-ms
+ * - tps / burst: provider quota; calls above it are throttled with a retry-after hint
+ * - error-rate: share of calls failing with a transient (retryable) error
+ * - permanent-error-rate: share of calls failing with a permanent error
+ */
+class ProviderSimulator {
+
+    private static final double Z_99 = 2.326;
+
+    private final String channel;
+    private final long latencyMs;
+    private final long latencyJitterMs;
+    private final double sigma;
+    private final TokenBucketRateLimiter quota;
+    private final double errorRate;
+    private final double permanentErrorRate;
+    private final AtomicLong sequence = new AtomicLong();
+
+    ProviderSimulator(String channel, long latencyMs, long latencyJitterMs, long latencyP99Ms,
+                      double tps, int burst, double errorRate, double permanentErrorRate) {
+        this.channel = channel;
+        this.latencyMs = latencyMs;
+        this.latencyJitterMs = latencyJitterMs;
+        this.sigma = latencyMs > 0 && latencyP99Ms > latencyMs ? Math.log((double) latencyP99Ms / latencyMs) / Z_99 : 0;
+        this.quota = tps > 0 ? new TokenBucketRateLimiter(tps, Math.max(1, burst)) : null;
+        this.errorRate = errorRate;
+        this.permanentErrorRate = permanentErrorRate;
+    }
+
+    static ProviderSimulator from(Environment environment, String channel, double defaultErrorRate) {
+        String prefix = "notification.mock." + channel + ".";
+        double tps = environment.getProperty(prefix + "tps", Double.class, 0.0);
+        return new ProviderSimulator(channel,
+                environment.getProperty(prefix + "latency-ms", Long.class, 0L),
+                environment.getProperty(prefix + "latency-jitter-ms", Long.class, 0L),
+                environment.getProperty(prefix + "latency-p99-ms", Long.class, 0L),
+                tps,
+                environment.getProperty(prefix + "burst", Integer.class, (int) Math.ceil(tps)),
+                environment.getProperty(prefix + "error-rate", Double.class, defaultErrorRate),
+                environment.getProperty(prefix + "permanent-error-rate", Double.class, 0.0));
+    }
+
+    /**
+     * Apply throttling, latency and injected errors to one provider call
+     *
+     * @return the simulated failure, or null if the call should succeed
+     */
+    SendResult apply(String transientErrorCode, String permanentErrorCode) {
+        if (quota != null && !quota.tryAcquire(Duration.ZERO)) {
+            return SendResult.retryLater("Maximum sending rate exceeded", "MOCK_THROTTLED", Duration.ofSeconds(1));
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long delay = nextLatencyMs(random);
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return SendResult.failure("Interrupted", transientErrorCode);
+            }
+        }
+        double roll = random.nextDouble();
+        if (roll < permanentErrorRate) {
+            return SendResult.failure("Simulated permanent failure", permanentErrorCode, true);
+        }
+        if (roll < permanentErrorRate + errorRate) {
+            return SendResult.failure("Simulated transient failure", transientErrorCode);
+        }
+        return null;
+    }
+
+    /**
+     * Provider message ID for a successful call (a counter, cheaper than a random UUID)
+     */
+    String nextMessageId() {
+        return "mock-" + channel + "-" + sequence.incrementAndGet();
+    }
+
+    private long nextLatencyMs(ThreadLocalRandom random) {
+        if (sigma > 0) {
+            return Math.round(latencyMs * Math.exp(sigma * random.nextGaussian()));
+        }
+        return latencyMs + (latencyJitterMs > 0 ? random.nextLong(latencyJitterMs + 1) : 0);
+    }
+}
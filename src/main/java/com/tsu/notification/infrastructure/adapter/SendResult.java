@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Duration;
+
 /**
  * Result of a send operation
  */
@@ -21,6 +23,11 @@ public class SendResult {
     private String errorMessage;
     private String errorCode;
 
+    /**
+     * Minimum delay before retrying, when the failure carries a hint (open circuit, throttling)
+     */
+    private Duration retryAfter;
+
     public static SendResult success(String providerId, String providerName) {
         return SendResult.builder()
             .success(true)
@@ -44,4 +51,13 @@ public class SendResult {
                 .errorCode(errorCode)
                 .build();
     }
+
+    public static SendResult retryLater(String errorMessage, String errorCode, Duration retryAfter) {
+        return SendResult.builder()
+                .success(false)
+                .errorMessage(errorMessage)
+                .errorCode(errorCode)
+                .retryAfter(retryAfter)
+                .build();
+    }
 }
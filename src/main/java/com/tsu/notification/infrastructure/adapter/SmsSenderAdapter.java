@@ -8,6 +8,11 @@ import java.util.Map;
  */
 public interface SmsSenderAdapter {
 
+    /**
+     * Provider name used for metrics and per-provider limits (e.g., AWS_SNS, MOCK)
+     */
+    String getProviderName();
+
     /**
      * Send SMS via provider
      *
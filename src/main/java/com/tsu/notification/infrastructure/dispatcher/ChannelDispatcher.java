@@ -1,12 +1,21 @@
 package com.tsu.notification.infrastructure.dispatcher;
 
+import com.tsu.common.enums.MessageChannel;
 import com.tsu.notification.infrastructure.queue.OutboxEventMessage;
 
 /**
  * Interface for channel-specific dispatchers
+ * <p>
+ * Any ChannelDispatcher bean is registered for the channel it declares (see ChannelDispatcherFactory),
+ * so a new channel only needs a new dispatcher bean. Several dispatchers of one channel run
+ * in @Order order.
  */
 public interface ChannelDispatcher {
 
+    /**
+     * Channel whose outbox events this dispatcher handles
+     */
+    MessageChannel getChannel();
 
     void dispatch(OutboxEventMessage delivery);
 
@@ -1,30 +1,54 @@
 package com.tsu.notification.infrastructure.dispatcher;
 
 import com.tsu.common.enums.MessageChannel;
-import lombok.RequiredArgsConstructor;
+import com.tsu.notification.infrastructure.metrics.NotificationMetrics;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 /**
- * Factory to get the appropriate channel dispatcher
+ * Registry of channel dispatchers, keyed by the channel each dispatcher declares
+ * <p>
+ * Built once at startup and never modified, so lookups from concurrent consumers need no
+ * locking. Dispatchers arrive in @Order order; a channel with several dispatchers gets a
+ * CompositeChannelDispatcher running them in that order.
  */
 @Component
-@RequiredArgsConstructor
+@Slf4j
 public class ChannelDispatcherFactory {
 
-    private final List<ChannelDispatcher> dispatchers;
-    private Map<MessageChannel, ChannelDispatcher> dispatcherMap;
+    private final Map<MessageChannel, ChannelDispatcher> dispatcherMap;
 
-    public ChannelDispatcher getDispatcher(MessageChannel channel) {
-        if (dispatcherMap == null) {
-            initializeDispatcherMap();
+    public ChannelDispatcherFactory(List<ChannelDispatcher> dispatchers, NotificationMetrics metrics) {
+        Map<MessageChannel, List<ChannelDispatcher>> byChannel = new EnumMap<>(MessageChannel.class);
+        for (ChannelDispatcher dispatcher : dispatchers) {
+            MessageChannel channel = dispatcher.getChannel();
+            if (channel == null) {
+                throw new IllegalArgumentException("Dispatcher declares no channel: " + dispatcher.getClass());
+            }
+            byChannel.computeIfAbsent(channel, key -> new ArrayList<>()).add(dispatcher);
         }
 
-        ChannelDispatcher dispatcher = dispatcherMap.get(channel);
+        Map<MessageChannel, ChannelDispatcher> registry = new EnumMap<>(MessageChannel.class);
+        byChannel.forEach((channel, channelDispatchers) -> {
+            registry.put(channel, channelDispatchers.size() == 1
+                    ? channelDispatchers.get(0)
+                    : new CompositeChannelDispatcher(channel, List.copyOf(channelDispatchers), metrics));
+            log.info("Channel dispatchers registered: channel={}, dispatchers={}", channel,
+                    channelDispatchers.stream().map(dispatcher -> ClassUtils.getUserClass(dispatcher).getSimpleName()).toList());
+        });
+        this.dispatcherMap = Collections.unmodifiableMap(registry);
+    }
+
+    public ChannelDispatcher getDispatcher(MessageChannel channel) {
+        ChannelDispatcher dispatcher = channel != null ? dispatcherMap.get(channel) : null;
         if (dispatcher == null) {
             throw new IllegalArgumentException("No dispatcher found for channel: " + channel);
         }
@@ -32,23 +56,7 @@ public class ChannelDispatcherFactory {
         return dispatcher;
     }
 
-    private void initializeDispatcherMap() {
-        dispatcherMap = dispatchers.stream()
-            .collect(Collectors.toMap(
-                this::extractChannel,
-                Function.identity()
-            ));
-    }
-
-    private MessageChannel extractChannel(ChannelDispatcher dispatcher) {
-        // Map dispatcher types to channels
-        if (dispatcher instanceof EmailChannelDispatcher) {
-            return MessageChannel.email;
-        } else if (dispatcher instanceof SmsChannelDispatcher) {
-            return MessageChannel.sms;
-        } else if (dispatcher instanceof PushChannelDispatcher) {
-            return MessageChannel.notification;
-        } 
-        throw new IllegalArgumentException("Unknown dispatcher type: " + dispatcher.getClass());
+    public Set<MessageChannel> getChannels() {
+        return dispatcherMap.keySet();
     }
 }
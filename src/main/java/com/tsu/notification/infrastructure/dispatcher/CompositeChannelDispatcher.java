@@ -0,0 +1,57 @@
+package com.tsu.notification.infrastructure.dispatcher;
+
+import com.tsu.common.enums.MessageChannel;
+import com.tsu.notification.infrastructure.metrics.NotificationMetrics;
+import com.tsu.notification.infrastructure.queue.OutboxEventMessage;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.util.ClassUtils;
+
+import java.util.List;
+
+/**
+ * Several dispatchers registered for one channel, run in order
+ * <p>
+ * A failing dispatcher does not stop the ones after it; the first failure is rethrown
+ * once all have run. Each dispatcher is timed on its own (notification.dispatcher).
+ */
+@RequiredArgsConstructor
+class CompositeChannelDispatcher implements ChannelDispatcher {
+
+    private final MessageChannel channel;
+    private final List<ChannelDispatcher> dispatchers;
+    private final NotificationMetrics metrics;
+
+    @Override
+    public MessageChannel getChannel() {
+        return channel;
+    }
+
+    @Override
+    public void dispatch(OutboxEventMessage delivery) {
+        RuntimeException failure = null;
+        for (ChannelDispatcher dispatcher : dispatchers) {
+            Timer.Sample sample = metrics.start();
+            boolean success = false;
+            try {
+                dispatcher.dispatch(delivery);
+                success = true;
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            } finally {
+                metrics.recordDispatcher(sample, channel, ClassUtils.getUserClass(dispatcher).getSimpleName(), success);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    List<ChannelDispatcher> getDispatchers() {
+        return dispatchers;
+    }
+}
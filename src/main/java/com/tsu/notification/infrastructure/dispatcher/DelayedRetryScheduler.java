@@ -0,0 +1,138 @@
+package com.tsu.notification.infrastructure.dispatcher;
+
+import com.tsu.notification.infrastructure.queue.OutboxEventMessage;
+import com.tsu.notification.infrastructure.queue.QueuePublisher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Schedules retries of failed dispatches
+ * <p>
+ * Modes (notification.retry.mode):
+ * - outbox: the outbox row is picked up again by OutboxDispatcher at nextAttemptDate
+ * - queue: retries due within max-queue-delay-seconds (SQS limit: 15 minutes) are re-enqueued
+ *   directly with DelaySeconds, skipping the Postgres poll / re-publish round trip.
+ *   Longer backoffs, and retries on FIFO queues (no per-message delay), fall back to the outbox.
+ * <p>
+ * A queued retry is published after the dispatch transaction commits. The outbox row keeps
+ * a nextAttemptDate pushed out by outbox-fallback-grace-seconds, so it is only re-polled
+ * if the queued retry was lost.
+ * <p>
+ * While an event from an ordered (FIFO) lane is dispatched under hold (see
+ * OutboxEventMessageHandler.handleOrdered), its retry is held in the queue instead: the
+ * consumer keeps the message in flight until the retry time, blocking the rest of its
+ * message group, and the outbox row again only serves as a fallback.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DelayedRetryScheduler {
+
+    private static final long SQS_MAX_DELAY_SECONDS = 900;
+
+    private static final String RESOURCE_PREFIX = DelayedRetryScheduler.class.getName() + ".";
+
+    private final QueuePublisher queuePublisher;
+    private final Map<UUID, AtomicReference<Instant>> heldRetries = new ConcurrentHashMap<>();
+
+    @Value("${notification.retry.mode:outbox}")
+    private String mode;
+
+    @Value("${notification.retry.max-queue-delay-seconds:900}")
+    private long maxQueueDelaySeconds;
+
+    @Value("${notification.retry.outbox-fallback-grace-seconds:900}")
+    private long outboxFallbackGraceSeconds;
+
+    /**
+     * Schedule the next attempt of a failed dispatch
+     *
+     * @param nextAttempt when the message should be retried
+     * @return nextAttemptDate to store on the outbox row
+     */
+    public Instant schedule(OutboxEventMessage message, Instant nextAttempt) {
+        AtomicReference<Instant> held = heldRetries.get(message.getEventId());
+        if (held != null) {
+            held.accumulateAndGet(nextAttempt, (a, b) -> a == null || b.isAfter(a) ? b : a);
+            return withGrace(nextAttempt);
+        }
+        Duration delay = Duration.between(Instant.now(), nextAttempt);
+        if (!"queue".equalsIgnoreCase(mode) || delay.getSeconds() > maxQueueDelay()
+                || !queuePublisher.supportsDelayedRetry(message)) {
+            return nextAttempt;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return publish(message, nextAttempt) ? withGrace(nextAttempt) : nextAttempt;
+        }
+
+        // Several failures of one event in a transaction (e.g. one per push recipient) share a single retry
+        String key = RESOURCE_PREFIX + message.getEventId();
+        @SuppressWarnings("unchecked")
+        AtomicReference<Instant> scheduled = (AtomicReference<Instant>) TransactionSynchronizationManager.getResource(key);
+        if (scheduled != null) {
+            scheduled.accumulateAndGet(nextAttempt, (a, b) -> b.isAfter(a) ? b : a);
+            return withGrace(scheduled.get());
+        }
+        AtomicReference<Instant> retryAt = new AtomicReference<>(nextAttempt);
+        TransactionSynchronizationManager.bindResource(key, retryAt);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(message, retryAt.get());
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(key);
+            }
+        });
+        return withGrace(nextAttempt);
+    }
+
+    /**
+     * Hold retries of the event in the queue until endHold (same thread, around one dispatch)
+     */
+    void beginHold(UUID eventId) {
+        heldRetries.put(eventId, new AtomicReference<>());
+    }
+
+    /**
+     * @return the latest retry time scheduled since beginHold, or null if no retry was scheduled
+     */
+    Instant endHold(UUID eventId) {
+        AtomicReference<Instant> held = heldRetries.remove(eventId);
+        return held != null ? held.get() : null;
+    }
+
+    private boolean publish(OutboxEventMessage message, Instant retryAt) {
+        long delaySeconds = Math.max(0, Duration.between(Instant.now(), retryAt).toSeconds());
+        try {
+            queuePublisher.publishRetry(message, (int) Math.min(delaySeconds, maxQueueDelay()));
+            return true;
+        } catch (Exception e) {
+            // The outbox row is still FAILED and will be re-polled after the grace period
+            log.warn("Failed to enqueue delayed retry, falling back to outbox: eventId={}", message.getEventId(), e);
+            return false;
+        }
+    }
+
+    private long maxQueueDelay() {
+        return Math.min(maxQueueDelaySeconds, SQS_MAX_DELAY_SECONDS);
+    }
+
+    private Instant withGrace(Instant nextAttempt) {
+        return nextAttempt.plusSeconds(outboxFallbackGraceSeconds);
+    }
+}
@@ -0,0 +1,21 @@
+package com.tsu.notification.infrastructure.dispatcher;
+
+import java.time.Instant;
+
+/**
+ * Result of dispatching an event from an ordered (FIFO) queue
+ *
+ * @param settled whether the event reached a final state (processed, dead-lettered, already completed)
+ *                and its queue message can be deleted
+ * @param retryAt when an unsettled event should be retried (null: after the queue's visibility timeout)
+ */
+public record DispatchOutcome(boolean settled, Instant retryAt) {
+
+    public static DispatchOutcome done() {
+        return new DispatchOutcome(true, null);
+    }
+
+    public static DispatchOutcome retry(Instant retryAt) {
+        return new DispatchOutcome(false, retryAt);
+    }
+}
@@ -0,0 +1,69 @@
+package com.tsu.notification.infrastructure.dispatcher;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Array;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Row locking for bulk email grouping (see db/email_message_bulk_index.sql)
+ * <p>
+ * Runs in the dispatch transaction. Both the bulk path and the single-send path lock the row
+ * they are about to send, and sibling rows are claimed with SKIP LOCKED, so a row is never
+ * picked up by two senders at once.
+ */
+@Component
+public class EmailBulkStore {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String lockSql;
+    private final String claimSiblingsSql;
+    private final Set<String> claimStatuses;
+
+    public EmailBulkStore(JdbcTemplate jdbcTemplate,
+                          @Value("${notification.email.bulk.table:email_message}") String table,
+                          @Value("${notification.email.bulk.claim-statuses:pending}") Set<String> claimStatuses) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.claimStatuses = claimStatuses;
+        this.lockSql = "SELECT status FROM " + table + " WHERE id = ? FOR UPDATE SKIP LOCKED";
+        this.claimSiblingsSql = """
+                SELECT id FROM %s
+                WHERE md5(subject || body) = md5(? || ?)
+                  AND status = ANY(?)
+                  AND id <> ?
+                ORDER BY created_date
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+                """.formatted(table);
+    }
+
+    /**
+     * Lock a row for sending
+     *
+     * @return the row's current status, or empty if another transaction holds it (e.g., a concurrent bulk send)
+     */
+    public Optional<String> tryLock(UUID id) {
+        return jdbcTemplate.query(lockSql, (rs, rowNum) -> rs.getString(1), id).stream().findFirst();
+    }
+
+    /**
+     * Lock up to limit other pending rows with the same subject and body
+     */
+    public List<UUID> claimSiblings(UUID id, String subject, String body, int limit) {
+        return jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(claimSiblingsSql);
+            Array statuses = connection.createArrayOf("varchar", claimStatuses.toArray());
+            statement.setString(1, subject);
+            statement.setString(2, body);
+            statement.setArray(3, statuses);
+            statement.setObject(4, id);
+            statement.setInt(5, limit);
+            return statement;
+        }, (rs, rowNum) -> rs.getObject(1, UUID.class));
+    }
+}
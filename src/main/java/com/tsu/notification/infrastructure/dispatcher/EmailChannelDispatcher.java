@@ -1,72 +1,147 @@
 package com.tsu.notification.infrastructure.dispatcher;
 
+import com.tsu.common.enums.MessageChannel;
 import com.tsu.notification.enums.MessageStatus;
 import com.tsu.notification.entities.EmailMessageTb;
 import com.tsu.notification.entities.OutboxMessageTb;
 import com.tsu.notification.enums.OutboxStatus;
+import com.tsu.notification.infrastructure.adapter.BulkEmailRecipient;
 import com.tsu.notification.infrastructure.adapter.EmailSenderAdapter;
 import com.tsu.notification.infrastructure.adapter.SendResult;
+import com.tsu.notification.infrastructure.idempotency.EventIdempotency;
+import com.tsu.notification.infrastructure.logging.HotPathLog;
+import com.tsu.notification.infrastructure.metrics.DeliveryLatencyTracker;
 import com.tsu.notification.infrastructure.queue.OutboxEventMessage;
+import com.tsu.notification.infrastructure.retry.RetryDecision;
+import com.tsu.notification.infrastructure.retry.RetryPolicyEngine;
+import com.tsu.notification.infrastructure.template.TemplateEngine;
 import com.tsu.notification.repo.EmailMessageRepository;
 import com.tsu.notification.repo.OutboxMessageRepository;
-import com.tsu.common.util.BackoffUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Dispatcher for email notifications
+ * <p>
+ * With notification.email.bulk.enabled and a provider that supports bulk sends, a pending email
+ * whose subject/body is a template ({{var}}) is sent together with up to 49 other pending rows
+ * sharing the same template in one provider call. Each row is rendered locally, as in a single
+ * send, so both paths produce the same content.
  */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class EmailChannelDispatcher implements ChannelDispatcher {
 
-    private static final int INITIAL_DELAY = 60;
-    private static final int MAX_DELAY = 600;
+    private static final Duration LOCKED_RECHECK_DELAY = Duration.ofSeconds(5);
+
     private final EmailSenderAdapter emailSenderAdapter;
     private final EmailMessageRepository emailMessageRepository;
     private final OutboxMessageRepository outboxMessageRepository;
+    private final ProviderCallExecutor providerCalls;
+    private final RetryPolicyEngine retryPolicies;
+    private final TemplateEngine templateEngine;
+    private final DelayedRetryScheduler retryScheduler;
+    private final DeliveryLatencyTracker latencyTracker;
+    private final HotPathLog hotPathLog;
+    private final EventIdempotency idempotency;
+    private final EmailBulkStore bulkStore;
+
+    @Value("${notification.email.bulk.enabled:false}")
+    private boolean bulkEnabled;
+
+    @Value("${notification.email.bulk.max-recipients:50}")
+    private int bulkMaxRecipients;
+
+    @Override
+    public MessageChannel getChannel() {
+        return MessageChannel.email;
+    }
 
     @Override
     @Transactional
     public void dispatch(OutboxEventMessage message) {
         outboxMessageRepository.findById(message.getEventId())
-                .ifPresent(outbox -> emailMessageRepository.findById(message.getMessageId())
-                        .ifPresentOrElse(tb -> sendEmail(outbox, tb),
-                                () -> {
-                                    outbox.setStatus(OutboxStatus.INVALID);
-                                    outbox.setLastError("message not found");
-                                    log.warn("Delivery not supported by EmailChannelDispatcher: {} ({})", message.getMessageType(), message.getMessageId());
-                                }));
+                .ifPresent(outbox -> {
+                    emailMessageRepository.findById(message.getMessageId())
+                            .ifPresentOrElse(tb -> sendEmail(message, outbox, tb),
+                                    () -> {
+                                        outbox.setStatus(OutboxStatus.INVALID);
+                                        outbox.setLastError("message not found");
+                                        log.warn("Delivery not supported by EmailChannelDispatcher: {} ({})", message.getMessageType(), message.getMessageId());
+                                    });
+                    idempotency.markCompletedIfTerminal(outbox);
+                });
     }
 
-    private void sendEmail(OutboxMessageTb outbox, EmailMessageTb email) {
+    private void sendEmail(OutboxEventMessage message, OutboxMessageTb outbox, EmailMessageTb email) {
         if (email.getStatus() == MessageStatus.sent) {
-            log.info("Email already sent, skipping: message id={}", email.getId());
+            log.debug("Email already sent, skipping: message id={}", email.getId());
             outbox.setStatus(OutboxStatus.PROCESSED);
             outboxMessageRepository.save(outbox);
             return;
         }
+        if (isBulkEnabled()) {
+            Optional<String> status = bulkStore.tryLock(email.getId());
+            if (status.isEmpty()) {
+                // Being sent by a concurrent bulk send: check again shortly, without counting an attempt
+                outbox.setStatus(OutboxStatus.FAILED);
+                outbox.setNextAttemptDate(retryScheduler.schedule(message, Instant.now().plus(LOCKED_RECHECK_DELAY)));
+                outboxMessageRepository.save(outbox);
+                return;
+            }
+            if (MessageStatus.sent.name().equals(status.get())) {
+                log.debug("Email already sent in bulk, skipping: message id={}", email.getId());
+                outbox.setStatus(OutboxStatus.PROCESSED);
+                outboxMessageRepository.save(outbox);
+                return;
+            }
+            if (isTemplate(email)) {
+                List<UUID> siblings = bulkStore.claimSiblings(email.getId(), email.getSubject(), email.getBody(),
+                        Math.min(bulkMaxRecipients, emailSenderAdapter.getMaxBulkRecipients()) - 1);
+                if (!siblings.isEmpty()) {
+                    List<EmailMessageTb> batch = new ArrayList<>();
+                    batch.add(email);
+                    emailMessageRepository.findAllById(siblings).forEach(batch::add);
+                    sendBulk(message, outbox, batch);
+                    return;
+                }
+            }
+        }
         Instant now = Instant.now();
+        boolean sampled = hotPathLog.isSampled(log);
         try {
             // Mark as processing
             email.setLastAttemptDate(now);
             email.setStatus(MessageStatus.sending);
             emailMessageRepository.save(email);
             // Send email
-            log.info("Sending email: {}, to={}", email.getId(), email.getToEmail());
-            SendResult result = emailSenderAdapter.sendEmail(
-                    email.getToEmail(),
-                    email.getSubject(),
-                    email.getBody(),
-                    buildMetadata(email)
-            );
+            if (sampled) {
+                log.debug("Sending email: {}, to={}", email.getId(), email.getToEmail());
+            }
+            Map<String, Object> variables = buildTemplateVariables(email);
+            String subject = templateEngine.renderText(email.getSubject(), variables);
+            String body = templateEngine.renderHtml(email.getBody(), variables);
+            SendResult result = providerCalls.execute(MessageChannel.email, emailSenderAdapter.getProviderName(),
+                    () -> emailSenderAdapter.sendEmail(
+                            email.getToEmail(),
+                            subject,
+                            body,
+                            buildMetadata(email)
+                    ));
             if (result.isSuccess()) {
                 // Mark as sent
                 email.setSentDate(now);
@@ -76,37 +151,159 @@ public class EmailChannelDispatcher implements ChannelDispatcher {
                 outbox.setStatus(OutboxStatus.PROCESSED);
                 outbox.setProcessedDate(Instant.now());
                 outboxMessageRepository.save(outbox);
-                log.info("Email sent successfully: id={}, providerId={}",
-                        email.getId(), result.getProviderId());
+                latencyTracker.recordDelivered(message);
+                hotPathLog.delivered(MessageChannel.email);
+                if (sampled) {
+                    log.debug("Email sent successfully: id={}, providerId={}",
+                            email.getId(), result.getProviderId());
+                }
             } else {
                 // Handle failure with retry
-                handleFailure(outbox, email, result.getErrorMessage(), result.getErrorCode());
+                handleFailure(message, outbox, email, result.getErrorMessage(), result.getErrorCode(),
+                        result.isPermanent(), result.getRetryAfter());
             }
 
         } catch (Exception e) {
             log.error("Error sending email: id={}", email.getId(), e);
-            handleFailure(outbox, email, e.getMessage(), "EXCEPTION");
+            handleFailure(message, outbox, email, e.getMessage(), "EXCEPTION", false, null);
         }
     }
 
+    /**
+     * Send rows sharing a subject/body template in one provider call
+     * The first row owns the outbox event being dispatched; siblings keep their own outbox events,
+     * which find them already sent (or retry them individually if their destination failed).
+     */
+    private void sendBulk(OutboxEventMessage message, OutboxMessageTb outbox, List<EmailMessageTb> batch) {
+        Instant now = Instant.now();
+        EmailMessageTb first = batch.get(0);
+        List<BulkEmailRecipient> recipients = new ArrayList<>(batch.size());
+        for (EmailMessageTb email : batch) {
+            email.setLastAttemptDate(now);
+            email.setStatus(MessageStatus.sending);
+            emailMessageRepository.save(email);
+            Map<String, Object> variables = buildTemplateVariables(email);
+            recipients.add(new BulkEmailRecipient(email.getToEmail(),
+                    templateEngine.renderText(email.getSubject(), variables),
+                    templateEngine.renderHtml(email.getBody(), variables)));
+        }
+        log.debug("Sending bulk email: template of {}, recipients={}", first.getId(), batch.size());
+
+        AtomicReference<List<SendResult>> destinationResults = new AtomicReference<>();
+        SendResult callResult;
+        try {
+            // SES counts its send rate per recipient, so the call takes one permit per destination
+            callResult = providerCalls.execute(MessageChannel.email, emailSenderAdapter.getProviderName(), recipients.size(), () -> {
+                List<SendResult> results = emailSenderAdapter.sendBulkEmail(recipients);
+                destinationResults.set(results);
+                return results.stream().filter(SendResult::isSuccess).findFirst().orElse(results.get(0));
+            });
+        } catch (Exception e) {
+            log.error("Error sending bulk email: template of {}", first.getId(), e);
+            callResult = SendResult.failure(e.getMessage(), "EXCEPTION");
+        }
+
+        List<SendResult> results = destinationResults.get();
+        for (int i = 0; i < batch.size(); i++) {
+            EmailMessageTb email = batch.get(i);
+            SendResult result = results != null && i < results.size() ? results.get(i) : callResult;
+            if (result.isSuccess()) {
+                email.setSentDate(now);
+                email.setStatus(MessageStatus.sent);
+                emailMessageRepository.save(email);
+                hotPathLog.delivered(MessageChannel.email);
+                if (i == 0) {
+                    outbox.setStatus(OutboxStatus.PROCESSED);
+                    outbox.setProcessedDate(Instant.now());
+                    outboxMessageRepository.save(outbox);
+                    latencyTracker.recordDelivered(message);
+                }
+            } else if (i == 0) {
+                handleFailure(message, outbox, email, result.getErrorMessage(), result.getErrorCode(),
+                        result.isPermanent(), result.getRetryAfter());
+            } else {
+                // Retried through the sibling's own outbox event
+                email.setLastError(result.getErrorCode() + ": " + result.getErrorMessage());
+                if (!ProviderCallExecutor.isLocalRejection(result.getErrorCode())) {
+                    email.setAttempts(email.getAttempts() + 1);
+                }
+                email.setStatus(MessageStatus.failed);
+                emailMessageRepository.save(email);
+                hotPathLog.failed(MessageChannel.email);
+            }
+        }
+    }
+
+    private boolean isBulkEnabled() {
+        return bulkEnabled && emailSenderAdapter.supportsBulk();
+    }
+
+    private static boolean isTemplate(EmailMessageTb email) {
+        return email.getBody() != null && email.getSubject() != null
+                && (email.getBody().contains("{{") || email.getSubject().contains("{{"));
+    }
+
     private Map<String, Object> buildMetadata(EmailMessageTb email) {
         return new HashMap<>();
     }
 
-    private void handleFailure(OutboxMessageTb outbox, EmailMessageTb email, String error, String errorCode) {
+    /**
+     * Per-recipient variables available to {{...}} placeholders in subject and body
+     */
+    private Map<String, Object> buildTemplateVariables(EmailMessageTb email) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("toEmail", email.getToEmail());
+        return variables;
+    }
+
+    /**
+     * Reschedule a send that never reached the provider, without spending an attempt
+     */
+    private void defer(OutboxEventMessage message, OutboxMessageTb outbox, EmailMessageTb email, String fullError, String errorCode,
+                       Duration retryAfter) {
+        RetryDecision decision = retryPolicies.defer(MessageChannel.email, errorCode, retryAfter);
+        outbox.setStatus(OutboxStatus.FAILED);
+        outbox.setNextAttemptDate(retryScheduler.schedule(message, decision.getNextAttempt()));
+        outboxMessageRepository.save(outbox);
+
+        email.setLastError(fullError);
+        email.setStatus(MessageStatus.failed);
+        emailMessageRepository.save(email);
+        log.debug("Email deferred, provider unavailable: nextAttempt={}, deliveryId={}, error={}",
+                decision.getNextAttempt(), email.getId(), fullError);
+    }
+
+    private void handleFailure(OutboxEventMessage message, OutboxMessageTb outbox, EmailMessageTb email, String error, String errorCode,
+                               boolean permanent, Duration retryAfter) {
         String fullError = errorCode + ": " + error;
         outbox.setLastError(fullError);
-        outbox.setStatus(OutboxStatus.FAILED);
+        if (ProviderCallExecutor.isLocalRejection(errorCode)) {
+            defer(message, outbox, email, fullError, errorCode, retryAfter);
+            return;
+        }
         outbox.setAttemptCount(outbox.getAttemptCount() + 1);
-        outbox.setNextAttemptDate(BackoffUtils.exponential(outbox.getAttemptCount(), INITIAL_DELAY, MAX_DELAY));
+        RetryDecision decision = retryPolicies.decide(MessageChannel.email, errorCode, permanent, outbox.getAttemptCount(), retryAfter);
+        if (decision.isRetry()) {
+            outbox.setStatus(OutboxStatus.FAILED);
+            outbox.setNextAttemptDate(retryScheduler.schedule(message, decision.getNextAttempt()));
+        } else {
+            // Dead-letter: no further attempts
+            outbox.setStatus(OutboxStatus.INVALID);
+        }
         outboxMessageRepository.save(outbox);
 
         email.setLastError(fullError);
         email.setAttempts(email.getAttempts() + 1);
         email.setStatus(MessageStatus.failed);
         emailMessageRepository.save(email);
-        log.error("Email permanently failed after {} attempts: deliveryId={}",
-                email.getAttempts(), email.getId());
+        hotPathLog.failed(MessageChannel.email);
+        if (decision.isRetry()) {
+            log.warn("Email failed, retry scheduled: attempts={}, nextAttempt={}, deliveryId={}, error={}",
+                    email.getAttempts(), decision.getNextAttempt(), email.getId(), fullError);
+        } else {
+            log.error("Email permanently failed after {} attempts ({}): deliveryId={}, error={}",
+                    email.getAttempts(), decision.getReason(), email.getId(), fullError);
+        }
     }
 
 
@@ -0,0 +1,122 @@
+package com.tsu.notification.infrastructure.dispatcher;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tsu.common.enums.MessageChannel;
+import com.tsu.notification.entities.NotificationTb;
+import com.tsu.notification.enums.DeliveryStatus;
+import com.tsu.notification.infrastructure.inapp.InAppDeliveryStore;
+import com.tsu.notification.infrastructure.inapp.InAppRouter;
+import com.tsu.notification.infrastructure.preference.RecipientPreferenceService;
+import com.tsu.notification.infrastructure.queue.OutboxEventMessage;
+import com.tsu.notification.infrastructure.template.TemplateEngine;
+import com.tsu.notification.repo.NotificationRecipientRepository;
+import com.tsu.notification.repo.NotificationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Dispatcher for in-app notifications to connected WebSocket / SSE sessions
+ * <p>
+ * Sessions may be on any node; InAppRouter forwards the message to the nodes holding a
+ * session of each recipient, so the consumer does not need to run on the user's node.
+ * <p>
+ * Runs before PushChannelDispatcher for the same outbox event, while the recipients are
+ * still pending. In-app delivery is best-effort and in addition to push: push still runs
+ * for every recipient, connected or not, and neither the outbox event nor the recipient
+ * status is changed here. Each recipient is claimed in InAppDeliveryStore before sending,
+ * so retries and redeliveries of the event do not send the notification in-app again.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "notification.channels.in-app.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class InAppChannelDispatcher implements ChannelDispatcher {
+
+    private static final int PURGE_CHUNK_SIZE = 5000;
+
+    private final InAppRouter router;
+    private final InAppDeliveryStore deliveryStore;
+    private final NotificationRepository notificationRepository;
+    private final NotificationRecipientRepository recipientRepository;
+    private final RecipientPreferenceService preferenceService;
+    private final TemplateEngine templateEngine;
+    private final ObjectMapper objectMapper;
+
+    @Value("${notification.channels.in-app.delivery-retention:P2D}")
+    private Duration deliveryRetention;
+
+    @Override
+    public MessageChannel getChannel() {
+        return MessageChannel.notification;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void dispatch(OutboxEventMessage message) {
+        try {
+            notificationRepository.findById(message.getMessageId())
+                    .ifPresent(this::sendToConnected);
+        } catch (Exception e) {
+            // Never fail the event for the push dispatcher that follows
+            log.warn("In-app delivery failed: messageId={}", message.getMessageId(), e);
+        }
+    }
+
+    private void sendToConnected(NotificationTb notification) {
+        Set<UUID> userIds = new HashSet<>();
+        recipientRepository.findByNotificationIdAndStatusList(notification.getId(), List.of(DeliveryStatus.queued, DeliveryStatus.failed))
+                .forEach(recipient -> userIds.add(recipient.getUserId()));
+        int routed = router.deliver(userIds,
+                connected -> deliveryStore.claim(notification.getId(), connected),
+                userId -> preferenceService.isEnabled(userId, MessageChannel.notification)
+                        ? buildPayload(notification, userId)
+                        : null);
+        log.debug("In-app notification routed: notificationId={}, users={}", notification.getId(), routed);
+    }
+
+    private String buildPayload(NotificationTb notification, UUID userId) {
+        Map<String, Object> variables = Map.of("userId", userId);
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("notificationId", notification.getId());
+        payload.put("title", templateEngine.renderText(notification.getTitle(), variables));
+        payload.put("body", templateEngine.renderText(notification.getBody(), variables));
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize in-app payload", e);
+        }
+    }
+
+    /**
+     * Purge delivery records past retention in small chunks (run daily)
+     */
+    @Scheduled(cron = "0 45 2 * * *") // 2:45 AM daily
+    public void purgeDeliveries() {
+        Instant threshold = Instant.now().minus(deliveryRetention);
+        int total = 0;
+        int deleted;
+        do {
+            deleted = deliveryStore.purgeBefore(threshold, PURGE_CHUNK_SIZE);
+            total += deleted;
+        } while (deleted == PURGE_CHUNK_SIZE);
+        log.info("Purged {} in-app delivery records", total);
+    }
+}
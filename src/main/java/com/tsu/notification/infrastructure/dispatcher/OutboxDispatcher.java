@@ -1,18 +1,27 @@
 package com.tsu.notification.infrastructure.dispatcher;
 
 import com.tsu.notification.entities.OutboxMessageTb;
+import com.tsu.notification.enums.OutboxStatus;
+import com.tsu.notification.infrastructure.metrics.NotificationMetrics;
 import com.tsu.notification.infrastructure.queue.QueuePublisher;
 import com.tsu.notification.repo.OutboxMessageRepository;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Dispatcher that polls outbox events and publishes them to a message queue
@@ -21,17 +30,40 @@ import java.util.UUID;
  * Separation of concerns:
  * - OutboxDispatcher: Polls DB and publishes to queue (producer)
  * - QueueConsumer: Consumes from queue and routes to handlers (consumer)
+ * <p>
+ * Claimed rows get a lease (notification.outbox.lease.duration); rows left unfinished past
+ * their lease are reclaimed by OutboxLeaseSweeper. The lease covers the time a published
+ * event waits in the queue; the consumer then renews it for the dispatch and releases it
+ * when done (OutboxEventMessageHandler). A row whose lease runs out while still queued is
+ * republished (EventIdempotency skips the copy once the event completed), so the lease
+ * should still exceed the usual queue backlog.
+ * Processed rows are removed by OutboxRetention.
  */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class OutboxDispatcher {
 
     private final OutboxMessageRepository outboxMessageRepository;
     private final QueuePublisher queuePublisher;
+    private final NotificationMetrics metrics;
+    private final OutboxLeaseStore leaseStore;
+    private final TransactionTemplate claimTransaction;
+
+    @Value("${notification.outbox.lease.duration:PT2M}")
+    private Duration leaseDuration;
 
     private static final int BATCH_SIZE = 100;
 
+    public OutboxDispatcher(OutboxMessageRepository outboxMessageRepository, QueuePublisher queuePublisher,
+                            NotificationMetrics metrics, OutboxLeaseStore leaseStore,
+                            PlatformTransactionManager transactionManager) {
+        this.outboxMessageRepository = outboxMessageRepository;
+        this.queuePublisher = queuePublisher;
+        this.metrics = metrics;
+        this.leaseStore = leaseStore;
+        this.claimTransaction = new TransactionTemplate(transactionManager);
+    }
+
     /**
      * Poll outbox events every 5 seconds
      * Uses FOR UPDATE SKIP LOCKED to handle concurrent dispatchers safely
@@ -44,26 +76,84 @@ public class OutboxDispatcher {
                 log.trace("No pending outbox events");
                 return;
             }
-            log.info("Processing {} outbox events", events.size());
-            events.forEach(this::processEvent);
+            log.debug("Processing {} outbox events", events.size());
+            events = coalesce(events);
+            // High-priority events of the batch are published first (stable, so claim order is kept per lane)
+            events.stream()
+                    .sorted(Comparator.comparing(queuePublisher::priorityOf))
+                    .forEach(this::processEvent);
         } catch (Exception e) {
             log.error("Error in outbox dispatcher", e);
         }
     }
 
     /**
-     * Fetch pending events with pessimistic lock
+     * Fetch pending events with pessimistic lock and lease them
+     * Claim and lease run in one transaction (a programmatic one: this method is called
+     * internally, so a @Transactional annotation would not be proxied), so no other
+     * dispatcher can claim the rows between the two statements.
      */
-    @Transactional
     protected List<OutboxMessageTb> fetchPendingEvents() {
-        return outboxMessageRepository.findOutboxMessageForUpdate(LocalDateTime.now(), BATCH_SIZE);
+        Timer.Sample sample = metrics.start();
+        List<OutboxMessageTb> events = claimTransaction.execute(status -> {
+            List<OutboxMessageTb> claimed = outboxMessageRepository.findOutboxMessageForUpdate(LocalDateTime.now(), BATCH_SIZE);
+            leaseStore.lease(claimed.stream().map(OutboxMessageTb::getId).toList(), leaseDuration);
+            return claimed;
+        });
+        metrics.recordOutboxClaim(sample, events.size());
+        return events;
+    }
+
+    /**
+     * Collapse claimed events for the same aggregate (messageId + messageType) into one
+     * <p>
+     * Duplicates come from retries, stuck-message resets and duplicate creates. Dispatch works
+     * on the aggregate's current state, so one queue message is enough: the oldest event is
+     * kept and the others are marked processed as superseded.
+     */
+    private List<OutboxMessageTb> coalesce(List<OutboxMessageTb> events) {
+        Map<String, OutboxMessageTb> kept = new LinkedHashMap<>();
+        for (OutboxMessageTb event : events) {
+            String key = event.getMessageType() + ":" + event.getMessageId();
+            OutboxMessageTb existing = kept.get(key);
+            if (existing == null) {
+                kept.put(key, event);
+            } else if (isOlder(event, existing)) {
+                kept.put(key, event);
+                supersede(existing, event);
+            } else {
+                supersede(event, existing);
+            }
+        }
+        return kept.size() == events.size() ? events : new ArrayList<>(kept.values());
+    }
+
+    private static boolean isOlder(OutboxMessageTb event, OutboxMessageTb other) {
+        return event.getCreatedDate() != null && other.getCreatedDate() != null
+                && event.getCreatedDate().isBefore(other.getCreatedDate());
+    }
+
+    /**
+     * The save commits on its own (repository transaction); this method is called
+     * internally, so a @Transactional annotation would not be proxied
+     */
+    protected void supersede(OutboxMessageTb event, OutboxMessageTb keptEvent) {
+        event.setStatus(OutboxStatus.PROCESSED);
+        event.setProcessedDate(Instant.now());
+        event.setLastError("superseded by " + keptEvent.getId());
+        outboxMessageRepository.save(event);
+        metrics.recordCoalesced(event.getMessageType());
+        log.debug("Outbox event superseded: id={}, keptId={}, messageId={}",
+                event.getId(), keptEvent.getId(), event.getMessageId());
     }
 
     /**
      * Process a single outbox event by publishing to queue
+     * Not transactional on purpose: the queue publish must not hold a database transaction open
      */
-    @Transactional
     protected void processEvent(OutboxMessageTb event) {
+        AtomicInteger inFlight = metrics.inFlight(NotificationMetrics.STAGE_OUTBOX_PUBLISH, event.getMessageType());
+        inFlight.incrementAndGet();
         try {
             log.debug("Publishing outbox event to queue: id={}, type={}, aggregateId={}",
                     event.getId(), event.getEventType(), event.getMessageId());
@@ -72,38 +162,14 @@ public class OutboxDispatcher {
             outboxMessageRepository.save(event);
             // Publish to message queue (decouples from event handler)
             String queueId = queuePublisher.publishOutboxEvent(event);
-            log.info("Outbox event published to queue: id={}, queueId={}", event.getId(), queueId);
+            log.debug("Outbox event published to queue: id={}, queueId={}", event.getId(), queueId);
         } catch (Exception e) {
             log.error("Failed to publish outbox event to queue: id={}", event.getId(), e);
             event.markAsFailed(e.getMessage());
             outboxMessageRepository.save(event);
+        } finally {
+            inFlight.decrementAndGet();
         }
     }
 
-    /**
-     * Cleanup old processed events (run daily)
-     */
-    @Scheduled(cron = "0 0 2 * * *") // 2 AM daily
-    @Transactional
-    public void cleanupProcessedEvents() {
-        LocalDateTime threshold = LocalDateTime.now().minusSeconds(7 * 24 * 3600); // 7 days ago
-        int deleted = outboxMessageRepository.deleteProcessedMessagesBefore(threshold);
-        log.info("Deleted {} old processed outbox events", deleted);
-    }
-
-    /**
-     * Reset stuck events (run every hour)
-     */
-    @Scheduled(cron = "0 0 * * * *") // Every hour
-    @Transactional
-    public void resetStuckMessages() {
-        LocalDateTime threshold = LocalDateTime.now().minusSeconds(3600); // 1 hour ago
-        List<UUID> stuckMessages = outboxMessageRepository.findStuckMessages(threshold)
-                .map(OutboxMessageTb::getId)
-                .toList();
-        if (!stuckMessages.isEmpty()) {
-            int reset = outboxMessageRepository.resetStuckMessages(stuckMessages);
-            log.warn("Reset {} stuck outbox events", reset);
-        }
-    }
 }
@@ -1,14 +1,30 @@
 package com.tsu.notification.infrastructure.dispatcher;
 
+import com.tsu.notification.infrastructure.idempotency.EventIdempotency;
+import com.tsu.notification.infrastructure.metrics.NotificationMetrics;
 import com.tsu.notification.infrastructure.queue.OutboxEventMessage;
 import com.tsu.notification.repo.OutboxMessageRepository;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Handler for notification-related outbox events
  * Routes to specific channel dispatchers
+ * <p>
+ * Dispatchers handle their own failures (retry through the outbox or the queue), so handle
+ * always lets the queue message be deleted. Ordered lanes use handleOrdered instead, which
+ * reports whether the event is settled so a failed message can block its group.
+ * <p>
+ * The outbox lease is renewed when the event is taken and released once it was dispatched,
+ * so a short lease is enough however long the dispatch waited in the queue. A dispatch that
+ * threw keeps its lease and is reclaimed by OutboxLeaseSweeper when it runs out.
  */
 @Component
 @RequiredArgsConstructor
@@ -17,16 +33,78 @@ public class OutboxEventMessageHandler {
 
     private final ChannelDispatcherFactory channelDispatcherFactory;
     private final OutboxMessageRepository messageRepository;
+    private final NotificationMetrics metrics;
+    private final EventIdempotency idempotency;
+    private final DelayedRetryScheduler retryScheduler;
+    private final OutboxLeaseStore leaseStore;
+
+    @Value("${notification.outbox.lease.duration:PT2M}")
+    private Duration leaseDuration;
 
     public void handle(OutboxEventMessage event) {
+        dispatch(event);
+    }
+
+    /**
+     * Dispatch an event from an ordered (FIFO) lane
+     * A retry scheduled by the dispatcher is held in the queue rather than re-published,
+     * so the event is only settled once it succeeded or was dead-lettered.
+     */
+    public DispatchOutcome handleOrdered(OutboxEventMessage event) {
+        boolean success = false;
+        Instant retryAt = null;
+        retryScheduler.beginHold(event.getEventId());
+        try {
+            success = dispatch(event);
+        } finally {
+            retryAt = retryScheduler.endHold(event.getEventId());
+        }
+        if (!success || retryAt != null) {
+            return DispatchOutcome.retry(retryAt);
+        }
+        return DispatchOutcome.done();
+    }
+
+    /**
+     * @return false if the dispatcher threw
+     */
+    private boolean dispatch(OutboxEventMessage event) {
+        if (idempotency.isCompleted(event.getEventId())) {
+            // Redelivery of an event that already reached a terminal state: ack without dispatching
+            log.debug("Skipping completed event: id={}", event.getEventId());
+            metrics.recordDuplicate(event.getMessageType());
+            return true;
+        }
         String eventType = event.getEventType();
         log.debug("Handling notification event: type={}", eventType);
+        Timer.Sample sample = metrics.start();
+        AtomicInteger inFlight = metrics.inFlight(NotificationMetrics.STAGE_DISPATCH, event.getMessageType());
+        inFlight.incrementAndGet();
+        boolean success = false;
         try {
+            leaseStore.renew(event.getEventId(), leaseDuration);
             ChannelDispatcher dispatcher = channelDispatcherFactory.getDispatcher(event.getMessageType());
             dispatcher.dispatch(event);
+            success = true;
         } catch (Exception e) {
             log.error("Failed to dispatch OutboxEventMessage: id={}", event.getEventId(), e);
 
+        } finally {
+            inFlight.decrementAndGet();
+            metrics.recordDispatch(sample, event.getMessageType(), success);
+        }
+        if (success) {
+            releaseLease(event);
+        }
+        return success;
+    }
+
+    private void releaseLease(OutboxEventMessage event) {
+        try {
+            leaseStore.release(event.getEventId());
+        } catch (Exception e) {
+            // The lease then simply runs out and the sweeper releases the row
+            log.warn("Failed to release outbox lease: id={}", event.getEventId(), e);
         }
     }
 
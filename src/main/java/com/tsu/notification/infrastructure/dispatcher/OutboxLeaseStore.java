@@ -0,0 +1,104 @@
+package com.tsu.notification.infrastructure.dispatcher;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Claim leases on outbox rows (column lease_expires_date, see db/outbox_message_lease.sql)
+ * <p>
+ * A claimed row carries a lease expiry; rows whose lease ran out before they reached a
+ * terminal state are reclaimed through a partial index that only covers unfinished leased rows.
+ * The consumer renews the lease when it takes the event and releases it once dispatched, so
+ * the lease only has to cover the queue wait and a single dispatch.
+ */
+@Component
+public class OutboxLeaseStore {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String leaseSql;
+    private final String renewSql;
+    private final String releaseSql;
+    private final String reclaimSql;
+
+    public OutboxLeaseStore(JdbcTemplate jdbcTemplate,
+                            @Value("${notification.outbox.table:outbox_message}") String table) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.leaseSql = """
+                UPDATE %s
+                SET lease_expires_date = now() + make_interval(secs => ?)
+                WHERE id = ANY(?)
+                """.formatted(table);
+        this.renewSql = """
+                UPDATE %s
+                SET lease_expires_date = now() + make_interval(secs => ?)
+                WHERE id = ?
+                  AND status NOT IN ('PROCESSED', 'INVALID')
+                """.formatted(table);
+        this.releaseSql = """
+                UPDATE %s
+                SET lease_expires_date = NULL,
+                    processing_started_date = NULL
+                WHERE id = ?
+                  AND lease_expires_date IS NOT NULL
+                """.formatted(table);
+        this.reclaimSql = """
+                UPDATE %1$s
+                SET lease_expires_date = NULL,
+                    processing_started_date = NULL
+                WHERE id IN (
+                    SELECT id FROM %1$s
+                    WHERE lease_expires_date < now()
+                      AND status NOT IN ('PROCESSED', 'INVALID')
+                    ORDER BY lease_expires_date
+                    LIMIT ?
+                    FOR UPDATE SKIP LOCKED
+                )
+                RETURNING id
+                """.formatted(table);
+    }
+
+    /**
+     * Set the lease expiry of claimed rows (runs in the claim transaction)
+     */
+    public void lease(Collection<UUID> ids, Duration lease) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(connection -> {
+            var statement = connection.prepareStatement(leaseSql);
+            statement.setDouble(1, lease.toMillis() / 1000.0);
+            statement.setArray(2, connection.createArrayOf("uuid", ids.toArray()));
+            return statement;
+        });
+    }
+
+    /**
+     * Extend the lease of a row the consumer is about to dispatch (no-op once it is terminal)
+     */
+    public void renew(UUID id, Duration lease) {
+        jdbcTemplate.update(renewSql, lease.toMillis() / 1000.0, id);
+    }
+
+    /**
+     * Clear the lease of a dispatched row
+     * A row left unfinished (retry scheduled) is claimed again at its next attempt date.
+     */
+    public void release(UUID id) {
+        jdbcTemplate.update(releaseSql, id);
+    }
+
+    /**
+     * Release up to limit rows whose lease expired, making them claimable again
+     *
+     * @return IDs of the reclaimed rows
+     */
+    public List<UUID> reclaimExpired(int limit) {
+        return jdbcTemplate.query(reclaimSql, (rs, rowNum) -> rs.getObject(1, UUID.class), limit);
+    }
+}
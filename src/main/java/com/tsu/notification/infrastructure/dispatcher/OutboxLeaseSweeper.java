@@ -0,0 +1,54 @@
+package com.tsu.notification.infrastructure.dispatcher;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reclaims outbox rows whose claim lease expired (e.g., the node crashed after claiming)
+ * <p>
+ * Runs every sweep-interval instead of hourly, and each run touches at most
+ * max-batches x batch-size rows, so recovery latency is about lease + sweep-interval
+ * with no large IN lists or entity loading.
+ */
+@Component
+@Slf4j
+public class OutboxLeaseSweeper {
+
+    private final OutboxLeaseStore leaseStore;
+    private final int batchSize;
+    private final int maxBatches;
+
+    public OutboxLeaseSweeper(OutboxLeaseStore leaseStore,
+                              @Value("${notification.outbox.lease.sweep-batch-size:500}") int batchSize,
+                              @Value("${notification.outbox.lease.sweep-max-batches:10}") int maxBatches) {
+        this.leaseStore = leaseStore;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+    }
+
+    /**
+     * Reset stuck events in bounded batches, each committed on its own
+     */
+    @Scheduled(fixedDelayString = "${notification.outbox.lease.sweep-interval:30000}")
+    public void sweep() {
+        int total = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            List<UUID> reclaimed = leaseStore.reclaimExpired(batchSize);
+            total += reclaimed.size();
+            if (log.isDebugEnabled() && !reclaimed.isEmpty()) {
+                log.debug("Reclaimed expired outbox leases: ids={}", reclaimed);
+            }
+            if (reclaimed.size() < batchSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.warn("Reset {} stuck outbox events", total);
+        }
+    }
+}
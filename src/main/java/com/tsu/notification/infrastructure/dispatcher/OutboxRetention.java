@@ -0,0 +1,118 @@
+package com.tsu.notification.infrastructure.dispatcher;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * Removes processed outbox rows past retention without long transactions
+ * <p>
+ * Modes (notification.outbox.retention.mode):
+ * - delete: chunked deletes of chunk-size rows, each committed on its own, with a pause
+ *   between chunks and an overall time budget so WAL and replication lag stay flat
+ * - partition: daily partitions are created ahead of time and whole partitions older than
+ *   retention are dropped (partitions still holding unfinished rows are kept)
+ */
+@Component
+@Slf4j
+public class OutboxRetention {
+
+    private final OutboxRetentionStore store;
+    private final String mode;
+    private final Duration retention;
+    private final int chunkSize;
+    private final long pauseMs;
+    private final Duration maxDuration;
+    private final int premakeDays;
+
+    public OutboxRetention(OutboxRetentionStore store,
+                           @Value("${notification.outbox.retention.mode:delete}") String mode,
+                           @Value("${notification.outbox.retention.retention:P7D}") Duration retention,
+                           @Value("${notification.outbox.retention.chunk-size:5000}") int chunkSize,
+                           @Value("${notification.outbox.retention.pause-ms:100}") long pauseMs,
+                           @Value("${notification.outbox.retention.max-duration:PT30M}") Duration maxDuration,
+                           @Value("${notification.outbox.retention.premake-days:3}") int premakeDays) {
+        this.store = store;
+        this.mode = mode;
+        this.retention = retention;
+        this.chunkSize = chunkSize;
+        this.pauseMs = pauseMs;
+        this.maxDuration = maxDuration;
+        this.premakeDays = premakeDays;
+    }
+
+    /**
+     * Cleanup old processed events (run daily)
+     */
+    @Scheduled(cron = "${notification.outbox.retention.cron:0 0 2 * * *}") // 2 AM daily
+    public void cleanupProcessedEvents() {
+        if (isPartitioned()) {
+            dropExpiredPartitions();
+        } else {
+            deleteInChunks();
+        }
+    }
+
+    /**
+     * Keep partitions for the next few days in place before rows arrive (run hourly)
+     */
+    @Scheduled(cron = "0 5 * * * *")
+    public void createUpcomingPartitions() {
+        if (!isPartitioned()) {
+            return;
+        }
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        for (int day = 0; day <= premakeDays; day++) {
+            store.createPartition(today.plusDays(day));
+        }
+    }
+
+    private void deleteInChunks() {
+        Instant threshold = Instant.now().minus(retention);
+        Instant deadline = Instant.now().plus(maxDuration);
+        int total = 0;
+        int deleted;
+        try {
+            do {
+                deleted = store.deleteProcessedBefore(threshold, chunkSize);
+                total += deleted;
+                if (deleted == chunkSize && pauseMs > 0) {
+                    Thread.sleep(pauseMs);
+                }
+            } while (deleted == chunkSize && Instant.now().isBefore(deadline));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (deleted == chunkSize) {
+            log.warn("Outbox cleanup stopped at time budget, remaining rows are deleted on the next run: deleted={}", total);
+        } else {
+            log.info("Deleted {} old processed outbox events", total);
+        }
+    }
+
+    private void dropExpiredPartitions() {
+        LocalDate cutoff = LocalDate.ofInstant(Instant.now().minus(retention), ZoneOffset.UTC);
+        for (String partition : store.listPartitions()) {
+            LocalDate day = store.partitionDay(partition);
+            if (day == null || !day.isBefore(cutoff)) {
+                continue;
+            }
+            if (store.hasOpenRows(partition)) {
+                log.warn("Keeping expired outbox partition with unfinished events: partition={}", partition);
+                continue;
+            }
+            store.dropPartition(partition);
+            log.info("Dropped expired outbox partition: partition={}", partition);
+        }
+    }
+
+    private boolean isPartitioned() {
+        return "partition".equalsIgnoreCase(mode);
+    }
+}
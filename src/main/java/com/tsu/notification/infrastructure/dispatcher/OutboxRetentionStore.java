@@ -0,0 +1,111 @@
+package com.tsu.notification.infrastructure.dispatcher;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Retention of processed outbox rows (see db/outbox_message_partitioned.sql for partition mode)
+ * <p>
+ * - delete: rows are deleted in small chunks, each in its own short transaction
+ * - partition: the table is range-partitioned by created_date into daily partitions
+ *   named {@code <table>_pYYYYMMDD}; retention detaches and drops whole partitions
+ */
+@Component
+public class OutboxRetentionStore {
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String table;
+    private final String deleteChunkSql;
+    private final String listPartitionsSql;
+
+    public OutboxRetentionStore(JdbcTemplate jdbcTemplate,
+                                @Value("${notification.outbox.table:outbox_message}") String table) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.table = table;
+        this.deleteChunkSql = """
+                DELETE FROM %1$s
+                WHERE id IN (
+                    SELECT id FROM %1$s
+                    WHERE status = 'PROCESSED' AND processed_date < ?
+                    LIMIT ?
+                    FOR UPDATE SKIP LOCKED
+                )
+                """.formatted(table);
+        this.listPartitionsSql = """
+                SELECT child.relname
+                FROM pg_inherits i
+                JOIN pg_class parent ON parent.oid = i.inhparent
+                JOIN pg_class child ON child.oid = i.inhrelid
+                WHERE parent.relname = ?
+                ORDER BY child.relname
+                """;
+    }
+
+    /**
+     * Delete up to limit processed rows older than the threshold (rows locked by a
+     * dispatcher are skipped and picked up by a later chunk)
+     *
+     * @return number of rows deleted
+     */
+    public int deleteProcessedBefore(Instant threshold, int limit) {
+        return jdbcTemplate.update(deleteChunkSql, Timestamp.from(threshold), limit);
+    }
+
+    /**
+     * Create the daily partition holding rows created on the given day, if missing
+     */
+    public void createPartition(LocalDate day) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')"
+                .formatted(partitionName(day), table, day, day.plusDays(1)));
+    }
+
+    /**
+     * Daily partitions of the outbox table, oldest first
+     */
+    public List<String> listPartitions() {
+        return jdbcTemplate.queryForList(listPartitionsSql, String.class, table).stream()
+                .filter(name -> name.startsWith(table + "_p"))
+                .toList();
+    }
+
+    /**
+     * Day covered by a partition created by this store, or null for other partitions
+     */
+    public LocalDate partitionDay(String partition) {
+        try {
+            return LocalDate.parse(partition.substring(table.length() + 2), PARTITION_SUFFIX);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Whether the partition still holds rows that have not reached a terminal state
+     */
+    public boolean hasOpenRows(String partition) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM %s WHERE status NOT IN ('PROCESSED', 'INVALID'))".formatted(partition),
+                Boolean.class));
+    }
+
+    /**
+     * Detach and drop a partition: a catalog operation, no per-row WAL or dead tuples
+     */
+    public void dropPartition(String partition) {
+        jdbcTemplate.execute("ALTER TABLE %s DETACH PARTITION %s".formatted(table, partition));
+        jdbcTemplate.execute("DROP TABLE %s".formatted(partition));
+    }
+
+    private String partitionName(LocalDate day) {
+        return table + "_p" + PARTITION_SUFFIX.format(day);
+    }
+}
@@ -0,0 +1,115 @@
+package com.tsu.notification.infrastructure.dispatcher;
+
+import com.tsu.common.enums.MessageChannel;
+import com.tsu.notification.infrastructure.adapter.SendResult;
+import com.tsu.notification.infrastructure.metrics.NotificationMetrics;
+import com.tsu.notification.infrastructure.ratelimit.ProviderRateLimiters;
+import com.tsu.notification.infrastructure.resilience.Bulkhead;
+import com.tsu.notification.infrastructure.resilience.CircuitBreaker;
+import com.tsu.notification.infrastructure.resilience.ProviderResilience;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Single entry point used by channel dispatchers to call a sender adapter
+ * <p>
+ * Per provider, in order:
+ * - circuit breaker: fail fast with a retryable result while the provider is down
+ * - bulkhead: cap the number of threads blocked inside the provider
+ * - rate limiter: pace calls below the provider quota
+ * - metrics: record latency and outcome of the call
+ * <p>
+ * Rejections by the first three never reach the provider; dispatchers defer them
+ * (see isLocalRejection) without spending an attempt of the retry budget.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProviderCallExecutor {
+
+    public static final String RATE_LIMITED = "RATE_LIMITED";
+    public static final String CIRCUIT_OPEN = "CIRCUIT_OPEN";
+    public static final String BULKHEAD_FULL = "BULKHEAD_FULL";
+
+    private static final Duration BULKHEAD_RETRY_AFTER = Duration.ofSeconds(1);
+    private static final Duration RATE_LIMIT_RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final ProviderRateLimiters rateLimiters;
+    private final ProviderResilience resilience;
+    private final NotificationMetrics metrics;
+
+    public SendResult execute(MessageChannel channel, String provider, Supplier<SendResult> call) {
+        return execute(channel, provider, 1, call);
+    }
+
+    /**
+     * @param permits rate limit permits the call consumes (the provider's count of sends, e.g. bulk recipients)
+     */
+    public SendResult execute(MessageChannel channel, String provider, int permits, Supplier<SendResult> call) {
+        if (!resilience.isEnabled()) {
+            return rateLimitedCall(channel, provider, permits, call);
+        }
+        CircuitBreaker circuitBreaker = resilience.circuitBreaker(provider);
+        if (!circuitBreaker.tryAcquire()) {
+            metrics.recordRejected(channel, provider, CIRCUIT_OPEN);
+            return SendResult.retryLater("Circuit open for provider " + provider, CIRCUIT_OPEN,
+                    circuitBreaker.remainingOpenDuration());
+        }
+        Bulkhead bulkhead = resilience.bulkhead(provider);
+        if (!bulkhead.tryAcquire(resilience.bulkheadMaxWait())) {
+            // Give back the half-open trial slot, the call never reached the provider
+            circuitBreaker.onIgnored();
+            metrics.recordRejected(channel, provider, BULKHEAD_FULL);
+            return SendResult.retryLater("Too many concurrent calls to provider " + provider, BULKHEAD_FULL,
+                    BULKHEAD_RETRY_AFTER);
+        }
+        SendResult result = null;
+        try {
+            result = rateLimitedCall(channel, provider, permits, call);
+            return result;
+        } finally {
+            bulkhead.release();
+            recordOutcome(circuitBreaker, provider, result);
+        }
+    }
+
+    /**
+     * Whether a failure was produced locally (open circuit, full bulkhead, rate limit)
+     * without the message reaching the provider
+     */
+    public static boolean isLocalRejection(String errorCode) {
+        return CIRCUIT_OPEN.equals(errorCode) || BULKHEAD_FULL.equals(errorCode) || RATE_LIMITED.equals(errorCode);
+    }
+
+    private SendResult rateLimitedCall(MessageChannel channel, String provider, int permits, Supplier<SendResult> call) {
+        if (!rateLimiters.tryAcquire(provider, permits)) {
+            log.debug("Provider rate limit reached: channel={}, provider={}", channel, provider);
+            metrics.recordRejected(channel, provider, RATE_LIMITED);
+            return SendResult.retryLater("Rate limit exceeded for provider " + provider, RATE_LIMITED,
+                    RATE_LIMIT_RETRY_AFTER);
+        }
+        return metrics.recordProviderSend(channel, provider, call);
+    }
+
+    private void recordOutcome(CircuitBreaker circuitBreaker, String provider, SendResult result) {
+        if (result != null && RATE_LIMITED.equals(result.getErrorCode())) {
+            // Never reached the provider
+            circuitBreaker.onIgnored();
+        } else if (result != null && (result.isSuccess()
+                || !resilience.isProviderFailure(result.getErrorCode(), result.isPermanent()))) {
+            // The provider answered, even if it rejected this particular message
+            circuitBreaker.onSuccess();
+        } else {
+            CircuitBreaker.State before = circuitBreaker.getState();
+            circuitBreaker.onFailure();
+            if (before != CircuitBreaker.State.OPEN && circuitBreaker.getState() == CircuitBreaker.State.OPEN) {
+                log.warn("Circuit opened for provider {}: last error={}", provider,
+                        result != null ? result.getErrorCode() : "EXCEPTION");
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.tsu.notification.infrastructure.dispatcher;
 
+import com.tsu.common.enums.MessageChannel;
 import com.tsu.notification.enums.DeliveryStatus;
 import com.tsu.notification.entities.DevicePushTokenTb;
 import com.tsu.notification.entities.NotificationRecipientTb;
@@ -8,23 +9,32 @@ import com.tsu.notification.entities.OutboxMessageTb;
 import com.tsu.notification.enums.OutboxStatus;
 import com.tsu.notification.infrastructure.adapter.PushSenderAdapter;
 import com.tsu.notification.infrastructure.adapter.SendResult;
+import com.tsu.notification.infrastructure.idempotency.EventIdempotency;
+import com.tsu.notification.infrastructure.logging.HotPathLog;
+import com.tsu.notification.infrastructure.metrics.DeliveryLatencyTracker;
+import com.tsu.notification.infrastructure.preference.RecipientPreferenceService;
 import com.tsu.notification.infrastructure.queue.OutboxEventMessage;
+import com.tsu.notification.infrastructure.retry.RetryDecision;
+import com.tsu.notification.infrastructure.retry.RetryPolicyEngine;
+import com.tsu.notification.infrastructure.template.TemplateEngine;
 import com.tsu.notification.repo.DevicePushTokenRepository;
 import com.tsu.notification.repo.NotificationRecipientRepository;
 import com.tsu.notification.repo.NotificationRepository;
 import com.tsu.notification.repo.OutboxMessageRepository;
-import com.tsu.common.util.BackoffUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Dispatcher for push notifications (FCM & APNs)
@@ -34,13 +44,24 @@ import java.util.concurrent.atomic.AtomicBoolean;
 @Slf4j
 public class PushChannelDispatcher implements ChannelDispatcher {
 
-    private static final int INITIAL_DELAY = 1;
-    private static final int MAX_DELAY = 60;
     private final PushSenderAdapter pushSenderAdapter;
     private final NotificationRepository notificationRepository;
     private final NotificationRecipientRepository recipientRepository;
     private final DevicePushTokenRepository deviceRepository;
     private final OutboxMessageRepository outboxMessageRepository;
+    private final ProviderCallExecutor providerCalls;
+    private final RetryPolicyEngine retryPolicies;
+    private final TemplateEngine templateEngine;
+    private final DelayedRetryScheduler retryScheduler;
+    private final RecipientPreferenceService preferenceService;
+    private final DeliveryLatencyTracker latencyTracker;
+    private final HotPathLog hotPathLog;
+    private final EventIdempotency idempotency;
+
+    @Override
+    public MessageChannel getChannel() {
+        return MessageChannel.notification;
+    }
 
     @Override
     @Transactional
@@ -48,110 +69,212 @@ public class PushChannelDispatcher implements ChannelDispatcher {
         outboxMessageRepository.findById(message.getEventId())
                 .ifPresent(outbox -> {
                     notificationRepository.findById(message.getMessageId())
-                            .ifPresentOrElse(tb -> pushNotifications(outbox, tb),
+                            .ifPresentOrElse(tb -> pushNotifications(message, outbox, tb),
                                     () -> {
                                         outbox.setStatus(OutboxStatus.INVALID);
                                         outbox.setLastError("message not found");
                                         log.warn("Delivery not supported by EmailChannelDispatcher: {} ({})", message.getMessageType(), message.getMessageId());
                                     });
+                    idempotency.markCompletedIfTerminal(outbox);
                 });
     }
 
     private boolean enableNotification(UUID userId) {
-        //todo
-        return true;
+        return preferenceService.isEnabled(userId, MessageChannel.notification);
     }
 
-    private void pushNotifications(OutboxMessageTb outbox, NotificationTb notification) {
+    private void pushNotifications(OutboxEventMessage message, OutboxMessageTb outbox, NotificationTb notification) {
+        DispatchPass pass = new DispatchPass();
+        List<NotificationRecipientTb> recipients = new ArrayList<>();
         recipientRepository.findByNotificationIdAndStatusList(notification.getId(), List.of(DeliveryStatus.queued, DeliveryStatus.failed))
-                .forEach(recipient -> {
-                    if (recipient.getStatus() == DeliveryStatus.delivered) {
-                        log.info("notification already delivered, skipping: message id={}", notification.getId());
-                        outbox.setStatus(OutboxStatus.PROCESSED);
-                        outboxMessageRepository.save(outbox);
-                        return;
-                    }
-                    Instant now = Instant.now();
-                    recipient.setLastAttemptDate(now);
-                    if (!enableNotification(recipient.getUserId())) {
-                        recipient.setStatus(DeliveryStatus.skipped);
-                        recipientRepository.save(recipient);
-                        return;
-                    }
-                    AtomicBoolean anySuccess = new AtomicBoolean(false);
-                    StringBuilder lastError = new StringBuilder();
-                    List<DevicePushTokenTb> tokens = deviceRepository.findByUserIdAndActiveAndRevokedDateIsNull(recipient.getUserId(), true)
-                            .toList();
-                    try {
-                        // Mark as processing
-                        recipient.setStatus(DeliveryStatus.sending);
-                        recipientRepository.save(recipient);
-                        // Send email
-                        Map<String, Object> metadata = buildMetadata(notification);
-                        tokens.forEach(token -> {
-                            SendResult result = pushSenderAdapter.sendPush(
+                .forEach(recipients::add);
+        // One query for all opt-out checks of the fan-out
+        preferenceService.prefetch(recipients.stream().map(NotificationRecipientTb::getUserId).toList(), MessageChannel.notification);
+        recipients.forEach(recipient -> {
+            if (recipient.getStatus() == DeliveryStatus.delivered) {
+                log.debug("notification already delivered, skipping: message id={}", notification.getId());
+                if (!pass.retryScheduled) {
+                    outbox.setStatus(OutboxStatus.PROCESSED);
+                    outboxMessageRepository.save(outbox);
+                }
+                return;
+            }
+            Instant now = Instant.now();
+            boolean sampled = hotPathLog.isSampled(log);
+            recipient.setLastAttemptDate(now);
+            if (!enableNotification(recipient.getUserId())) {
+                recipient.setStatus(DeliveryStatus.skipped);
+                recipientRepository.save(recipient);
+                return;
+            }
+            AtomicBoolean anySuccess = new AtomicBoolean(false);
+            AtomicBoolean allPermanent = new AtomicBoolean(true);
+            StringBuilder lastError = new StringBuilder();
+            AtomicReference<Duration> retryAfter = new AtomicReference<>();
+            // Set while every device send was rejected locally, without reaching the provider
+            AtomicReference<String> localRejection = new AtomicReference<>();
+            AtomicBoolean allLocalRejections = new AtomicBoolean(true);
+            List<DevicePushTokenTb> tokens = deviceRepository.findByUserIdAndActiveAndRevokedDateIsNull(recipient.getUserId(), true)
+                    .toList();
+            try {
+                // Mark as processing
+                recipient.setStatus(DeliveryStatus.sending);
+                recipientRepository.save(recipient);
+                // Send email
+                Map<String, Object> metadata = buildMetadata(notification);
+                Map<String, Object> variables = buildTemplateVariables(recipient);
+                String title = templateEngine.renderText(notification.getTitle(), variables);
+                String body = templateEngine.renderText(notification.getBody(), variables);
+                tokens.forEach(token -> {
+                    SendResult result = providerCalls.execute(MessageChannel.notification, token.getPlatform().name(),
+                            () -> pushSenderAdapter.sendPush(
                                     token,
-                                    notification.getTitle(),
-                                    notification.getBody(),
+                                    title,
+                                    body,
                                     metadata
-                            );
-                            if (result.isSuccess()) {
-                                anySuccess.set(true);
-                                token.setLastUsedDate(now);
-                                deviceRepository.save(token);
-                                log.info("Push sent to device: tokenId={}, providerId={}",
-                                        token.getId(), result.getProviderId());
-                            } else {
-                                lastError.append(result.getErrorMessage());
-                                log.warn("Failed to send push to device: tokenId={}, error={}",
-                                        token.getId(), result.getErrorMessage());
-                                // Deactivate token if it's invalid
-                                if ("INVALID_TOKEN".equals(result.getErrorCode())) {
-                                    token.setRevokedDate(now);
-                                    token.setActive(false);
-                                    deviceRepository.save(token);
-                                }
-                            }
-                        });
-                        if (anySuccess.get()) {
-                            notification.setBroadcast(true);
-                            notificationRepository.save(notification);
-                            recipient.setStatus(DeliveryStatus.delivered);
-                            recipient.setDeliveredDate(now);
-                            recipientRepository.save(recipient);
-                            log.info("Push sent successfully to at least one device: recipientId={}", recipient.getId());
-                            outbox.setStatus(OutboxStatus.PROCESSED);
-                            outbox.setProcessedDate(Instant.now());
-                            outboxMessageRepository.save(outbox);
+                            ));
+                    if (result.isSuccess()) {
+                        anySuccess.set(true);
+                        token.setLastUsedDate(now);
+                        deviceRepository.save(token);
+                        if (sampled) {
+                            log.debug("Push sent to device: tokenId={}, providerId={}",
+                                    token.getId(), result.getProviderId());
+                        }
+                    } else {
+                        lastError.append(result.getErrorMessage());
+                        if (ProviderCallExecutor.isLocalRejection(result.getErrorCode())) {
+                            localRejection.set(result.getErrorCode());
                         } else {
-                            handleFailure(outbox, recipient, !lastError.isEmpty() ? lastError.toString() : "Failed to send to all devices", "PUSH_FAILED");
+                            allLocalRejections.set(false);
+                        }
+                        if (!result.isPermanent()) {
+                            allPermanent.set(false);
+                        }
+                        if (result.getRetryAfter() != null) {
+                            retryAfter.accumulateAndGet(result.getRetryAfter(),
+                                    (a, b) -> a == null || b.compareTo(a) > 0 ? b : a);
+                        }
+                        log.warn("Failed to send push to device: tokenId={}, error={}",
+                                token.getId(), result.getErrorMessage());
+                        // Deactivate token if it's invalid
+                        if ("INVALID_TOKEN".equals(result.getErrorCode())) {
+                            token.setRevokedDate(now);
+                            token.setActive(false);
+                            deviceRepository.save(token);
                         }
-                    } catch (Exception e) {
-                        log.error("Error sending push token: id={}", recipient.getId(), e);
-                        handleFailure(outbox, recipient, e.getMessage(), "EXCEPTION");
                     }
                 });
-
+                if (anySuccess.get()) {
+                    notification.setBroadcast(true);
+                    notificationRepository.save(notification);
+                    recipient.setStatus(DeliveryStatus.delivered);
+                    recipient.setDeliveredDate(now);
+                    recipientRepository.save(recipient);
+                    if (sampled) {
+                        log.debug("Push sent successfully to at least one device: recipientId={}", recipient.getId());
+                    }
+                    pass.settled = true;
+                    if (!pass.retryScheduled) {
+                        // Not while an earlier recipient waits for a retry: a terminal outbox
+                        // status would mark the event completed and drop that retry as a duplicate
+                        outbox.setStatus(OutboxStatus.PROCESSED);
+                        outbox.setProcessedDate(Instant.now());
+                        outboxMessageRepository.save(outbox);
+                    }
+                    latencyTracker.recordDelivered(message);
+                    hotPathLog.delivered(MessageChannel.notification);
+                } else {
+                    String errorCode = localRejection.get() != null && allLocalRejections.get() ? localRejection.get() : "PUSH_FAILED";
+                    handleFailure(message, outbox, recipient, !lastError.isEmpty() ? lastError.toString() : "Failed to send to all devices", errorCode,
+                            !tokens.isEmpty() && allPermanent.get(), retryAfter.get(), pass);
+                }
+            } catch (Exception e) {
+                log.error("Error sending push token: id={}", recipient.getId(), e);
+                handleFailure(message, outbox, recipient, e.getMessage(), "EXCEPTION", false, null, pass);
+            }
+        });
+        if (!pass.settled && outbox.getStatus() != OutboxStatus.PROCESSED) {
+            // No recipient left to send to (all opted out or already delivered): nothing will retry this event
+            outbox.setStatus(OutboxStatus.PROCESSED);
+            outbox.setProcessedDate(Instant.now());
+            outboxMessageRepository.save(outbox);
+        }
     }
 
     private Map<String, Object> buildMetadata(NotificationTb notification) {
         return new HashMap<>();
     }
 
-    private void handleFailure(OutboxMessageTb outbox, NotificationRecipientTb recipient, String error, String errorCode) {
+    /**
+     * Per-recipient variables available to {{...}} placeholders in title and body
+     */
+    private Map<String, Object> buildTemplateVariables(NotificationRecipientTb recipient) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("userId", recipient.getUserId());
+        return variables;
+    }
+
+    private void handleFailure(OutboxEventMessage message, OutboxMessageTb outbox, NotificationRecipientTb recipient, String error, String errorCode,
+                               boolean permanent, Duration retryAfter, DispatchPass pass) {
+        pass.settled = true;
         String fullError = errorCode + ": " + error;
         outbox.setLastError(fullError);
-        outbox.setStatus(OutboxStatus.FAILED);
-        outbox.setAttemptCount(outbox.getAttemptCount() + 1);
-        outbox.setNextAttemptDate(BackoffUtils.exponential(outbox.getAttemptCount(), INITIAL_DELAY, MAX_DELAY));
+        if (ProviderCallExecutor.isLocalRejection(errorCode)) {
+            // Never reached the provider: reschedule without spending an attempt
+            RetryDecision decision = retryPolicies.defer(MessageChannel.notification, errorCode, retryAfter);
+            pass.retryScheduled = true;
+            outbox.setStatus(OutboxStatus.FAILED);
+            outbox.setNextAttemptDate(retryScheduler.schedule(message, decision.getNextAttempt()));
+            outboxMessageRepository.save(outbox);
+            recipient.setLastError(fullError);
+            recipient.setStatus(DeliveryStatus.failed);
+            recipientRepository.save(recipient);
+            log.debug("notification deferred, provider unavailable: nextAttempt={}, deliveryId={}, error={}",
+                    decision.getNextAttempt(), recipient.getId(), fullError);
+            return;
+        }
+        if (!pass.attemptCounted) {
+            // One attempt per dispatch pass, however many recipients failed in it
+            outbox.setAttemptCount(outbox.getAttemptCount() + 1);
+            pass.attemptCounted = true;
+        }
+        recipient.setAttempts(recipient.getAttempts() + 1);
+        // The retry budget is per recipient, so a large fan-out does not use it up in one pass
+        RetryDecision decision = retryPolicies.decide(MessageChannel.notification, errorCode, permanent, recipient.getAttempts(), retryAfter);
+        if (decision.isRetry()) {
+            pass.retryScheduled = true;
+            outbox.setStatus(OutboxStatus.FAILED);
+            outbox.setNextAttemptDate(retryScheduler.schedule(message, decision.getNextAttempt()));
+        } else if (!pass.retryScheduled) {
+            // Dead-letter, unless another recipient of this event still needs a retry
+            outbox.setStatus(OutboxStatus.INVALID);
+        }
         outboxMessageRepository.save(outbox);
 
         recipient.setLastError(fullError);
-        recipient.setAttempts(recipient.getAttempts() + 1);
         recipient.setStatus(DeliveryStatus.failed);
         recipientRepository.save(recipient);
-        log.error("notification failed after {} attempts: deliveryId={}",
-                recipient.getAttempts(), recipient.getId());
+        hotPathLog.failed(MessageChannel.notification);
+        if (decision.isRetry()) {
+            log.warn("notification failed, retry scheduled: attempts={}, nextAttempt={}, deliveryId={}, error={}",
+                    recipient.getAttempts(), decision.getNextAttempt(), recipient.getId(), fullError);
+        } else {
+            log.error("notification permanently failed after {} attempts ({}): deliveryId={}, error={}",
+                    recipient.getAttempts(), decision.getReason(), recipient.getId(), fullError);
+        }
+    }
+
+    /**
+     * State shared by the recipients of one dispatch pass
+     */
+    private static final class DispatchPass {
+        private boolean retryScheduled;
+        private boolean attemptCounted;
+        /**
+         * Whether a recipient was sent to (or failed) in this pass, and so decided the outbox status
+         */
+        private boolean settled;
     }
 
 }
@@ -1,13 +1,18 @@
 package com.tsu.notification.infrastructure.dispatcher;
 
+import com.tsu.common.enums.MessageChannel;
 import com.tsu.notification.entities.OutboxMessageTb;
 import com.tsu.notification.entities.SmsMessageTb;
 import com.tsu.notification.enums.MessageStatus;
 import com.tsu.notification.enums.OutboxStatus;
 import com.tsu.notification.infrastructure.adapter.SendResult;
 import com.tsu.notification.infrastructure.adapter.SmsSenderAdapter;
+import com.tsu.notification.infrastructure.idempotency.EventIdempotency;
+import com.tsu.notification.infrastructure.logging.HotPathLog;
+import com.tsu.notification.infrastructure.metrics.DeliveryLatencyTracker;
 import com.tsu.notification.infrastructure.queue.OutboxEventMessage;
-import com.tsu.common.util.BackoffUtils;
+import com.tsu.notification.infrastructure.retry.RetryDecision;
+import com.tsu.notification.infrastructure.retry.RetryPolicyEngine;
 import com.tsu.notification.repo.OutboxMessageRepository;
 import com.tsu.notification.repo.SmsMessageRepository;
 import lombok.RequiredArgsConstructor;
@@ -15,6 +20,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
@@ -27,46 +33,61 @@ import java.util.Map;
 @Slf4j
 public class SmsChannelDispatcher implements ChannelDispatcher {
 
-    private static final int INITIAL_DELAY = 10;
-    private static final int MAX_DELAY = 180;
-
     private final SmsSenderAdapter smsSenderAdapter;
     private final OutboxMessageRepository outboxMessageRepository;
     private final SmsMessageRepository smsMessageRepository;
+    private final ProviderCallExecutor providerCalls;
+    private final RetryPolicyEngine retryPolicies;
+    private final DelayedRetryScheduler retryScheduler;
+    private final DeliveryLatencyTracker latencyTracker;
+    private final HotPathLog hotPathLog;
+    private final EventIdempotency idempotency;
+
+    @Override
+    public MessageChannel getChannel() {
+        return MessageChannel.sms;
+    }
 
     @Override
     @Transactional
     public void dispatch(OutboxEventMessage message) {
         outboxMessageRepository.findById(message.getEventId())
-                .ifPresent(outbox -> smsMessageRepository.findById(message.getMessageId())
-                        .ifPresentOrElse(tb -> sendSms(outbox, tb),
-                                () -> {
-                                    outbox.setStatus(OutboxStatus.INVALID);
-                                    outbox.setLastError("message not found");
-                                    log.warn("Delivery not supported by EmailChannelDispatcher: {} ({})", message.getMessageType(), message.getMessageId());
-                                }));
+                .ifPresent(outbox -> {
+                    smsMessageRepository.findById(message.getMessageId())
+                            .ifPresentOrElse(tb -> sendSms(message, outbox, tb),
+                                    () -> {
+                                        outbox.setStatus(OutboxStatus.INVALID);
+                                        outbox.setLastError("message not found");
+                                        log.warn("Delivery not supported by EmailChannelDispatcher: {} ({})", message.getMessageType(), message.getMessageId());
+                                    });
+                    idempotency.markCompletedIfTerminal(outbox);
+                });
     }
 
-    private void sendSms(OutboxMessageTb outbox, SmsMessageTb sms) {
+    private void sendSms(OutboxEventMessage message, OutboxMessageTb outbox, SmsMessageTb sms) {
         if (sms.getStatus() == MessageStatus.sent) {
-            log.info("Sms already sent, skipping: message id={}", sms.getId());
+            log.debug("Sms already sent, skipping: message id={}", sms.getId());
             outbox.setStatus(OutboxStatus.PROCESSED);
             outboxMessageRepository.save(outbox);
             return;
         }
         Instant now = Instant.now();
+        boolean sampled = hotPathLog.isSampled(log);
         try {
             // Mark as processing
             sms.setLastAttemptDate(now);
             sms.setStatus(MessageStatus.sending);
             smsMessageRepository.save(sms);
             // Send email
-            log.info("Sending sms: {}, to={}", sms.getId(), sms.getPhoneNumber());
-            SendResult result = smsSenderAdapter.sendSms(
-                    sms.getPhoneNumber(),
-                    sms.getBody(),
-                    buildMetadata(sms)
-            );
+            if (sampled) {
+                log.debug("Sending sms: {}, to={}", sms.getId(), sms.getPhoneNumber());
+            }
+            SendResult result = providerCalls.execute(MessageChannel.sms, smsSenderAdapter.getProviderName(),
+                    () -> smsSenderAdapter.sendSms(
+                            sms.getPhoneNumber(),
+                            sms.getBody(),
+                            buildMetadata(sms)
+                    ));
             if (result.isSuccess()) {
                 // Mark as sent
                 sms.setSentDate(now);
@@ -76,16 +97,21 @@ public class SmsChannelDispatcher implements ChannelDispatcher {
                 outbox.setStatus(OutboxStatus.PROCESSED);
                 outbox.setProcessedDate(Instant.now());
                 outboxMessageRepository.save(outbox);
-                log.info("Sms sent successfully: id={}, providerId={}",
-                        sms.getId(), result.getProviderId());
+                latencyTracker.recordDelivered(message);
+                hotPathLog.delivered(MessageChannel.sms);
+                if (sampled) {
+                    log.debug("Sms sent successfully: id={}, providerId={}",
+                            sms.getId(), result.getProviderId());
+                }
             } else {
                 // Handle failure with retry
-                handleFailure(outbox, sms, result.getErrorMessage(), result.getErrorCode());
+                handleFailure(message, outbox, sms, result.getErrorMessage(), result.getErrorCode(),
+                        result.isPermanent(), result.getRetryAfter());
             }
 
         } catch (Exception e) {
             log.error("Error sending sms: id={}", sms.getId(), e);
-            handleFailure(outbox, sms, e.getMessage(), "EXCEPTION");
+            handleFailure(message, outbox, sms, e.getMessage(), "EXCEPTION", false, null);
         }
     }
 
@@ -93,20 +119,54 @@ public class SmsChannelDispatcher implements ChannelDispatcher {
         return new HashMap<>();
     }
 
-    private void handleFailure(OutboxMessageTb outbox, SmsMessageTb sms, String error, String errorCode) {
+    /**
+     * Reschedule a send that never reached the provider, without spending an attempt
+     */
+    private void defer(OutboxEventMessage message, OutboxMessageTb outbox, SmsMessageTb sms, String fullError, String errorCode,
+                       Duration retryAfter) {
+        RetryDecision decision = retryPolicies.defer(MessageChannel.sms, errorCode, retryAfter);
+        outbox.setStatus(OutboxStatus.FAILED);
+        outbox.setNextAttemptDate(retryScheduler.schedule(message, decision.getNextAttempt()));
+        outboxMessageRepository.save(outbox);
+
+        sms.setLastError(fullError);
+        sms.setStatus(MessageStatus.failed);
+        smsMessageRepository.save(sms);
+        log.debug("Sms deferred, provider unavailable: nextAttempt={}, deliveryId={}, error={}",
+                decision.getNextAttempt(), sms.getId(), fullError);
+    }
+
+    private void handleFailure(OutboxEventMessage message, OutboxMessageTb outbox, SmsMessageTb sms, String error, String errorCode,
+                               boolean permanent, Duration retryAfter) {
         String fullError = errorCode + ": " + error;
         outbox.setLastError(fullError);
-        outbox.setStatus(OutboxStatus.FAILED);
+        if (ProviderCallExecutor.isLocalRejection(errorCode)) {
+            defer(message, outbox, sms, fullError, errorCode, retryAfter);
+            return;
+        }
         outbox.setAttemptCount(outbox.getAttemptCount() + 1);
-        outbox.setNextAttemptDate(BackoffUtils.exponential(outbox.getAttemptCount(), INITIAL_DELAY, MAX_DELAY));
+        RetryDecision decision = retryPolicies.decide(MessageChannel.sms, errorCode, permanent, outbox.getAttemptCount(), retryAfter);
+        if (decision.isRetry()) {
+            outbox.setStatus(OutboxStatus.FAILED);
+            outbox.setNextAttemptDate(retryScheduler.schedule(message, decision.getNextAttempt()));
+        } else {
+            // Dead-letter: no further attempts
+            outbox.setStatus(OutboxStatus.INVALID);
+        }
         outboxMessageRepository.save(outbox);
 
         sms.setLastError(fullError);
         sms.setAttempts(sms.getAttempts() + 1);
         sms.setStatus(MessageStatus.failed);
         smsMessageRepository.save(sms);
-        log.error("Sms permanently failed after {} attempts: deliveryId={}",
-                sms.getAttempts(), sms.getId());
+        hotPathLog.failed(MessageChannel.sms);
+        if (decision.isRetry()) {
+            log.warn("Sms failed, retry scheduled: attempts={}, nextAttempt={}, deliveryId={}, error={}",
+                    sms.getAttempts(), decision.getNextAttempt(), sms.getId(), fullError);
+        } else {
+            log.error("Sms permanently failed after {} attempts ({}): deliveryId={}, error={}",
+                    sms.getAttempts(), decision.getReason(), sms.getId(), fullError);
+        }
     }
 
 
@@ -0,0 +1,126 @@
+package com.tsu.notification.infrastructure.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tsu.notification.entities.OutboxMessageTb;
+import com.tsu.notification.enums.OutboxStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Short-circuits redelivered queue messages for events that already reached a terminal state
+ * <p>
+ * - In-process: bounded cache of recently completed event IDs (no I/O)
+ * - Shared: processed_event table, written in the dispatch transaction so it commits
+ *   together with the outbox status
+ * <p>
+ * Only terminal events (PROCESSED / INVALID) are recorded: retries reuse the event ID and
+ * must still be dispatched.
+ */
+@Component
+@Slf4j
+public class EventIdempotency {
+
+    private static final int PURGE_CHUNK_SIZE = 5000;
+
+    private final ProcessedEventStore store;
+    private final Cache<UUID, Boolean> completed;
+    private final boolean enabled;
+    private final boolean storeEnabled;
+    private final Duration retention;
+
+    public EventIdempotency(ProcessedEventStore store,
+                            MeterRegistry meterRegistry,
+                            @Value("${notification.idempotency.enabled:true}") boolean enabled,
+                            @Value("${notification.idempotency.store-enabled:true}") boolean storeEnabled,
+                            @Value("${notification.idempotency.cache.maximum-size:100000}") long maximumSize,
+                            @Value("${notification.idempotency.cache.ttl:PT1H}") Duration ttl,
+                            @Value("${notification.idempotency.retention:P7D}") Duration retention) {
+        this.store = store;
+        this.enabled = enabled;
+        this.storeEnabled = storeEnabled;
+        this.retention = retention;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, completed, "notification.idempotency");
+    }
+
+    /**
+     * Whether the event already reached a terminal state
+     */
+    public boolean isCompleted(UUID eventId) {
+        if (!enabled || eventId == null) {
+            return false;
+        }
+        if (completed.getIfPresent(eventId) != null) {
+            return true;
+        }
+        if (storeEnabled && store.exists(eventId)) {
+            completed.put(eventId, Boolean.TRUE);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Record the event as completed (call within the transaction that sets its terminal status)
+     */
+    public void markCompleted(UUID eventId) {
+        if (!enabled || eventId == null) {
+            return;
+        }
+        if (storeEnabled) {
+            store.insert(eventId);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    completed.put(eventId, Boolean.TRUE);
+                }
+            });
+        } else {
+            completed.put(eventId, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Record the event as completed if the dispatch left its outbox row in a terminal state
+     */
+    public void markCompletedIfTerminal(OutboxMessageTb outbox) {
+        if (outbox.getStatus() == OutboxStatus.PROCESSED || outbox.getStatus() == OutboxStatus.INVALID) {
+            markCompleted(outbox.getId());
+        }
+    }
+
+    /**
+     * Purge dedupe rows past retention in small chunks (run daily)
+     */
+    @Scheduled(cron = "0 30 2 * * *") // 2:30 AM daily
+    public void purgeExpired() {
+        if (!enabled || !storeEnabled) {
+            return;
+        }
+        Instant threshold = Instant.now().minus(retention);
+        int total = 0;
+        int deleted;
+        do {
+            deleted = store.purgeBefore(threshold, PURGE_CHUNK_SIZE);
+            total += deleted;
+        } while (deleted == PURGE_CHUNK_SIZE);
+        log.info("Purged {} processed event records", total);
+    }
+}
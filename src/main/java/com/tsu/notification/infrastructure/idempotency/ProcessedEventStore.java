@@ -0,0 +1,55 @@
+package com.tsu.notification.infrastructure.idempotency;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Outbox events that reached a terminal state (table processed_event, see db/processed_event.sql)
+ * <p>
+ * One narrow row per event, so lookups stay index-only and the table is cheap to purge.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProcessedEventStore {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO processed_event (event_id, processed_date)
+            VALUES (?, now())
+            ON CONFLICT (event_id) DO NOTHING
+            """;
+
+    private static final String EXISTS_SQL = """
+            SELECT EXISTS (SELECT 1 FROM processed_event WHERE event_id = ?)
+            """;
+
+    private static final String PURGE_SQL = """
+            DELETE FROM processed_event
+            WHERE event_id IN (
+                SELECT event_id FROM processed_event WHERE processed_date < ? LIMIT ?
+            )
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insert(UUID eventId) {
+        jdbcTemplate.update(INSERT_SQL, eventId);
+    }
+
+    public boolean exists(UUID eventId) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(EXISTS_SQL, Boolean.class, eventId));
+    }
+
+    /**
+     * Delete up to limit rows older than the threshold
+     *
+     * @return number of rows deleted
+     */
+    public int purgeBefore(Instant threshold, int limit) {
+        return jdbcTemplate.update(PURGE_SQL, Timestamp.from(threshold), limit);
+    }
+}
@@ -0,0 +1,80 @@
+package com.tsu.notification.infrastructure.inapp;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * In-app deliveries per notification and recipient (table in_app_delivery, see
+ * db/in_app_delivery.sql)
+ * <p>
+ * A recipient is claimed before the message is sent, in its own committed transaction, so
+ * concurrent or later dispatches of the same notification on any node skip it.
+ */
+@Component
+@ConditionalOnProperty(name = "notification.channels.in-app.enabled", havingValue = "true")
+public class InAppDeliveryStore {
+
+    private static final String CLAIM_SQL = """
+            INSERT INTO in_app_delivery (notification_id, user_id, delivered_date)
+            SELECT ?, user_id, now() FROM unnest(?::uuid[]) AS t(user_id)
+            ON CONFLICT (notification_id, user_id) DO NOTHING
+            RETURNING user_id
+            """;
+
+    private static final String PURGE_SQL = """
+            DELETE FROM in_app_delivery
+            WHERE (notification_id, user_id) IN (
+                SELECT notification_id, user_id FROM in_app_delivery WHERE delivered_date < ? LIMIT ?
+            )
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate requiresNew;
+
+    public InAppDeliveryStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Record the users as delivered for the notification
+     *
+     * @return the users not delivered before (only these should be sent to)
+     */
+    public Set<UUID> claim(UUID notificationId, Collection<UUID> userIds) {
+        Set<UUID> claimed = new HashSet<>();
+        if (userIds.isEmpty()) {
+            return claimed;
+        }
+        requiresNew.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(CLAIM_SQL);
+            statement.setObject(1, notificationId);
+            statement.setArray(2, connection.createArrayOf("uuid", userIds.toArray()));
+            return statement;
+        }, rs -> {
+            claimed.add(rs.getObject(1, UUID.class));
+        }));
+        return claimed;
+    }
+
+    /**
+     * Delete up to limit rows older than the threshold
+     *
+     * @return number of rows deleted
+     */
+    public int purgeBefore(Instant threshold, int limit) {
+        return jdbcTemplate.update(PURGE_SQL, Timestamp.from(threshold), limit);
+    }
+}
@@ -0,0 +1,110 @@
+package com.tsu.notification.infrastructure.inapp;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Receives in-app messages addressed to this node on the Postgres node bus
+ * <p>
+ * LISTEN holds a connection for the lifetime of the node, so it uses a dedicated
+ * connection outside the Hikari pool. Notifications sent while the connection is down
+ * are lost; in-app delivery is best-effort and push still reaches the user.
+ */
+@Component
+@ConditionalOnExpression("${notification.channels.in-app.enabled:false} and '${notification.channels.in-app.bus:local}' == 'postgres' and ${notification.channels.in-app.bus-listen:true}")
+@Slf4j
+public class InAppNodeListener implements SmartLifecycle {
+
+    private static final long RECONNECT_BACKOFF_MS = 5000;
+
+    private final InAppRouter router;
+    private final String url;
+    private final String username;
+    private final String password;
+
+    @Value("${notification.channels.in-app.bus-poll-timeout-ms:500}")
+    private int pollTimeoutMs;
+
+    private volatile boolean running;
+    private Thread listener;
+
+    public InAppNodeListener(InAppRouter router,
+                             @Value("${spring.datasource.url}") String url,
+                             @Value("${spring.datasource.username:}") String username,
+                             @Value("${spring.datasource.password:}") String password) {
+        this.router = router;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+    }
+
+    @Override
+    public synchronized void start() {
+        running = true;
+        listener = new CustomizableThreadFactory("in-app-listener-").newThread(this::listenLoop);
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+            listener = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listenLoop() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN \"" + router.getChannel() + "\"");
+                }
+                log.info("Listening for in-app messages: channel={}", router.getChannel());
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMs);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        try {
+                            router.onBusMessage(notification.getParameter());
+                        } catch (Exception e) {
+                            log.warn("Failed to deliver in-app bus message", e);
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.error("In-app listener connection failed, reconnecting in {} ms", RECONNECT_BACKOFF_MS, e);
+                try {
+                    Thread.sleep(RECONNECT_BACKOFF_MS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
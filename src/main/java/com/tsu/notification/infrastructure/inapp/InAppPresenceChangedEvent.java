@@ -0,0 +1,12 @@
+package com.tsu.notification.infrastructure.inapp;
+
+import java.util.UUID;
+
+/**
+ * Published when a user gets their first, or loses their last, in-app session on this node
+ *
+ * @param userId    the user
+ * @param connected true on the first session, false after the last one closed
+ */
+public record InAppPresenceChangedEvent(UUID userId, boolean connected) {
+}
@@ -0,0 +1,141 @@
+package com.tsu.notification.infrastructure.inapp;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Shared user-to-node routes of in-app sessions (table in_app_session_route, see
+ * db/in_app_session_route.sql) and the NOTIFY side of the node bus
+ * <p>
+ * Routes are written per user and node, not per session, and refreshed in bulk by each
+ * node, so rows whose node died without cleaning up expire after the route TTL.
+ * Notifications are sent in their own short transaction: NOTIFY is delivered on commit,
+ * so it must not wait for (or be rolled back with) the caller's transaction.
+ */
+@Component
+@ConditionalOnProperty(name = "notification.channels.in-app.bus", havingValue = "postgres")
+public class InAppRouteStore {
+
+    private static final String REMOVE_ALL_SQL = """
+            DELETE FROM in_app_session_route WHERE node_id = ? AND user_id = ANY(?)
+            """;
+
+    private static final String REFRESH_SQL = """
+            INSERT INTO in_app_session_route (user_id, node_id, updated_date)
+            SELECT user_id, ?, now() FROM unnest(?::uuid[]) AS t(user_id)
+            ON CONFLICT (user_id, node_id) DO UPDATE SET updated_date = now()
+            """;
+
+    private static final String DELETE_NODE_SQL = """
+            DELETE FROM in_app_session_route WHERE node_id = ?
+            """;
+
+    private static final String DELETE_STALE_SQL = """
+            DELETE FROM in_app_session_route WHERE updated_date < now() - make_interval(secs => ?)
+            """;
+
+    private static final String FIND_SQL = """
+            SELECT user_id, node_id FROM in_app_session_route WHERE user_id = ANY(?)
+            """;
+
+    private static final String NOTIFY_SQL = """
+            SELECT pg_notify(channel, payload) FROM unnest(?::text[], ?::text[]) AS t(channel, payload)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate requiresNew;
+
+    public InAppRouteStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Remove the node's routes of users that have no session left on it
+     */
+    public void removeAll(String nodeId, Collection<UUID> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(connection -> {
+            var statement = connection.prepareStatement(REMOVE_ALL_SQL);
+            statement.setString(1, nodeId);
+            statement.setArray(2, connection.createArrayOf("uuid", userIds.toArray()));
+            return statement;
+        });
+    }
+
+    /**
+     * Upsert the routes of the given users connected to the node (all of them on the periodic
+     * refresh, keeping them from expiring)
+     */
+    public void refresh(String nodeId, Collection<UUID> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(connection -> {
+            var statement = connection.prepareStatement(REFRESH_SQL);
+            statement.setString(1, nodeId);
+            statement.setArray(2, connection.createArrayOf("uuid", userIds.toArray()));
+            return statement;
+        });
+    }
+
+    public void deleteNode(String nodeId) {
+        jdbcTemplate.update(DELETE_NODE_SQL, nodeId);
+    }
+
+    /**
+     * @return number of expired routes removed
+     */
+    public int deleteStale(Duration ttl) {
+        return jdbcTemplate.update(DELETE_STALE_SQL, ttl.toMillis() / 1000.0);
+    }
+
+    /**
+     * Nodes holding sessions of the given users (users without sessions are absent)
+     */
+    public Map<UUID, List<String>> findRoutes(Collection<UUID> userIds) {
+        Map<UUID, List<String>> routes = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return routes;
+        }
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(FIND_SQL);
+            statement.setArray(1, connection.createArrayOf("uuid", userIds.toArray()));
+            return statement;
+        }, rs -> {
+            routes.computeIfAbsent(rs.getObject(1, UUID.class), key -> new ArrayList<>()).add(rs.getString(2));
+        });
+        return routes;
+    }
+
+    /**
+     * Send all notifications in one statement and commit them immediately
+     */
+    public void notify(List<String> channels, List<String> payloads) {
+        if (channels.isEmpty()) {
+            return;
+        }
+        requiresNew.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(NOTIFY_SQL);
+            statement.setArray(1, connection.createArrayOf("text", channels.toArray()));
+            statement.setArray(2, connection.createArrayOf("text", payloads.toArray()));
+            return statement;
+        }, rs -> {
+        }));
+    }
+}
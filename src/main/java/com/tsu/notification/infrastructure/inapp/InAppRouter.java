@@ -0,0 +1,245 @@
+package com.tsu.notification.infrastructure.inapp;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Routes in-app messages to the node(s) holding the user's sessions
+ * <p>
+ * Bus modes (notification.channels.in-app.bus):
+ * - local: deliver to sessions on this node only (single node)
+ * - postgres: look up the user's nodes in in_app_session_route and NOTIFY each node on its
+ *   own channel (in_app_&lt;node-id&gt;), so a message only reaches the nodes that hold a
+ *   session of its user. Messages for this node skip the bus.
+ * <p>
+ * Route changes on connect/disconnect are only queued by the session threads and written
+ * in batches by flushRoutes (route-flush-interval); until then this node's own new
+ * sessions are still reached locally, and refreshRoutes repairs any drift.
+ * <p>
+ * A NOTIFY payload is "&lt;user-id&gt;:&lt;payload&gt;" and limited by Postgres to 8000 bytes;
+ * larger messages are not sent in-app (push still delivers them).
+ */
+@Component
+@ConditionalOnProperty(name = "notification.channels.in-app.enabled", havingValue = "true")
+@Slf4j
+public class InAppRouter {
+
+    static final String CHANNEL_PREFIX = "in_app_";
+    private static final int MAX_NOTIFY_BYTES = 7999;
+
+    private final InAppSessionRegistry registry;
+    private final InAppRouteStore routeStore;
+    private final String nodeId;
+    /**
+     * Presence changes not yet written to the route table (true: connected), latest per user
+     */
+    private final Map<UUID, Boolean> pendingRoutes = new ConcurrentHashMap<>();
+
+    @Value("${notification.channels.in-app.route-ttl:PT90S}")
+    private Duration routeTtl;
+
+    public InAppRouter(InAppSessionRegistry registry,
+                       ObjectProvider<InAppRouteStore> routeStore,
+                       @Value("${notification.channels.in-app.node-id:}") String nodeId) {
+        this.registry = registry;
+        this.routeStore = routeStore.getIfAvailable();
+        this.nodeId = nodeId.isBlank()
+                ? UUID.randomUUID().toString().replace("-", "")
+                : nodeId.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9_]", "_");
+        if (this.nodeId.length() + CHANNEL_PREFIX.length() > 63) {
+            throw new IllegalArgumentException("notification.channels.in-app.node-id too long: " + nodeId);
+        }
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public String getChannel() {
+        return CHANNEL_PREFIX + nodeId;
+    }
+
+    public boolean isDistributed() {
+        return routeStore != null;
+    }
+
+    /**
+     * Deliver a message to every connected session of the given users, on any node
+     *
+     * @param claim     narrows the connected users to those the message should still be sent to
+     * @param payloadOf payload per user, only called for claimed users; null skips the user
+     * @return number of users the message was routed to
+     */
+    public int deliver(Collection<UUID> userIds,
+                       Function<Set<UUID>, Set<UUID>> claim,
+                       Function<UUID, String> payloadOf) {
+        if (!isDistributed()) {
+            Set<UUID> connected = new HashSet<>();
+            for (UUID userId : userIds) {
+                if (registry.isConnected(userId)) {
+                    connected.add(userId);
+                }
+            }
+            int routed = 0;
+            for (UUID userId : claim.apply(connected)) {
+                String payload = payloadOf.apply(userId);
+                if (payload != null && registry.sendToUser(userId, payload) > 0) {
+                    routed++;
+                }
+            }
+            return routed;
+        }
+
+        Map<UUID, List<String>> routes = routeStore.findRoutes(userIds);
+        for (UUID userId : userIds) {
+            // Sessions opened since the last route flush
+            if (registry.isConnected(userId)) {
+                List<String> nodes = routes.computeIfAbsent(userId, key -> new ArrayList<>());
+                if (!nodes.contains(nodeId)) {
+                    nodes.add(nodeId);
+                }
+            }
+        }
+        Set<UUID> claimed = claim.apply(routes.keySet());
+        List<String> channels = new ArrayList<>();
+        List<String> messages = new ArrayList<>();
+        int routed = 0;
+        for (Map.Entry<UUID, List<String>> route : routes.entrySet()) {
+            UUID userId = route.getKey();
+            if (!claimed.contains(userId)) {
+                continue;
+            }
+            String payload = payloadOf.apply(userId);
+            if (payload == null) {
+                continue;
+            }
+            String message = userId + ":" + payload;
+            boolean remote = route.getValue().stream().anyMatch(node -> !nodeId.equals(node));
+            if (remote && message.getBytes(StandardCharsets.UTF_8).length > MAX_NOTIFY_BYTES) {
+                log.warn("In-app message too large for the node bus, skipped: userId={}, bytes={}",
+                        userId, message.getBytes(StandardCharsets.UTF_8).length);
+                continue;
+            }
+            for (String node : route.getValue()) {
+                if (nodeId.equals(node)) {
+                    registry.sendToUser(userId, payload);
+                } else {
+                    channels.add(CHANNEL_PREFIX + node);
+                    messages.add(message);
+                }
+            }
+            routed++;
+        }
+        routeStore.notify(channels, messages);
+        return routed;
+    }
+
+    /**
+     * Deliver a message received from the node bus to the sessions on this node
+     */
+    void onBusMessage(String message) {
+        int separator = message.indexOf(':');
+        if (separator < 0) {
+            log.warn("Malformed in-app bus message ignored: {}", message);
+            return;
+        }
+        UUID userId = UUID.fromString(message.substring(0, separator));
+        if (registry.sendToUser(userId, message.substring(separator + 1)) == 0) {
+            log.debug("In-app bus message for user without session on this node: userId={}", userId);
+        }
+    }
+
+    /**
+     * Queue the route change; called on connect and eviction paths, so no I/O here
+     */
+    @EventListener
+    public void onPresenceChanged(InAppPresenceChangedEvent event) {
+        if (isDistributed()) {
+            pendingRoutes.put(event.userId(), event.connected());
+        }
+    }
+
+    /**
+     * Write queued route changes: one upsert for connected users, one delete for the rest
+     */
+    @Scheduled(fixedDelayString = "${notification.channels.in-app.route-flush-interval:1000}")
+    public void flushRoutes() {
+        if (!isDistributed() || pendingRoutes.isEmpty()) {
+            return;
+        }
+        List<UUID> added = new ArrayList<>();
+        List<UUID> removed = new ArrayList<>();
+        for (Map.Entry<UUID, Boolean> change : pendingRoutes.entrySet()) {
+            // Only take the change if it was not replaced meanwhile; a newer one waits for the next flush
+            if (pendingRoutes.remove(change.getKey(), change.getValue())) {
+                (change.getValue() ? added : removed).add(change.getKey());
+            }
+        }
+        try {
+            routeStore.refresh(nodeId, added);
+            routeStore.removeAll(nodeId, removed);
+        } catch (Exception e) {
+            // The next route refresh repairs the table
+            log.warn("Failed to update in-app routes: added={}, removed={}", added.size(), removed.size(), e);
+        }
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void onStartup() {
+        if (isDistributed()) {
+            routeStore.deleteNode(nodeId);
+            log.info("In-app routing started: nodeId={}, channel={}", nodeId, getChannel());
+        }
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void onShutdown() {
+        if (isDistributed()) {
+            try {
+                routeStore.deleteNode(nodeId);
+            } catch (Exception e) {
+                log.warn("Failed to remove in-app routes of node {}, they expire after {}", nodeId, routeTtl, e);
+            }
+        }
+    }
+
+    /**
+     * Re-assert this node's routes and drop routes of nodes that stopped refreshing.
+     * Also repairs routes whose add/remove raced or failed.
+     */
+    @Scheduled(fixedDelayString = "${notification.channels.in-app.route-refresh-interval:30000}")
+    public void refreshRoutes() {
+        if (!isDistributed()) {
+            return;
+        }
+        try {
+            routeStore.refresh(nodeId, List.copyOf(registry.connectedUsers()));
+            int expired = routeStore.deleteStale(routeTtl);
+            if (expired > 0) {
+                log.info("Expired {} stale in-app routes", expired);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to refresh in-app routes: nodeId={}", nodeId, e);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.tsu.notification.infrastructure.inapp;
+
+import java.util.UUID;
+
+/**
+ * A connected in-app client (WebSocket or SSE) of one user
+ */
+public interface InAppSession {
+
+    String getId();
+
+    UUID getUserId();
+
+    /**
+     * Queue a payload for the client without blocking on a slow connection
+     *
+     * @return false if the session is closed or was evicted as a slow consumer
+     */
+    boolean send(String payload);
+
+    void close();
+}
@@ -0,0 +1,140 @@
+package com.tsu.notification.infrastructure.inapp;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Node-local registry of connected in-app sessions per user
+ * <p>
+ * Lookups and sends never take a global lock: users map to their own concurrent
+ * session maps, and a user's entry is created and removed atomically with compute.
+ * Sends are non-blocking (see {@link InAppSession#send}); sessions that fail a send are
+ * evicted so one slow client cannot hold memory or delay other users.
+ * <p>
+ * A user's first and last session on the node publish an InAppPresenceChangedEvent,
+ * which keeps the cross-node routes (InAppRouter) in step.
+ * <p>
+ * Meters:
+ * - notification.inapp.sessions: gauge of connected sessions on this node
+ * - notification.inapp.evicted: sessions evicted after a failed send
+ */
+@Component
+@ConditionalOnProperty(name = "notification.channels.in-app.enabled", havingValue = "true")
+@Slf4j
+public class InAppSessionRegistry {
+
+    private final Map<UUID, Map<String, InAppSession>> sessionsByUser = new ConcurrentHashMap<>();
+    private final AtomicInteger sessionCount = new AtomicInteger();
+    private final Counter evicted;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${notification.channels.in-app.max-sessions-per-user:5}")
+    private int maxSessionsPerUser;
+
+    public InAppSessionRegistry(MeterRegistry meterRegistry, ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+        Gauge.builder("notification.inapp.sessions", sessionCount, AtomicInteger::get)
+                .description("Connected in-app sessions on this node")
+                .register(meterRegistry);
+        this.evicted = Counter.builder("notification.inapp.evicted")
+                .description("In-app sessions evicted after a failed or overflowing send")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return false if the user already has max-sessions-per-user sessions on this node
+     */
+    public boolean register(InAppSession session) {
+        AtomicBoolean added = new AtomicBoolean();
+        AtomicBoolean first = new AtomicBoolean();
+        sessionsByUser.compute(session.getUserId(), (userId, sessions) -> {
+            if (sessions == null) {
+                sessions = new ConcurrentHashMap<>();
+            }
+            if (sessions.size() < maxSessionsPerUser && sessions.putIfAbsent(session.getId(), session) == null) {
+                added.set(true);
+                first.set(sessions.size() == 1);
+            }
+            return sessions.isEmpty() ? null : sessions;
+        });
+        if (added.get()) {
+            sessionCount.incrementAndGet();
+            if (first.get()) {
+                eventPublisher.publishEvent(new InAppPresenceChangedEvent(session.getUserId(), true));
+            }
+            log.debug("In-app session registered: userId={}, sessionId={}", session.getUserId(), session.getId());
+        } else {
+            log.warn("In-app session rejected, limit of {} sessions reached: userId={}", maxSessionsPerUser, session.getUserId());
+        }
+        return added.get();
+    }
+
+    public void unregister(InAppSession session) {
+        AtomicBoolean removed = new AtomicBoolean();
+        AtomicBoolean last = new AtomicBoolean();
+        sessionsByUser.computeIfPresent(session.getUserId(), (userId, sessions) -> {
+            removed.set(sessions.remove(session.getId(), session));
+            last.set(sessions.isEmpty());
+            return sessions.isEmpty() ? null : sessions;
+        });
+        if (removed.get()) {
+            sessionCount.decrementAndGet();
+            if (last.get()) {
+                eventPublisher.publishEvent(new InAppPresenceChangedEvent(session.getUserId(), false));
+            }
+            log.debug("In-app session unregistered: userId={}, sessionId={}", session.getUserId(), session.getId());
+        }
+    }
+
+    /**
+     * Send a payload to every session of the user on this node
+     *
+     * @return number of sessions the payload was queued to
+     */
+    public int sendToUser(UUID userId, String payload) {
+        Map<String, InAppSession> sessions = sessionsByUser.get(userId);
+        if (sessions == null) {
+            return 0;
+        }
+        int sent = 0;
+        for (InAppSession session : sessions.values()) {
+            if (session.send(payload)) {
+                sent++;
+            } else {
+                evict(session);
+            }
+        }
+        return sent;
+    }
+
+    public boolean isConnected(UUID userId) {
+        return sessionsByUser.containsKey(userId);
+    }
+
+    public Set<UUID> connectedUsers() {
+        return sessionsByUser.keySet();
+    }
+
+    public int getSessionCount() {
+        return sessionCount.get();
+    }
+
+    private void evict(InAppSession session) {
+        unregister(session);
+        session.close();
+        evicted.increment();
+    }
+}
@@ -0,0 +1,72 @@
+package com.tsu.notification.infrastructure.inapp;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.security.Principal;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-app server-sent events stream, for clients that cannot hold a WebSocket
+ * <p>
+ * The request is handled asynchronously, so an open stream holds a connection but no
+ * request thread. Events are written by a small bounded sender pool (sse-send-threads), so
+ * a dispatcher never waits on a client; sessions whose drain the full pool rejects are evicted.
+ */
+@RestController
+@ConditionalOnExpression("${notification.channels.in-app.enabled:false} and ${notification.channels.in-app.sse-enabled:false}")
+public class InAppStreamController {
+
+    private final InAppSessionRegistry registry;
+    private final Duration timeout;
+    private final DataSize sendBufferSizeLimit;
+    private final ThreadPoolExecutor sender;
+
+    public InAppStreamController(InAppSessionRegistry registry,
+                                 @Value("${notification.channels.in-app.sse-timeout:PT30M}") Duration timeout,
+                                 @Value("${spring.websocket.send-buffer-size-limit:64KB}") DataSize sendBufferSizeLimit,
+                                 @Value("${notification.channels.in-app.sse-send-threads:4}") int sendThreads,
+                                 @Value("${notification.channels.in-app.sse-send-queue-capacity:10000}") int sendQueueCapacity) {
+        this.registry = registry;
+        this.timeout = timeout;
+        this.sendBufferSizeLimit = sendBufferSizeLimit;
+        this.sender = new ThreadPoolExecutor(sendThreads, sendThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(sendQueueCapacity), new CustomizableThreadFactory("in-app-sse-"));
+    }
+
+    @GetMapping(path = "${notification.channels.in-app.sse-path:/api/v1/in-app/stream}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(Principal principal, @RequestParam(name = "userId", required = false) String userIdParam) {
+        UUID userId = InAppUserResolver.resolve(principal, userIdParam);
+        if (userId == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "user not identified");
+        }
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        SseInAppSession session = new SseInAppSession(userId, emitter, (int) sendBufferSizeLimit.toBytes(), sender);
+        if (!registry.register(session)) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "too many sessions");
+        }
+        emitter.onCompletion(() -> registry.unregister(session));
+        emitter.onTimeout(() -> registry.unregister(session));
+        emitter.onError(e -> registry.unregister(session));
+        return emitter;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sender.shutdownNow();
+    }
+}
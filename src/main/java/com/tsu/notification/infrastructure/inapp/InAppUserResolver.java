@@ -0,0 +1,30 @@
+package com.tsu.notification.infrastructure.inapp;
+
+import java.security.Principal;
+import java.util.UUID;
+
+/**
+ * User of an in-app connection: the authenticated principal when its name is a user id,
+ * otherwise the userId request parameter (for gateways that authenticate upstream)
+ */
+final class InAppUserResolver {
+
+    private InAppUserResolver() {
+    }
+
+    static UUID resolve(Principal principal, String userIdParam) {
+        UUID userId = principal != null ? parse(principal.getName()) : null;
+        return userId != null ? userId : parse(userIdParam);
+    }
+
+    private static UUID parse(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
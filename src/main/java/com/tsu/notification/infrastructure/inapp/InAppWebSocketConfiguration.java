@@ -0,0 +1,65 @@
+package com.tsu.notification.infrastructure.inapp;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+import org.springframework.web.socket.server.standard.ServletServerContainerFactoryBean;
+
+import java.time.Duration;
+
+/**
+ * In-app WebSocket endpoint (notification.channels.in-app.websocket-path)
+ * <p>
+ * Per-connection memory is what limits connections per pod, so inbound buffers are kept
+ * at spring.websocket.message-size-limit and outbound buffering per session is capped at
+ * spring.websocket.send-buffer-size-limit before the session is evicted as a slow consumer.
+ */
+@Configuration
+@EnableWebSocket
+@ConditionalOnExpression("${notification.channels.in-app.enabled:false} and ${notification.channels.in-app.websocket-enabled:false}")
+public class InAppWebSocketConfiguration implements WebSocketConfigurer {
+
+    private final InAppSessionRegistry registry;
+
+    @Value("${notification.channels.in-app.websocket-path:/ws/in-app}")
+    private String path;
+
+    @Value("${spring.websocket.allowed-origins:*}")
+    private String[] allowedOrigins;
+
+    @Value("${spring.websocket.message-size-limit:128KB}")
+    private DataSize messageSizeLimit;
+
+    @Value("${spring.websocket.send-buffer-size-limit:64KB}")
+    private DataSize sendBufferSizeLimit;
+
+    @Value("${spring.websocket.send-time-limit:5s}")
+    private Duration sendTimeLimit;
+
+    @Value("${spring.websocket.idle-timeout:10m}")
+    private Duration idleTimeout;
+
+    public InAppWebSocketConfiguration(InAppSessionRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry handlers) {
+        handlers.addHandler(new InAppWebSocketHandler(registry, (int) sendTimeLimit.toMillis(), (int) sendBufferSizeLimit.toBytes()), path)
+                .setAllowedOriginPatterns(allowedOrigins);
+    }
+
+    @Bean
+    public ServletServerContainerFactoryBean webSocketContainer() {
+        ServletServerContainerFactoryBean container = new ServletServerContainerFactoryBean();
+        container.setMaxTextMessageBufferSize((int) messageSizeLimit.toBytes());
+        container.setMaxBinaryMessageBufferSize((int) messageSizeLimit.toBytes());
+        container.setMaxSessionIdleTimeout(idleTimeout.toMillis());
+        return container;
+    }
+}
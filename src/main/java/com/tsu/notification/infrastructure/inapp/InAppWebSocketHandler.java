@@ -0,0 +1,60 @@
+package com.tsu.notification.infrastructure.inapp;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.UUID;
+
+/**
+ * Registers WebSocket connections with the in-app session registry
+ * <p>
+ * The channel is server-to-client only; inbound text messages are ignored.
+ */
+@Slf4j
+class InAppWebSocketHandler extends TextWebSocketHandler {
+
+    private static final String SESSION_ATTRIBUTE = "inAppSession";
+
+    private final InAppSessionRegistry registry;
+    private final int sendTimeLimitMs;
+    private final int sendBufferSizeLimit;
+
+    InAppWebSocketHandler(InAppSessionRegistry registry, int sendTimeLimitMs, int sendBufferSizeLimit) {
+        this.registry = registry;
+        this.sendTimeLimitMs = sendTimeLimitMs;
+        this.sendBufferSizeLimit = sendBufferSizeLimit;
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        String userIdParam = session.getUri() != null
+                ? UriComponentsBuilder.fromUri(session.getUri()).build().getQueryParams().getFirst("userId")
+                : null;
+        UUID userId = InAppUserResolver.resolve(session.getPrincipal(), userIdParam);
+        if (userId == null) {
+            session.close(CloseStatus.POLICY_VIOLATION.withReason("user not identified"));
+            return;
+        }
+        InAppSession inAppSession = new WebSocketInAppSession(userId, session, sendTimeLimitMs, sendBufferSizeLimit);
+        if (!registry.register(inAppSession)) {
+            session.close(CloseStatus.POLICY_VIOLATION.withReason("too many sessions"));
+            return;
+        }
+        session.getAttributes().put(SESSION_ATTRIBUTE, inAppSession);
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) {
+        log.debug("In-app WebSocket transport error: sessionId={}", session.getId(), exception);
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        if (session.getAttributes().remove(SESSION_ATTRIBUTE) instanceof InAppSession inAppSession) {
+            registry.unregister(inAppSession);
+        }
+    }
+}
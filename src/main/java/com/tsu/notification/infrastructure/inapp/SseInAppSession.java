@@ -0,0 +1,113 @@
+package com.tsu.notification.infrastructure.inapp;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-sent events in-app session
+ * <p>
+ * send only appends to a bounded per-session buffer; the buffer is written to the emitter by
+ * the shared sender executor, one drain task per session at a time, so a slow client never
+ * blocks the dispatcher or LISTEN thread. A session whose buffer exceeds send-buffer-size-limit,
+ * or whose drain the executor rejects, is evicted.
+ */
+@Slf4j
+class SseInAppSession implements InAppSession {
+
+    private final String id = UUID.randomUUID().toString();
+    private final UUID userId;
+    private final SseEmitter emitter;
+    private final int sendBufferSizeLimit;
+    private final Executor sender;
+    private final Queue<String> buffer = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger bufferSize = new AtomicInteger();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile boolean closed;
+
+    SseInAppSession(UUID userId, SseEmitter emitter, int sendBufferSizeLimit, Executor sender) {
+        this.userId = userId;
+        this.emitter = emitter;
+        this.sendBufferSizeLimit = sendBufferSizeLimit;
+        this.sender = sender;
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public UUID getUserId() {
+        return userId;
+    }
+
+    @Override
+    public boolean send(String payload) {
+        if (closed) {
+            return false;
+        }
+        if (bufferSize.addAndGet(payload.length()) > sendBufferSizeLimit) {
+            log.warn("Evicting slow in-app SSE session: userId={}, sessionId={}, bufferSize={}",
+                    userId, id, bufferSize.get());
+            close();
+            return false;
+        }
+        buffer.add(payload);
+        return scheduleDrain();
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            buffer.clear();
+            emitter.complete();
+        }
+    }
+
+    /**
+     * Start a drain task unless one is already running (it picks up the new message)
+     */
+    private boolean scheduleDrain() {
+        if (!draining.compareAndSet(false, true)) {
+            return true;
+        }
+        try {
+            sender.execute(this::drain);
+            return true;
+        } catch (RejectedExecutionException e) {
+            log.warn("Evicting in-app SSE session, sender queue full: userId={}, sessionId={}", userId, id);
+            draining.set(false);
+            close();
+            return false;
+        }
+    }
+
+    private void drain() {
+        do {
+            try {
+                String next;
+                while (!closed && (next = buffer.poll()) != null) {
+                    bufferSize.addAndGet(-next.length());
+                    emitter.send(SseEmitter.event().name("notification").data(next, MediaType.APPLICATION_JSON));
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("In-app SSE send failed: sessionId={}", id, e);
+                close();
+            } finally {
+                draining.set(false);
+            }
+            // Recheck: a message added after the last poll found no running drain to pick it up
+        } while (!buffer.isEmpty() && !closed && draining.compareAndSet(false, true));
+    }
+}
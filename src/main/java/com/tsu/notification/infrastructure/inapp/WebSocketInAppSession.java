@@ -0,0 +1,68 @@
+package com.tsu.notification.infrastructure.inapp;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * WebSocket in-app session
+ * <p>
+ * Sends go through ConcurrentWebSocketSessionDecorator: a caller that finds another send in
+ * progress only buffers its message and returns. When the buffer exceeds send-buffer-size-limit
+ * or a send takes longer than send-time-limit, the session is closed (slow consumer eviction).
+ */
+@Slf4j
+class WebSocketInAppSession implements InAppSession {
+
+    private final UUID userId;
+    private final ConcurrentWebSocketSessionDecorator session;
+
+    WebSocketInAppSession(UUID userId, WebSocketSession session, int sendTimeLimitMs, int sendBufferSizeLimit) {
+        this.userId = userId;
+        this.session = new ConcurrentWebSocketSessionDecorator(session, sendTimeLimitMs, sendBufferSizeLimit,
+                ConcurrentWebSocketSessionDecorator.OverflowStrategy.TERMINATE);
+    }
+
+    @Override
+    public String getId() {
+        return session.getId();
+    }
+
+    @Override
+    public UUID getUserId() {
+        return userId;
+    }
+
+    @Override
+    public boolean send(String payload) {
+        if (!session.isOpen()) {
+            return false;
+        }
+        try {
+            session.sendMessage(new TextMessage(payload));
+            return true;
+        } catch (SessionLimitExceededException e) {
+            log.warn("Evicting slow in-app WebSocket session: userId={}, sessionId={}, reason={}",
+                    userId, session.getId(), e.getMessage());
+            return false;
+        } catch (IOException | IllegalStateException e) {
+            log.debug("In-app WebSocket send failed: sessionId={}", session.getId(), e);
+            return false;
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            session.close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (IOException e) {
+            log.debug("Failed to close in-app WebSocket session: sessionId={}", session.getId(), e);
+        }
+    }
+}
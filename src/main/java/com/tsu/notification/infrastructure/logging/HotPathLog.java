@@ -0,0 +1,83 @@
+package com.tsu.notification.infrastructure.logging;
+
+import com.tsu.common.enums.MessageChannel;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Logging policy for the per-message hot path
+ * <p>
+ * - Per-message lines are logged at DEBUG, and only for one in every sample-rate messages
+ * - Outcomes are counted per channel and written as one INFO summary line per channel
+ *   every summary-interval milliseconds
+ * - WARN/ERROR lines are not affected and should keep logging directly
+ */
+@Component
+@Slf4j
+public class HotPathLog {
+
+    private final Map<MessageChannel, ChannelCounters> counters = new EnumMap<>(MessageChannel.class);
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Value("${notification.logging.sample-rate:100}")
+    private int sampleRate;
+
+    public HotPathLog() {
+        for (MessageChannel channel : MessageChannel.values()) {
+            counters.put(channel, new ChannelCounters());
+        }
+    }
+
+    /**
+     * Whether a per-message DEBUG line should be written for this message
+     */
+    public boolean isSampled(Logger logger) {
+        return logger.isDebugEnabled() && (sampleRate <= 1 || sequence.getAndIncrement() % sampleRate == 0);
+    }
+
+    public void published(MessageChannel channel) {
+        counters(channel).published.increment();
+    }
+
+    public void delivered(MessageChannel channel) {
+        counters(channel).delivered.increment();
+    }
+
+    public void failed(MessageChannel channel) {
+        counters(channel).failed.increment();
+    }
+
+    /**
+     * Write aggregated summary lines and reset the counters
+     */
+    @Scheduled(fixedDelayString = "${notification.logging.summary-interval:60000}")
+    public void logSummary() {
+        counters.forEach((channel, c) -> {
+            long published = c.published.sumThenReset();
+            long delivered = c.delivered.sumThenReset();
+            long failed = c.failed.sumThenReset();
+            if (published + delivered + failed > 0) {
+                log.info("Dispatch summary: channel={}, published={}, delivered={}, failed={}",
+                        channel, published, delivered, failed);
+            }
+        });
+    }
+
+    private ChannelCounters counters(MessageChannel channel) {
+        return counters.get(channel);
+    }
+
+    private static final class ChannelCounters {
+        private final LongAdder published = new LongAdder();
+        private final LongAdder delivered = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+    }
+}
@@ -0,0 +1,121 @@
+package com.tsu.notification.infrastructure.metrics;
+
+import com.tsu.common.enums.MessageChannel;
+import com.tsu.notification.infrastructure.queue.OutboxEventMessage;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end latency tracking from outbox insert to provider ack
+ * <p>
+ * Exported as the notification.latency histogram, tagged by segment and channel:
+ * - outbox_wait: outbox insert until the event is sent to the queue
+ * - queue_wait: sent to the queue until first received by a consumer
+ * - dispatch: time spent in the channel dispatcher
+ * - provider_call: time spent in the provider send call
+ * - end_to_end: outbox insert until the provider accepted the message
+ * <p>
+ * Timers are cached per segment and channel, as in NotificationMetrics.
+ */
+@Component
+@RequiredArgsConstructor
+public class DeliveryLatencyTracker {
+
+    /**
+     * SQS system attributes carrying queue timestamps (epoch millis)
+     */
+    public static final String SENT_TIMESTAMP = "SentTimestamp";
+    public static final String FIRST_RECEIVE_TIMESTAMP = "ApproximateFirstReceiveTimestamp";
+
+    public enum Segment {
+        OUTBOX_WAIT("outbox_wait"),
+        QUEUE_WAIT("queue_wait"),
+        DISPATCH("dispatch"),
+        PROVIDER_CALL("provider_call"),
+        END_TO_END("end_to_end");
+
+        private final String tag;
+
+        Segment(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    private record TimerKey(Segment segment, MessageChannel channel) {
+    }
+
+    /**
+     * Record outbox-wait and queue-wait segments when a message is received
+     *
+     * @param message        the received payload
+     * @param queueTimestamp QueueMessage timestamp, used when SentTimestamp is missing
+     * @param attributes     SQS system attributes of the received message
+     */
+    public void recordQueueArrival(OutboxEventMessage message, Long queueTimestamp, Map<String, String> attributes) {
+        Long sent = parseMillis(attributes, SENT_TIMESTAMP);
+        if (sent == null) {
+            sent = queueTimestamp;
+        }
+        Long firstReceive = parseMillis(attributes, FIRST_RECEIVE_TIMESTAMP);
+        if (firstReceive == null) {
+            firstReceive = System.currentTimeMillis();
+        }
+        if (sent != null && message.getCreatedTimestamp() != null) {
+            record(Segment.OUTBOX_WAIT, message.getMessageType(), sent - message.getCreatedTimestamp());
+        }
+        if (sent != null) {
+            record(Segment.QUEUE_WAIT, message.getMessageType(), firstReceive - sent);
+        }
+    }
+
+    /**
+     * Record end-to-end latency once the provider accepted the message
+     */
+    public void recordDelivered(OutboxEventMessage message) {
+        if (message.getCreatedTimestamp() != null) {
+            record(Segment.END_TO_END, message.getMessageType(),
+                    System.currentTimeMillis() - message.getCreatedTimestamp());
+        }
+    }
+
+    public void record(Segment segment, MessageChannel channel, long millis) {
+        recordNanos(segment, channel, TimeUnit.MILLISECONDS.toNanos(Math.max(0, millis)));
+    }
+
+    public void recordNanos(Segment segment, MessageChannel channel, long nanos) {
+        timers.computeIfAbsent(new TimerKey(segment, channel), key -> Timer.builder("notification.latency")
+                        .description("Notification latency per pipeline segment")
+                        .tag("segment", segment.tag)
+                        .tag("channel", channel != null ? channel.name() : "all")
+                        .publishPercentileHistogram()
+                        .minimumExpectedValue(Duration.ofMillis(1))
+                        .maximumExpectedValue(Duration.ofHours(1))
+                        .register(meterRegistry))
+                .record(Math.max(0, nanos), TimeUnit.NANOSECONDS);
+    }
+
+    private static Long parseMillis(Map<String, String> attributes, String name) {
+        if (attributes == null) {
+            return null;
+        }
+        String value = attributes.get(name);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
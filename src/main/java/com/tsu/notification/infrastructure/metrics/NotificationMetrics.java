@@ -0,0 +1,250 @@
+package com.tsu.notification.infrastructure.metrics;
+
+import com.tsu.common.enums.MessageChannel;
+import com.tsu.notification.infrastructure.adapter.SendResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Micrometer instrumentation for the dispatch pipeline
+ * <p>
+ * Meters (exported at /actuator/prometheus):
+ * - notification.outbox.claim: outbox claim latency, with notification.outbox.batch.size
+ * - notification.queue.publish: publish latency per channel and result
+ * - notification.queue.receive: receive latency, with notification.queue.receive.batch.size
+ * - notification.queue.process: per-message processing latency per result
+ * - notification.dispatch: channel dispatcher latency per channel and result
+ * - notification.provider.send: provider call latency per channel, provider, result and error code
+ * - notification.provider.rejected: provider calls rejected locally before reaching the provider
+ * - notification.inflight: gauge of in-flight work per stage and channel
+ * <p>
+ * Meters are registered once per tag combination and cached (keyed by meter name and tag
+ * values), so the hot path does not rebuild tag lists and meter IDs on every call.
+ */
+@Component
+public class NotificationMetrics {
+
+    public static final String STAGE_OUTBOX_PUBLISH = "outbox.publish";
+    public static final String STAGE_QUEUE_PROCESS = "queue.process";
+    public static final String STAGE_DISPATCH = "dispatch";
+    public static final String STAGE_PROVIDER_SEND = "provider.send";
+
+    public static final String RESULT_SUCCESS = "success";
+    public static final String RESULT_ERROR = "error";
+
+    private static final String ALL = "all";
+    private static final String NONE = "none";
+
+    private final MeterRegistry meterRegistry;
+    private final DeliveryLatencyTracker latencyTracker;
+    private final Timer outboxClaimTimer;
+    private final DistributionSummary outboxBatchSize;
+    private final Map<MeterKey, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<MeterKey, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<MeterKey, DistributionSummary> summaries = new ConcurrentHashMap<>();
+    private final Map<MeterKey, AtomicInteger> inFlightGauges = new ConcurrentHashMap<>();
+
+    /**
+     * Cache key: meter name, channel and up to three further tag values (unused ones are null)
+     */
+    private record MeterKey(String name, MessageChannel channel, String tag1, String tag2, String tag3) {
+    }
+
+    public NotificationMetrics(MeterRegistry meterRegistry, DeliveryLatencyTracker latencyTracker) {
+        this.meterRegistry = meterRegistry;
+        this.latencyTracker = latencyTracker;
+        this.outboxClaimTimer = Timer.builder("notification.outbox.claim")
+                .description("Time to claim a batch of pending outbox events")
+                .register(meterRegistry);
+        this.outboxBatchSize = DistributionSummary.builder("notification.outbox.batch.size")
+                .description("Number of outbox events claimed per poll")
+                .register(meterRegistry);
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(meterRegistry);
+    }
+
+    public void recordOutboxClaim(Timer.Sample sample, int batchSize) {
+        sample.stop(outboxClaimTimer);
+        outboxBatchSize.record(batchSize);
+    }
+
+    public void recordPublish(Timer.Sample sample, MessageChannel channel, boolean success) {
+        String result = resultTag(success);
+        sample.stop(timers.computeIfAbsent(new MeterKey("notification.queue.publish", channel, result, null, null),
+                key -> Timer.builder(key.name())
+                        .description("Time to publish an outbox event to the queue")
+                        .tag("channel", channelTag(channel))
+                        .tag("result", result)
+                        .register(meterRegistry)));
+    }
+
+    public void recordQueueReceive(Timer.Sample sample, String queue, int messageCount) {
+        sample.stop(timers.computeIfAbsent(new MeterKey("notification.queue.receive", null, queue, null, null),
+                key -> Timer.builder(key.name())
+                        .description("Time spent in a queue receive call, including long polling")
+                        .tag("queue", queue)
+                        .register(meterRegistry)));
+        summaries.computeIfAbsent(new MeterKey("notification.queue.receive.batch.size", null, queue, null, null),
+                        key -> DistributionSummary.builder(key.name())
+                                .description("Number of messages returned per receive call")
+                                .tag("queue", queue)
+                                .register(meterRegistry))
+                .record(messageCount);
+    }
+
+    public void recordQueueProcess(Timer.Sample sample, String queue, boolean success) {
+        String result = resultTag(success);
+        sample.stop(timers.computeIfAbsent(new MeterKey("notification.queue.process", null, queue, result, null),
+                key -> Timer.builder(key.name())
+                        .description("Time to parse, dispatch and acknowledge a queue message")
+                        .tag("queue", queue)
+                        .tag("result", result)
+                        .register(meterRegistry)));
+    }
+
+    public void recordDispatch(Timer.Sample sample, MessageChannel channel, boolean success) {
+        String result = resultTag(success);
+        long nanos = sample.stop(timers.computeIfAbsent(new MeterKey("notification.dispatch", channel, result, null, null),
+                key -> Timer.builder(key.name())
+                        .description("Time spent in a channel dispatcher")
+                        .tag("channel", channelTag(channel))
+                        .tag("result", result)
+                        .register(meterRegistry)));
+        latencyTracker.recordNanos(DeliveryLatencyTracker.Segment.DISPATCH, channel, nanos);
+    }
+
+    /**
+     * Time one of several dispatchers registered for a channel
+     */
+    public void recordDispatcher(Timer.Sample sample, MessageChannel channel, String dispatcher, boolean success) {
+        String result = resultTag(success);
+        sample.stop(timers.computeIfAbsent(new MeterKey("notification.dispatcher", channel, dispatcher, result, null),
+                key -> Timer.builder(key.name())
+                        .description("Time spent in each dispatcher of a channel with several dispatchers")
+                        .tag("channel", channelTag(channel))
+                        .tag("dispatcher", dispatcher)
+                        .tag("result", result)
+                        .register(meterRegistry)));
+    }
+
+    /**
+     * Time a provider call and tag it with its outcome
+     * Exceptions are recorded with error code EXCEPTION and rethrown
+     */
+    public SendResult recordProviderSend(MessageChannel channel, String provider, Supplier<SendResult> call) {
+        Timer.Sample sample = start();
+        AtomicInteger inFlight = inFlight(STAGE_PROVIDER_SEND, channel);
+        inFlight.incrementAndGet();
+        SendResult result = null;
+        try {
+            result = call.get();
+            return result;
+        } finally {
+            inFlight.decrementAndGet();
+            boolean success = result != null && result.isSuccess();
+            String errorCode = result == null ? "EXCEPTION"
+                    : success || result.getErrorCode() == null ? NONE : result.getErrorCode();
+            String providerTag = provider != null ? provider : NONE;
+            String resultName = resultTag(success);
+            long nanos = sample.stop(timers.computeIfAbsent(
+                    new MeterKey("notification.provider.send", channel, providerTag, resultName, errorCode),
+                    key -> Timer.builder(key.name())
+                            .description("Time spent in a provider send call")
+                            .tag("channel", channelTag(channel))
+                            .tag("provider", providerTag)
+                            .tag("result", resultName)
+                            .tag("error_code", errorCode)
+                            .register(meterRegistry)));
+            latencyTracker.recordNanos(DeliveryLatencyTracker.Segment.PROVIDER_CALL, channel, nanos);
+        }
+    }
+
+    /**
+     * Count a provider call rejected before reaching the provider (e.g., rate limited)
+     */
+    public void recordRejected(MessageChannel channel, String provider, String reason) {
+        String providerTag = provider != null ? provider : NONE;
+        counters.computeIfAbsent(new MeterKey("notification.provider.rejected", channel, providerTag, reason, null),
+                        key -> Counter.builder(key.name())
+                                .description("Provider calls rejected locally before reaching the provider")
+                                .tag("channel", channelTag(channel))
+                                .tag("provider", providerTag)
+                                .tag("reason", reason)
+                                .register(meterRegistry))
+                .increment();
+    }
+
+    /**
+     * Count an outbox event collapsed into another event for the same aggregate
+     */
+    public void recordCoalesced(MessageChannel channel) {
+        counters.computeIfAbsent(new MeterKey("notification.outbox.coalesced", channel, null, null, null),
+                        key -> Counter.builder(key.name())
+                                .description("Outbox events superseded by another claimed event for the same message")
+                                .tag("channel", channelTag(channel))
+                                .register(meterRegistry))
+                .increment();
+    }
+
+    /**
+     * Count a queue delivery skipped because its event was already completed
+     */
+    public void recordDuplicate(MessageChannel channel) {
+        counters.computeIfAbsent(new MeterKey("notification.queue.duplicate", channel, null, null, null),
+                        key -> Counter.builder(key.name())
+                                .description("Redelivered queue messages acknowledged without dispatching")
+                                .tag("channel", channelTag(channel))
+                                .register(meterRegistry))
+                .increment();
+    }
+
+    /**
+     * Count a retry decision after a failed delivery attempt
+     */
+    public void recordRetryDecision(MessageChannel channel, String errorCode, boolean retry) {
+        String errorCodeTag = errorCode != null ? errorCode : NONE;
+        String outcome = retry ? "retry" : "dead_letter";
+        counters.computeIfAbsent(new MeterKey("notification.retry.decision", channel, errorCodeTag, outcome, null),
+                        key -> Counter.builder(key.name())
+                                .description("Failed delivery attempts by outcome (retry or dead_letter)")
+                                .tag("channel", channelTag(channel))
+                                .tag("error_code", errorCodeTag)
+                                .tag("outcome", outcome)
+                                .register(meterRegistry))
+                .increment();
+    }
+
+    /**
+     * In-flight counter for a pipeline stage, exported as a gauge
+     */
+    public AtomicInteger inFlight(String stage, MessageChannel channel) {
+        return inFlightGauges.computeIfAbsent(new MeterKey("notification.inflight", channel, stage, null, null), key -> {
+            AtomicInteger counter = new AtomicInteger();
+            Gauge.builder(key.name(), counter, AtomicInteger::get)
+                    .description("Work currently in flight per pipeline stage")
+                    .tag("stage", stage)
+                    .tag("channel", channelTag(channel))
+                    .register(meterRegistry);
+            return counter;
+        });
+    }
+
+    private static String channelTag(MessageChannel channel) {
+        return channel != null ? channel.name() : ALL;
+    }
+
+    private static String resultTag(boolean success) {
+        return success ? RESULT_SUCCESS : RESULT_ERROR;
+    }
+}
@@ -0,0 +1,14 @@
+package com.tsu.notification.infrastructure.preference;
+
+import com.tsu.common.enums.MessageChannel;
+
+import java.util.UUID;
+
+/**
+ * Published when a recipient's channel preference changes, so cached lookups are evicted
+ *
+ * @param userId  the recipient
+ * @param channel the changed channel, or null for all channels
+ */
+public record RecipientPreferenceChangedEvent(UUID userId, MessageChannel channel) {
+}
@@ -0,0 +1,113 @@
+package com.tsu.notification.infrastructure.preference;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tsu.common.enums.MessageChannel;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Cached recipient opt-out checks for the dispatch fan-out
+ * <p>
+ * - Bounded Caffeine cache (notification.preferences.cache.maximum-size) with TTL
+ *   (notification.preferences.cache.ttl), so updates made on other nodes are seen within the TTL
+ * - prefetch() loads all recipients of a notification in one query before fan-out
+ * - Local updates evict immediately via RecipientPreferenceChangedEvent
+ */
+@Component
+@Slf4j
+public class RecipientPreferenceService {
+
+    private final RecipientPreferenceStore store;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Cache<PreferenceKey, Boolean> cache;
+    private final boolean cacheEnabled;
+
+    public RecipientPreferenceService(RecipientPreferenceStore store,
+                                      ApplicationEventPublisher eventPublisher,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${notification.preferences.cache.enabled:true}") boolean cacheEnabled,
+                                      @Value("${notification.preferences.cache.ttl:PT5M}") Duration ttl,
+                                      @Value("${notification.preferences.cache.maximum-size:100000}") long maximumSize) {
+        this.store = store;
+        this.eventPublisher = eventPublisher;
+        this.cacheEnabled = cacheEnabled;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "notification.preferences");
+    }
+
+    /**
+     * Whether the recipient accepts notifications on the channel
+     */
+    public boolean isEnabled(UUID userId, MessageChannel channel) {
+        if (!cacheEnabled) {
+            return store.isEnabled(userId, channel);
+        }
+        return cache.get(new PreferenceKey(userId, channel), key -> store.isEnabled(key.userId(), key.channel()));
+    }
+
+    /**
+     * Load preferences of many recipients in one query (only those not already cached)
+     */
+    public void prefetch(Collection<UUID> userIds, MessageChannel channel) {
+        if (!cacheEnabled || userIds.isEmpty()) {
+            return;
+        }
+        List<PreferenceKey> keys = userIds.stream()
+                .distinct()
+                .map(userId -> new PreferenceKey(userId, channel))
+                .toList();
+        cache.getAll(keys, missing -> {
+            List<UUID> missingUserIds = new ArrayList<>();
+            missing.forEach(key -> missingUserIds.add(key.userId()));
+            Map<PreferenceKey, Boolean> loaded = new HashMap<>();
+            store.findEnabled(missingUserIds, channel)
+                    .forEach((userId, enabled) -> loaded.put(new PreferenceKey(userId, channel), enabled));
+            log.debug("Prefetched {} recipient preferences: channel={}", loaded.size(), channel);
+            return loaded;
+        });
+    }
+
+    /**
+     * Update a preference and evict it from the cache
+     */
+    public void updatePreference(UUID userId, MessageChannel channel, boolean enabled) {
+        store.save(userId, channel, enabled);
+        eventPublisher.publishEvent(new RecipientPreferenceChangedEvent(userId, channel));
+    }
+
+    @EventListener
+    public void onPreferenceChanged(RecipientPreferenceChangedEvent event) {
+        if (event.channel() != null) {
+            cache.invalidate(new PreferenceKey(event.userId(), event.channel()));
+        } else {
+            for (MessageChannel channel : MessageChannel.values()) {
+                cache.invalidate(new PreferenceKey(event.userId(), channel));
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private record PreferenceKey(UUID userId, MessageChannel channel) {
+    }
+}
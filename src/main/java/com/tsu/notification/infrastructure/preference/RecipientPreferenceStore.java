@@ -0,0 +1,69 @@
+package com.tsu.notification.infrastructure.preference;
+
+import com.tsu.common.enums.MessageChannel;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Recipient channel opt-outs stored in Postgres (table notification_preference, see db/notification_preference.sql)
+ * <p>
+ * Only explicit preferences are stored; a user without a row for a channel is opted in.
+ */
+@Component
+@RequiredArgsConstructor
+public class RecipientPreferenceStore {
+
+    private static final String FIND_SQL = """
+            SELECT enabled FROM notification_preference WHERE user_id = ? AND channel = ?
+            """;
+
+    private static final String FIND_ALL_SQL = """
+            SELECT user_id, enabled FROM notification_preference WHERE channel = ? AND user_id = ANY(?)
+            """;
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO notification_preference (user_id, channel, enabled, updated_date)
+            VALUES (?, ?, ?, now())
+            ON CONFLICT (user_id, channel) DO UPDATE
+            SET enabled = EXCLUDED.enabled,
+                updated_date = EXCLUDED.updated_date
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public boolean isEnabled(UUID userId, MessageChannel channel) {
+        return jdbcTemplate.query(FIND_SQL, (rs, rowNum) -> rs.getBoolean(1), userId, channel.name())
+                .stream()
+                .findFirst()
+                .orElse(true);
+    }
+
+    /**
+     * Look up many users in one round trip
+     *
+     * @return enabled flag for every requested user (missing rows are opted in)
+     */
+    public Map<UUID, Boolean> findEnabled(Collection<UUID> userIds, MessageChannel channel) {
+        Map<UUID, Boolean> result = new HashMap<>();
+        userIds.forEach(userId -> result.put(userId, true));
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(FIND_ALL_SQL);
+            statement.setString(1, channel.name());
+            statement.setArray(2, connection.createArrayOf("uuid", userIds.toArray()));
+            return statement;
+        }, rs -> {
+            result.put(rs.getObject(1, UUID.class), rs.getBoolean(2));
+        });
+        return result;
+    }
+
+    public void save(UUID userId, MessageChannel channel, boolean enabled) {
+        jdbcTemplate.update(UPSERT_SQL, userId, channel.name(), enabled);
+    }
+}
@@ -0,0 +1,166 @@
+package com.tsu.notification.infrastructure.queue;
+
+import com.tsu.common.enums.MessageChannel;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-channel queue routing and consumer tuning
+ * <p>
+ * Channels without a queue-url keep using the shared queue.notification-events queue.
+ * Unset consumer settings fall back to the shared queue settings.
+ * <p>
+ * Any queue can have a low-priority lane (low-priority-queue-url). Low-priority
+ * messages are published there and its consumer only takes them when the
+ * high-priority lane leaves workers idle.
+ *
+ * <pre>
+ * queue:
+ *   channel-queues:
+ *     sms:
+ *       queue-url: https://sqs.us-east-1.amazonaws.com/123456789012/notification-events-sms
+ *       concurrency: 8
+ *       visibility-timeout: 20
+ *       low-priority-queue-url: https://sqs.us-east-1.amazonaws.com/123456789012/notification-events-sms-bulk
+ *   priority:
+ *     low-event-types: PROMOTIONAL,NEWSLETTER
+ * </pre>
+ */
+@Data
+@ConfigurationProperties(prefix = "queue")
+public class ChannelQueueProperties {
+
+    private QueueSettings notificationEvents = new QueueSettings();
+
+    private Map<MessageChannel, QueueSettings> channelQueues = new EnumMap<>(MessageChannel.class);
+
+    private PrioritySettings priority = new PrioritySettings();
+
+    /**
+     * Queue URL a message of the given channel is published to
+     */
+    public String queueUrlFor(MessageChannel channel) {
+        return queueUrlFor(channel, MessagePriority.HIGH);
+    }
+
+    /**
+     * Queue URL a message of the given channel and lane is published to
+     * (the channel's high-priority queue if it has no low-priority lane)
+     */
+    public String queueUrlFor(MessageChannel channel, MessagePriority priority) {
+        QueueSettings settings = channel != null ? channelQueues.get(channel) : null;
+        if (settings == null || !settings.isRouted()) {
+            settings = notificationEvents;
+        }
+        if (priority == MessagePriority.LOW && settings.hasLowPriorityLane()) {
+            return settings.getLowPriorityQueueUrl();
+        }
+        return settings.getQueueUrl();
+    }
+
+    /**
+     * Lane of an outbox event type
+     */
+    public MessagePriority priorityOf(String eventType) {
+        return eventType != null && priority.getLowEventTypes().contains(eventType)
+                ? MessagePriority.LOW
+                : MessagePriority.HIGH;
+    }
+
+    /**
+     * Channel settings with unset values taken from the shared queue settings
+     */
+    public QueueSettings resolve(MessageChannel channel) {
+        QueueSettings settings = channelQueues.get(channel);
+        return settings != null ? settings.withDefaults(notificationEvents) : notificationEvents;
+    }
+
+    @Data
+    public static class QueueSettings {
+
+        private boolean enabled = true;
+
+        private String queueUrl;
+
+        /**
+         * Messages per receive call (SQS max 10)
+         */
+        private Integer maxMessages;
+
+        private Integer waitTimeSeconds;
+
+        private Integer visibilityTimeout;
+
+        /**
+         * Worker threads processing messages of this queue
+         */
+        private Integer concurrency;
+
+        /**
+         * Optional queue for low-priority (bulk) messages of this queue's channels
+         */
+        private String lowPriorityQueueUrl;
+
+        public boolean isRouted() {
+            return enabled && queueUrl != null && !queueUrl.isBlank();
+        }
+
+        public boolean hasLowPriorityLane() {
+            return lowPriorityQueueUrl != null && !lowPriorityQueueUrl.isBlank();
+        }
+
+        public int maxMessagesOrDefault() {
+            return maxMessages != null ? maxMessages : 10;
+        }
+
+        public int waitTimeSecondsOrDefault() {
+            return waitTimeSeconds != null ? waitTimeSeconds : 20;
+        }
+
+        public int visibilityTimeoutOrDefault() {
+            return visibilityTimeout != null ? visibilityTimeout : 30;
+        }
+
+        public int concurrencyOrDefault() {
+            return concurrency != null ? concurrency : 1;
+        }
+
+        QueueSettings withDefaults(QueueSettings defaults) {
+            QueueSettings resolved = new QueueSettings();
+            resolved.setEnabled(enabled);
+            resolved.setQueueUrl(queueUrl);
+            resolved.setLowPriorityQueueUrl(lowPriorityQueueUrl);
+            resolved.setMaxMessages(maxMessages != null ? maxMessages : defaults.getMaxMessages());
+            resolved.setWaitTimeSeconds(waitTimeSeconds != null ? waitTimeSeconds : defaults.getWaitTimeSeconds());
+            resolved.setVisibilityTimeout(visibilityTimeout != null ? visibilityTimeout : defaults.getVisibilityTimeout());
+            resolved.setConcurrency(concurrency != null ? concurrency : defaults.getConcurrency());
+            return resolved;
+        }
+    }
+
+    @Data
+    public static class PrioritySettings {
+
+        /**
+         * Outbox event types published to the low-priority lane
+         */
+        private Set<String> lowEventTypes = new HashSet<>();
+
+        /**
+         * Receive cycles in which the high lane is polled first before the low lane gets
+         * one turn at first pick, so bulk sends are slowed but never fully starved
+         */
+        private int highWeight = 10;
+
+        /**
+         * Long-poll wait when both lanes are empty, bounding how long a low-priority
+         * message can sit unnoticed while the consumer waits on the high lane
+         */
+        private int idleWaitSeconds = 2;
+    }
+}
@@ -0,0 +1,23 @@
+package com.tsu.notification.infrastructure.queue;
+
+/**
+ * Delivery lane of a notification
+ * <p>
+ * - HIGH: transactional (OTP, password reset, order updates); preempts bulk sends
+ * - LOW: promotional / bulk sends
+ */
+public enum MessagePriority {
+    HIGH,
+    LOW;
+
+    /**
+     * Parse a priority value, treating missing or unknown values as HIGH
+     * (so messages published before priorities existed are never demoted)
+     */
+    public static MessagePriority of(String value) {
+        if (value != null && LOW.name().equalsIgnoreCase(value.trim())) {
+            return LOW;
+        }
+        return HIGH;
+    }
+}
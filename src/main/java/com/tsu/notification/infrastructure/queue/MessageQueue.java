@@ -29,6 +29,23 @@ public interface MessageQueue {
      */
     String sendMessageWithDelay(String queueName, String messageBody, int delaySeconds, Map<String, String> attributes);
 
+    /**
+     * Send a message that must be processed in order with others of the same group
+     * (SQS FIFO: MessageGroupId / MessageDeduplicationId). Queues without ordering
+     * support send it as a regular message.
+     *
+     * @param queueName the name/URL of the queue
+     * @param messageBody the message body
+     * @param groupId ordering group; messages of different groups may be processed in parallel
+     * @param deduplicationId identical IDs sent within the deduplication window are dropped
+     * @param attributes optional message attributes
+     * @return message ID assigned by the queue
+     */
+    default String sendOrderedMessage(String queueName, String messageBody, String groupId,
+                                      String deduplicationId, Map<String, String> attributes) {
+        return sendMessage(queueName, messageBody, attributes);
+    }
+
     /**
      * Check if queue is available/healthy
      *
@@ -1,20 +1,32 @@
 package com.tsu.notification.infrastructure.queue;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tsu.notification.infrastructure.dispatcher.DispatchOutcome;
 import com.tsu.notification.infrastructure.dispatcher.OutboxEventMessageHandler;
+import com.tsu.notification.infrastructure.logging.HotPathLog;
+import com.tsu.notification.infrastructure.metrics.DeliveryLatencyTracker;
+import com.tsu.notification.infrastructure.metrics.NotificationMetrics;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
-import org.springframework.scheduling.annotation.Scheduled;
-import org.springframework.stereotype.Component;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import software.amazon.awssdk.services.sqs.SqsClient;
 import software.amazon.awssdk.services.sqs.model.*;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * Consumer that polls notification events from SQS queue and processes them
+ * Consumer that polls notification events from one SQS queue and processes them
  * <p>
  * Separation of concerns:
  * - OutboxDispatcher: Polls DB and publishes to queue (producer)
@@ -25,81 +37,257 @@ import java.util.List;
  * - Can scale independently (more consumers if needed)
  * - Queue provides buffering and reliability
  * - Can leverage queue features (retries, DLQ, etc.)
+ * <p>
+ * One instance runs per queue (see NotificationEventConsumers), with a single
+ * long-polling thread and its own pool of worker threads. The poller only asks
+ * for as many messages as there are idle workers, so a slow queue never holds
+ * messages it cannot process within the visibility timeout.
+ * <p>
+ * With a low-priority lane configured, idle workers are offered to the high lane
+ * first and the low lane only gets what is left, except every (high-weight + 1)th
+ * cycle where the low lane picks first so bulk sends are never fully starved.
+ * <p>
+ * On FIFO queues (URL ending in .fifo) each received batch is split by
+ * MessageGroupId: different groups run on different workers in parallel, while the
+ * messages of one group run in order on a single worker. A message whose event is not
+ * settled (dispatch failed, or a retry was scheduled) is not deleted: it stays in flight
+ * until its retry time, which keeps SQS from delivering the rest of its group, and the
+ * remainder of the group in that batch is skipped so SQS redelivers it in order afterwards.
  */
-@Component
-@ConditionalOnProperty(name = "queue.consumer.enabled", havingValue = "true", matchIfMissing = true)
 @RequiredArgsConstructor
 @Slf4j
 public class NotificationEventConsumer {
 
+    private static final long RECEIVE_ERROR_BACKOFF_MS = 1000;
+    private static final long SQS_MAX_VISIBILITY_SECONDS = 43200;
+
+    private final String name;
+    private final ChannelQueueProperties.QueueSettings settings;
+    private final ChannelQueueProperties.PrioritySettings priority;
     private final SqsClient sqsClient;
     private final OutboxEventMessageHandler outboxEventHandler;
     private final ObjectMapper objectMapper;
+    private final NotificationMetrics metrics;
+    private final DeliveryLatencyTracker latencyTracker;
+    private final HotPathLog hotPathLog;
 
-    @Value("${queue.notification-events.queue-url}")
-    private String queueUrl;
+    private volatile boolean running;
+    private Lane highLane;
+    private Lane lowLane;
+    private long cycle;
+    private Thread poller;
+    private ExecutorService workers;
+    private Semaphore idleWorkers;
 
-    @Value("${queue.notification-events.max-messages:10}")
-    private int maxMessages;
-
-    @Value("${queue.notification-events.wait-time-seconds:20}")
-    private int waitTimeSeconds;
+    public void start() {
+        int concurrency = settings.concurrencyOrDefault();
+        highLane = Lane.of(name, settings.getQueueUrl());
+        lowLane = settings.hasLowPriorityLane() ? Lane.of(name + "-low", settings.getLowPriorityQueueUrl()) : null;
+        idleWorkers = new Semaphore(concurrency);
+        workers = Executors.newFixedThreadPool(concurrency, new CustomizableThreadFactory("sqs-" + name + "-worker-"));
+        running = true;
+        poller = new CustomizableThreadFactory("sqs-" + name + "-poller-").newThread(this::pollLoop);
+        poller.start();
+        log.info("Queue consumer started: name={}, queueUrl={}, lowPriorityQueueUrl={}, concurrency={}, maxMessages={}, visibilityTimeout={}",
+                name, settings.getQueueUrl(), settings.getLowPriorityQueueUrl(), concurrency,
+                settings.maxMessagesOrDefault(), settings.visibilityTimeoutOrDefault());
+    }
 
-    @Value("${queue.notification-events.visibility-timeout:30}")
-    private int visibilityTimeout;
+    public void stop() {
+        running = false;
+        if (poller != null) {
+            poller.interrupt();
+        }
+        if (workers != null) {
+            workers.shutdown();
+            try {
+                if (!workers.awaitTermination(settings.visibilityTimeoutOrDefault(), TimeUnit.SECONDS)) {
+                    workers.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                workers.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+        log.info("Queue consumer stopped: name={}", name);
+    }
 
     /**
-     * Poll and process messages from queue every 5 seconds
+     * Poll and hand messages to idle workers until stopped
      * Uses long polling for efficiency
      */
-    @Scheduled(fixedDelay = 5000)
-    public void pollAndProcess() {
-        try {
-            List<Message> messages = receiveMessages();
-
-            if (messages.isEmpty()) {
-                log.trace("No messages in queue");
+    private void pollLoop() {
+        while (running) {
+            int requested = 0;
+            try {
+                requested = acquireIdleWorkers();
+                int dispatched = lowLane == null
+                        ? receiveAndDispatch(highLane, requested, settings.waitTimeSecondsOrDefault())
+                        : pollLanes(requested);
+                if (dispatched < 0) {
+                    idleWorkers.release(requested);
+                    requested = 0;
+                    Thread.sleep(RECEIVE_ERROR_BACKOFF_MS);
+                    continue;
+                }
+                idleWorkers.release(requested - dispatched);
+                requested = 0;
+            } catch (InterruptedException e) {
+                idleWorkers.release(requested);
+                Thread.currentThread().interrupt();
                 return;
+            } catch (Exception e) {
+                idleWorkers.release(requested);
+                log.error("Error polling queue: name={}", name, e);
             }
+        }
+    }
 
-            log.info("Received {} messages from queue", messages.size());
+    /**
+     * Offer idle workers to both lanes in weighted order
+     *
+     * @return number of messages handed to workers, or -1 if every receive call failed
+     */
+    private int pollLanes(int capacity) {
+        boolean lowFirst = ++cycle % (priority.getHighWeight() + 1) == 0;
+        Lane first = lowFirst ? lowLane : highLane;
+        Lane second = lowFirst ? highLane : lowLane;
 
-            for (Message message : messages) {
-                processMessage(message);
-            }
+        int fromFirst = receiveAndDispatch(first, capacity, 0);
+        int dispatched = Math.max(fromFirst, 0);
+        int fromSecond = 0;
+        if (dispatched < capacity) {
+            fromSecond = receiveAndDispatch(second, capacity - dispatched, 0);
+            dispatched += Math.max(fromSecond, 0);
+        }
+        if (fromFirst < 0 && fromSecond < 0) {
+            return -1;
+        }
+        if (dispatched == 0) {
+            // Both lanes empty: long poll the high lane, briefly so new low-priority work is noticed
+            return Math.max(receiveAndDispatch(highLane, capacity, priority.getIdleWaitSeconds()), 0);
+        }
+        return dispatched;
+    }
 
-        } catch (Exception e) {
-            log.error("Error polling queue", e);
+    /**
+     * Receive up to maxMessages from the lane and hand each to a worker
+     *
+     * @return number of messages handed to workers, or -1 if the receive call failed
+     */
+    private int receiveAndDispatch(Lane lane, int maxMessages, int waitTimeSeconds) {
+        List<Message> messages = receiveMessages(lane, maxMessages, waitTimeSeconds);
+        if (messages == null) {
+            return -1;
+        }
+        if (messages.isEmpty()) {
+            log.trace("No messages in queue: name={}", lane.name());
+            return 0;
+        }
+        log.debug("Received {} messages from queue: name={}", messages.size(), lane.name());
+
+        if (lane.fifo()) {
+            dispatchByGroup(lane, messages);
+            return messages.size();
+        }
+        for (Message message : messages) {
+            workers.execute(() -> {
+                try {
+                    processMessage(lane, message);
+                } finally {
+                    idleWorkers.release();
+                }
+            });
         }
+        return messages.size();
+    }
+
+    /**
+     * Hand each message group to one worker, preserving the received order within the group
+     * Each message holds one idle-worker permit, released once it is processed or skipped
+     */
+    private void dispatchByGroup(Lane lane, List<Message> messages) {
+        Map<String, List<Message>> groups = new LinkedHashMap<>();
+        for (Message message : messages) {
+            String groupId = message.attributes().get(MessageSystemAttributeName.MESSAGE_GROUP_ID);
+            groups.computeIfAbsent(groupId != null ? groupId : message.messageId(), k -> new ArrayList<>())
+                    .add(message);
+        }
+        for (List<Message> group : groups.values()) {
+            workers.execute(() -> {
+                int processed = 0;
+                try {
+                    for (Message message : group) {
+                        boolean success = processMessage(lane, message);
+                        processed++;
+                        idleWorkers.release();
+                        if (!success) {
+                            log.warn("Stopping message group after failure: name={}, messageId={}, skipped={}",
+                                    lane.name(), message.messageId(), group.size() - processed);
+                            break;
+                        }
+                    }
+                } finally {
+                    idleWorkers.release(group.size() - processed);
+                }
+            });
+        }
+    }
+
+    /**
+     * Block until at least one worker is idle, then claim up to maxMessages idle workers
+     */
+    private int acquireIdleWorkers() throws InterruptedException {
+        idleWorkers.acquire();
+        int acquired = 1;
+        int max = Math.min(settings.maxMessagesOrDefault(), 10);
+        while (acquired < max && idleWorkers.tryAcquire()) {
+            acquired++;
+        }
+        return acquired;
     }
 
     /**
      * Receive messages from SQS queue
+     *
+     * @return received messages, or null if the receive call failed
      */
-    private List<Message> receiveMessages() {
+    private List<Message> receiveMessages(Lane lane, int maxMessages, int waitTimeSeconds) {
+        Timer.Sample sample = metrics.start();
         try {
             ReceiveMessageRequest request = ReceiveMessageRequest.builder()
-                    .queueUrl(queueUrl)
+                    .queueUrl(lane.queueUrl())
                     .maxNumberOfMessages(maxMessages)
                     .waitTimeSeconds(waitTimeSeconds)
-                    .visibilityTimeout(visibilityTimeout)
+                    .visibilityTimeout(settings.visibilityTimeoutOrDefault())
                     .messageAttributeNames("All")
+                    .attributeNamesWithStrings(DeliveryLatencyTracker.SENT_TIMESTAMP,
+                            DeliveryLatencyTracker.FIRST_RECEIVE_TIMESTAMP,
+                            MessageSystemAttributeName.MESSAGE_GROUP_ID.toString())
                     .build();
 
             ReceiveMessageResponse response = sqsClient.receiveMessage(request);
+            metrics.recordQueueReceive(sample, lane.name(), response.messages().size());
             return response.messages();
 
         } catch (SqsException e) {
-            log.error("Failed to receive messages from SQS: error={}",
-                    e.awsErrorDetails().errorMessage(), e);
-            return List.of();
+            log.error("Failed to receive messages from SQS: name={}, error={}",
+                    lane.name(), e.awsErrorDetails().errorMessage(), e);
+            return null;
         }
     }
 
     /**
      * Process a single message
+     * On ordered lanes the message is only deleted once its event is settled.
+     *
+     * @return true if the message was handled and deleted from the queue
      */
-    private void processMessage(Message message) {
+    private boolean processMessage(Lane lane, Message message) {
+        Timer.Sample sample = metrics.start();
+        AtomicInteger inFlight = metrics.inFlight(NotificationMetrics.STAGE_QUEUE_PROCESS, null);
+        inFlight.incrementAndGet();
+        boolean success = false;
         try {
             log.debug("Processing message: messageId={}", message.messageId());
 
@@ -113,33 +301,70 @@ public class NotificationEventConsumer {
             );
 
             OutboxEventMessage eventMessage = queueMessage.getPayload();
-
+            latencyTracker.recordQueueArrival(eventMessage, queueMessage.getTimestamp(), message.attributesAsStrings());
 
             // Route to handler
-            outboxEventHandler.handle(eventMessage);
+            if (lane.fifo()) {
+                DispatchOutcome outcome = outboxEventHandler.handleOrdered(eventMessage);
+                if (!outcome.settled()) {
+                    holdUntil(lane, message, outcome.retryAt());
+                    return false;
+                }
+            } else {
+                outboxEventHandler.handle(eventMessage);
+            }
 
             // Delete message from queue on success
-            deleteMessage(message.receiptHandle());
+            deleteMessage(lane, message.receiptHandle());
 
-            log.info("Message processed successfully: messageId={}, eventType={}",
-                    message.messageId(), eventMessage.getEventType());
+            success = true;
+            if (hotPathLog.isSampled(log)) {
+                log.debug("Message processed successfully: messageId={}, eventType={}",
+                        message.messageId(), eventMessage.getEventType());
+            }
 
         } catch (Exception e) {
             log.error("Failed to process message: messageId={}", message.messageId(), e);
             // Message will become visible again after visibility timeout
             // SQS will retry automatically based on queue configuration
             // Consider implementing dead letter queue (DLQ) for failed messages
+        } finally {
+            inFlight.decrementAndGet();
+            metrics.recordQueueProcess(sample, lane.name(), success);
         }
+        return success;
     }
 
 
+    /**
+     * Keep an unsettled message in flight until its retry time (or the visibility timeout
+     * if it has none), blocking the rest of its message group until then
+     */
+    private void holdUntil(Lane lane, Message message, Instant retryAt) {
+        if (retryAt == null) {
+            return;
+        }
+        long seconds = Math.min(Math.max(Duration.between(Instant.now(), retryAt).toSeconds(), 0), SQS_MAX_VISIBILITY_SECONDS);
+        try {
+            sqsClient.changeMessageVisibility(ChangeMessageVisibilityRequest.builder()
+                    .queueUrl(lane.queueUrl())
+                    .receiptHandle(message.receiptHandle())
+                    .visibilityTimeout((int) seconds)
+                    .build());
+            log.debug("Ordered message held for retry: name={}, messageId={}, retryIn={}s", lane.name(), message.messageId(), seconds);
+        } catch (SqsException e) {
+            log.error("Failed to delay ordered message, it returns after the visibility timeout: messageId={}, error={}",
+                    message.messageId(), e.awsErrorDetails().errorMessage(), e);
+        }
+    }
+
     /**
      * Delete message from queue
      */
-    private void deleteMessage(String receiptHandle) {
+    private void deleteMessage(Lane lane, String receiptHandle) {
         try {
             DeleteMessageRequest request = DeleteMessageRequest.builder()
-                    .queueUrl(queueUrl)
+                    .queueUrl(lane.queueUrl())
                     .receiptHandle(receiptHandle)
                     .build();
 
@@ -150,4 +375,11 @@ public class NotificationEventConsumer {
                     e.awsErrorDetails().errorMessage(), e);
         }
     }
+
+    private record Lane(String name, String queueUrl, boolean fifo) {
+
+        static Lane of(String name, String queueUrl) {
+            return new Lane(name, queueUrl, SqsMessageQueue.isFifo(queueUrl));
+        }
+    }
 }
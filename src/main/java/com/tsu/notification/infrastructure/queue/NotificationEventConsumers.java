@@ -0,0 +1,81 @@
+package com.tsu.notification.infrastructure.queue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tsu.common.enums.MessageChannel;
+import com.tsu.notification.infrastructure.dispatcher.OutboxEventMessageHandler;
+import com.tsu.notification.infrastructure.logging.HotPathLog;
+import com.tsu.notification.infrastructure.metrics.DeliveryLatencyTracker;
+import com.tsu.notification.infrastructure.metrics.NotificationMetrics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.sqs.SqsClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Starts one NotificationEventConsumer per queue
+ * <p>
+ * - shared: queue.notification-events, for channels without a dedicated queue
+ * - one per channel with queue.channel-queues.&lt;channel&gt;.queue-url set
+ * <p>
+ * A queue's low-priority lane is consumed by the same consumer and worker pool.
+ * <p>
+ * Each channel gets its own poller and worker pool, so a backlog or a slow provider
+ * on one channel (e.g. SMS throttling) does not delay delivery on the others.
+ */
+@Component
+@ConditionalOnProperty(name = "queue.consumer.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationEventConsumers implements SmartLifecycle {
+
+    static final String SHARED_QUEUE = "shared";
+
+    private final ChannelQueueProperties queueProperties;
+    private final SqsClient sqsClient;
+    private final OutboxEventMessageHandler outboxEventHandler;
+    private final ObjectMapper objectMapper;
+    private final NotificationMetrics metrics;
+    private final DeliveryLatencyTracker latencyTracker;
+    private final HotPathLog hotPathLog;
+
+    private final List<NotificationEventConsumer> consumers = new ArrayList<>();
+    private volatile boolean running;
+
+    @Override
+    public synchronized void start() {
+        if (queueProperties.getNotificationEvents().isRouted()) {
+            consumers.add(createConsumer(SHARED_QUEUE, queueProperties.getNotificationEvents()));
+        }
+        for (Map.Entry<MessageChannel, ChannelQueueProperties.QueueSettings> entry : queueProperties.getChannelQueues().entrySet()) {
+            if (entry.getValue().isRouted()) {
+                consumers.add(createConsumer(entry.getKey().name(), queueProperties.resolve(entry.getKey())));
+            }
+        }
+        consumers.forEach(NotificationEventConsumer::start);
+        running = true;
+        log.info("Started {} queue consumers", consumers.size());
+    }
+
+    @Override
+    public synchronized void stop() {
+        consumers.forEach(NotificationEventConsumer::stop);
+        consumers.clear();
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private NotificationEventConsumer createConsumer(String name, ChannelQueueProperties.QueueSettings settings) {
+        return new NotificationEventConsumer(name, settings, queueProperties.getPriority(), sqsClient, outboxEventHandler,
+                objectMapper, metrics, latencyTracker, hotPathLog);
+    }
+}
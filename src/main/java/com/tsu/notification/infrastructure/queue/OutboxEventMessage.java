@@ -39,4 +39,14 @@ public class OutboxEventMessage {
      * Partition key for ordering (optional)
      */
     private String partitionKey;
+
+    /**
+     * Outbox insert time (epoch millis), used for end-to-end latency
+     */
+    private Long createdTimestamp;
+
+    /**
+     * Delivery lane (null is treated as HIGH)
+     */
+    private MessagePriority priority;
 }
@@ -0,0 +1,12 @@
+package com.tsu.notification.infrastructure.queue;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Queue routing configuration
+ */
+@Configuration
+@EnableConfigurationProperties(ChannelQueueProperties.class)
+public class QueueConfiguration {
+}
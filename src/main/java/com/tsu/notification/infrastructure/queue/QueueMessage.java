@@ -42,16 +42,30 @@ public class QueueMessage<T> {
      */
     private Long timestamp;
 
+    /**
+     * Delivery lane (null is treated as HIGH)
+     */
+    private MessagePriority priority;
+
     /**
      * Create a new message with generated ID and timestamp
      */
     public static <T> QueueMessage<T> create(String messageType, T payload, Map<String, String> attributes) {
+        return create(messageType, payload, attributes, null);
+    }
+
+    /**
+     * Create a new message with generated ID and timestamp in the given lane
+     */
+    public static <T> QueueMessage<T> create(String messageType, T payload, Map<String, String> attributes,
+                                             MessagePriority priority) {
         return QueueMessage.<T>builder()
             .messageId(UUID.randomUUID().toString())
             .messageType(messageType)
             .payload(payload)
             .attributes(attributes)
             .timestamp(System.currentTimeMillis())
+            .priority(priority)
             .build();
     }
 
@@ -2,9 +2,11 @@ package com.tsu.notification.infrastructure.queue;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tsu.notification.entities.OutboxMessageTb;
+import com.tsu.notification.infrastructure.logging.HotPathLog;
+import com.tsu.notification.infrastructure.metrics.NotificationMetrics;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.HashMap;
@@ -20,17 +22,24 @@ public class QueuePublisher {
 
     private final MessageQueue messageQueue;
     private final ObjectMapper objectMapper;
-
-    @Value("${queue.notification-events.queue-url}")
-    private String notificationEventsQueueUrl;
+    private final NotificationMetrics metrics;
+    private final HotPathLog hotPathLog;
+    private final ChannelQueueProperties queueProperties;
 
     /**
-     * Publish outbox event to notification events queue
+     * Publish outbox event to the queue of its channel
+     * (falls back to the shared notification events queue)
+     * <p>
+     * On FIFO queues the event is ordered by its partition key (or its message, if it has
+     * none) and deduplicated by event ID and attempt, so a re-publish after a lost
+     * acknowledgement is dropped while a later retry of the same event is not.
      *
      * @param event the outbox event to publish
      * @return message ID from the queue
      */
     public String publishOutboxEvent(OutboxMessageTb event) {
+        Timer.Sample sample = metrics.start();
+        MessagePriority priority = priorityOf(event);
         try {
             // Convert outbox event to message payload
             OutboxEventMessage payload = OutboxEventMessage.builder()
@@ -39,12 +48,16 @@ public class QueuePublisher {
                 .messageId(event.getMessageId())
                 .eventType(event.getEventType())
                 .partitionKey(event.getPartitionKey())
+                .createdTimestamp(event.getCreatedDate() != null ? event.getCreatedDate().toEpochMilli() : null)
+                .priority(priority)
                 .build();
 
             // Wrap in queue message
             QueueMessage<OutboxEventMessage> queueMessage = QueueMessage.create(
                 event.getEventType(),
-                payload
+                payload,
+                Map.of(),
+                priority
             );
 
             // Serialize to JSON
@@ -55,23 +68,91 @@ public class QueuePublisher {
             attributes.put("eventType", event.getEventType());
             attributes.put("messageType", event.getMessageType().name());
             attributes.put("messageId", event.getMessageId().toString());
+            attributes.put("priority", priority.name());
 
             // Send to queue
-            String messageId = messageQueue.sendMessage(
-                notificationEventsQueueUrl,
+            String messageId = messageQueue.sendOrderedMessage(
+                queueProperties.queueUrlFor(event.getMessageType(), priority),
                 messageBody,
+                messageGroupId(event),
+                event.getId() + ":" + event.getAttemptCount(),
                 attributes
             );
 
-            log.info("Published outbox event to queue: eventId={}, queueMessageId={}, eventType={}",
-                event.getId(), messageId, event.getEventType());
+            metrics.recordPublish(sample, event.getMessageType(), true);
+            hotPathLog.published(event.getMessageType());
+            if (hotPathLog.isSampled(log)) {
+                log.debug("Published outbox event to queue: eventId={}, queueMessageId={}, eventType={}",
+                    event.getId(), messageId, event.getEventType());
+            }
 
             return messageId;
 
         } catch (Exception e) {
             log.error("Failed to publish outbox event to queue: eventId={}", event.getId(), e);
+            metrics.recordPublish(sample, event.getMessageType(), false);
             throw new QueueException("Failed to publish outbox event to queue", e);
         }
     }
 
+    /**
+     * Re-enqueue a failed dispatch for another attempt after the given delay
+     *
+     * @param message      the event message that failed
+     * @param delaySeconds SQS delivery delay (max 900)
+     * @return message ID from the queue
+     */
+    public String publishRetry(OutboxEventMessage message, int delaySeconds) {
+        MessagePriority priority = message.getPriority() != null ? message.getPriority() : MessagePriority.HIGH;
+        try {
+            QueueMessage<OutboxEventMessage> queueMessage = QueueMessage.create(
+                message.getEventType(),
+                message,
+                Map.of(),
+                priority
+            );
+            String messageBody = objectMapper.writeValueAsString(queueMessage);
+
+            Map<String, String> attributes = new HashMap<>();
+            attributes.put("eventType", message.getEventType());
+            attributes.put("messageType", message.getMessageType().name());
+            attributes.put("messageId", message.getMessageId().toString());
+            attributes.put("priority", priority.name());
+
+            String messageId = messageQueue.sendMessageWithDelay(
+                queueProperties.queueUrlFor(message.getMessageType(), priority),
+                messageBody,
+                delaySeconds,
+                attributes
+            );
+            log.debug("Enqueued delayed retry: eventId={}, queueMessageId={}, delaySeconds={}",
+                message.getEventId(), messageId, delaySeconds);
+            return messageId;
+
+        } catch (Exception e) {
+            throw new QueueException("Failed to enqueue delayed retry", e);
+        }
+    }
+
+    /**
+     * Whether a delayed retry of the message can be enqueued directly
+     * (FIFO queues do not support per-message delays)
+     */
+    public boolean supportsDelayedRetry(OutboxEventMessage message) {
+        MessagePriority priority = message.getPriority() != null ? message.getPriority() : MessagePriority.HIGH;
+        return !SqsMessageQueue.isFifo(queueProperties.queueUrlFor(message.getMessageType(), priority));
+    }
+
+    /**
+     * Lane the outbox event is published to
+     */
+    public MessagePriority priorityOf(OutboxMessageTb event) {
+        return queueProperties.priorityOf(event.getEventType());
+    }
+
+    private String messageGroupId(OutboxMessageTb event) {
+        String partitionKey = event.getPartitionKey();
+        return partitionKey != null && !partitionKey.isBlank() ? partitionKey : event.getMessageId().toString();
+    }
+
 }
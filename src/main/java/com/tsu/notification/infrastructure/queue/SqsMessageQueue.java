@@ -28,11 +28,36 @@ public class SqsMessageQueue implements MessageQueue {
 
     @Override
     public String sendMessageWithDelay(String queueUrl, String messageBody, int delaySeconds, Map<String, String> attributes) {
+        return send(SendMessageRequest.builder()
+            .queueUrl(queueUrl)
+            .messageBody(messageBody)
+            .delaySeconds(delaySeconds), queueUrl, attributes);
+    }
+
+    /**
+     * On FIFO queues (URL ending in .fifo) sets MessageGroupId and MessageDeduplicationId;
+     * standard queues ignore ordering and get a regular message
+     */
+    @Override
+    public String sendOrderedMessage(String queueUrl, String messageBody, String groupId,
+                                     String deduplicationId, Map<String, String> attributes) {
+        var requestBuilder = SendMessageRequest.builder()
+            .queueUrl(queueUrl)
+            .messageBody(messageBody);
+        if (isFifo(queueUrl)) {
+            requestBuilder
+                .messageGroupId(groupId)
+                .messageDeduplicationId(deduplicationId);
+        }
+        return send(requestBuilder, queueUrl, attributes);
+    }
+
+    public static boolean isFifo(String queueUrl) {
+        return queueUrl != null && queueUrl.endsWith(".fifo");
+    }
+
+    private String send(SendMessageRequest.Builder requestBuilder, String queueUrl, Map<String, String> attributes) {
         try {
-            var requestBuilder = SendMessageRequest.builder()
-                .queueUrl(queueUrl)
-                .messageBody(messageBody)
-                .delaySeconds(delaySeconds);
 
             // Add message attributes if provided
             if (attributes != null && !attributes.isEmpty()) {
@@ -0,0 +1,124 @@
+package com.tsu.notification.infrastructure.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cluster-wide token bucket whose tokens live in Postgres
+ * <p>
+ * Each node leases tokens from the shared bucket in chunks and spends them
+ * locally, so a send normally costs one atomic decrement and the database is
+ * only touched once per chunk. Local pacing still applies on top of the lease,
+ * so a node never bursts its whole chunk at once.
+ */
+@Slf4j
+public class LeasedTokenBucketRateLimiter implements RateLimiter {
+
+    private static final long MIN_RETRY_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private final String provider;
+    private final RateLimitBucketStore store;
+    private final TokenBucketRateLimiter localPacer;
+    private final AtomicLong leasedTokens = new AtomicLong();
+    private final ReentrantLock leaseLock = new ReentrantLock();
+    private final int leaseSize;
+    private volatile double permitsPerSecond;
+
+    public LeasedTokenBucketRateLimiter(String provider, RateLimitBucketStore store,
+                                        double permitsPerSecond, int burst, int leaseSize) {
+        this.provider = provider;
+        this.store = store;
+        this.permitsPerSecond = permitsPerSecond;
+        this.leaseSize = Math.max(1, leaseSize);
+        this.localPacer = new TokenBucketRateLimiter(permitsPerSecond, burst);
+        store.register(provider, permitsPerSecond, burst);
+    }
+
+    @Override
+    public boolean tryAcquire(Duration maxWait) {
+        long deadline = System.nanoTime() + maxWait.toNanos();
+        while (true) {
+            if (takeLeased()) {
+                return localPacer.tryAcquire(Duration.ofNanos(Math.max(0, deadline - System.nanoTime())));
+            }
+            if (!lease() && !sleepUntilRetry(deadline)) {
+                return false;
+            }
+        }
+    }
+
+    @Override
+    public void setRate(double permitsPerSecond) {
+        this.permitsPerSecond = permitsPerSecond;
+        localPacer.setRate(permitsPerSecond);
+        store.updateRate(provider, permitsPerSecond);
+    }
+
+    @Override
+    public void setRate(double permitsPerSecond, int burst) {
+        this.permitsPerSecond = permitsPerSecond;
+        localPacer.setRate(permitsPerSecond, burst);
+        store.updateRate(provider, permitsPerSecond, burst);
+    }
+
+    @Override
+    public double getRate() {
+        return permitsPerSecond;
+    }
+
+    private boolean takeLeased() {
+        long current;
+        do {
+            current = leasedTokens.get();
+            if (current <= 0) {
+                return false;
+            }
+        } while (!leasedTokens.compareAndSet(current, current - 1));
+        return true;
+    }
+
+    /**
+     * Lease a chunk of tokens; only one thread per node talks to the database at a time
+     *
+     * @return true if tokens are available locally after the call
+     */
+    private boolean lease() {
+        leaseLock.lock();
+        try {
+            if (leasedTokens.get() > 0) {
+                return true;
+            }
+            long granted = store.lease(provider, leaseSize);
+            if (granted > 0) {
+                leasedTokens.addAndGet(granted);
+                return true;
+            }
+            return false;
+        } catch (Exception e) {
+            log.warn("Failed to lease rate limit tokens: provider={}, error={}", provider, e.getMessage());
+            return false;
+        } finally {
+            leaseLock.unlock();
+        }
+    }
+
+    /**
+     * Wait for the shared bucket to refill at least one token
+     *
+     * @return false if the deadline has passed
+     */
+    private boolean sleepUntilRetry(long deadline) {
+        long refillNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        long sleep = Math.min(Math.max(refillNanos, MIN_RETRY_NANOS), deadline - System.nanoTime());
+        if (sleep <= 0) {
+            return false;
+        }
+        LockSupport.parkNanos(sleep);
+        return System.nanoTime() < deadline;
+    }
+}
@@ -0,0 +1,147 @@
+package com.tsu.notification.infrastructure.ratelimit;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-provider rate limiters in front of the sender adapters
+ * <p>
+ * Defaults come from notification.rate-limit.*, and can be overridden per provider:
+ * notification.rate-limit.providers.AWS_SES.requests-per-second=14
+ * <p>
+ * Modes (notification.rate-limit.mode):
+ * - local: each node paces independently with an in-memory token bucket
+ * - distributed: nodes lease tokens in chunks from a bucket shared through Postgres,
+ *   so aggregate throughput across pods and Lambdas tracks the provider quota
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProviderRateLimiters {
+
+    private static final String PROVIDER_PREFIX = "notification.rate-limit.providers.";
+
+    private final Environment environment;
+    private final ObjectProvider<RateLimitBucketStore> bucketStore;
+    private final Map<String, RateLimiter> limiters = new ConcurrentHashMap<>();
+
+    @Value("${notification.rate-limit.enabled:false}")
+    private boolean enabled;
+
+    @Value("${notification.rate-limit.requests-per-second:100}")
+    private double defaultRequestsPerSecond;
+
+    @Value("${notification.rate-limit.burst:200}")
+    private int defaultBurst;
+
+    @Value("${notification.rate-limit.max-wait-ms:1000}")
+    private long maxWaitMs;
+
+    @Value("${notification.rate-limit.mode:local}")
+    private String mode;
+
+    @Value("${notification.rate-limit.lease-size:10}")
+    private int leaseSize;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Acquire a send permit for the provider
+     *
+     * @return false if the provider is saturated beyond the configured max wait
+     */
+    public boolean tryAcquire(String provider) {
+        return tryAcquire(provider, 1);
+    }
+
+    /**
+     * Acquire the permits of one call the provider counts as several sends (e.g., one per
+     * bulk recipient). The wait for the call's own permits is pacing, not saturation, so it
+     * is added to the max wait.
+     *
+     * @return false if the provider is saturated beyond the configured max wait
+     */
+    public boolean tryAcquire(String provider, int permits) {
+        if (!enabled) {
+            return true;
+        }
+        RateLimiter limiter = limiter(provider);
+        Duration maxWait = Duration.ofMillis(maxWaitMs);
+        if (permits > 1) {
+            maxWait = maxWait.plusNanos((long) ((permits - 1) * 1_000_000_000L / limiter.getRate()));
+        }
+        return limiter.tryAcquire(permits, maxWait);
+    }
+
+    /**
+     * Update the sustained rate of a provider (e.g., from a provider-reported quota)
+     * Explicitly configured per-provider rates take precedence
+     */
+    public void updateRate(String provider, double requestsPerSecond) {
+        if (hasExplicitRate(provider)) {
+            log.debug("Ignoring rate update for provider {} with explicit rate configured", provider);
+            return;
+        }
+        RateLimiter limiter = limiter(provider);
+        if (limiter.getRate() != requestsPerSecond) {
+            limiter.setRate(requestsPerSecond);
+            log.info("Rate limit updated: provider={}, requestsPerSecond={}", provider, requestsPerSecond);
+        }
+    }
+
+    /**
+     * Update the sustained rate and burst of a provider (e.g., from a provider-reported quota)
+     * Explicitly configured per-provider rates take precedence, as does an explicit burst
+     */
+    public void updateRate(String provider, double requestsPerSecond, int burst) {
+        if (hasExplicitRate(provider)) {
+            log.debug("Ignoring rate update for provider {} with explicit rate configured", provider);
+            return;
+        }
+        int effectiveBurst = environment.containsProperty(PROVIDER_PREFIX + provider + ".burst") ? burst(provider) : burst;
+        RateLimiter limiter = limiter(provider);
+        limiter.setRate(requestsPerSecond, effectiveBurst);
+        log.info("Rate limit updated: provider={}, requestsPerSecond={}, burst={}", provider, requestsPerSecond, effectiveBurst);
+    }
+
+    public boolean hasExplicitRate(String provider) {
+        return environment.containsProperty(PROVIDER_PREFIX + provider + ".requests-per-second");
+    }
+
+    public double requestsPerSecond(String provider) {
+        return environment.getProperty(PROVIDER_PREFIX + provider + ".requests-per-second",
+                Double.class, defaultRequestsPerSecond);
+    }
+
+    public int burst(String provider) {
+        return environment.getProperty(PROVIDER_PREFIX + provider + ".burst", Integer.class, defaultBurst);
+    }
+
+    private RateLimiter limiter(String provider) {
+        return limiters.computeIfAbsent(provider, this::createLimiter);
+    }
+
+    protected RateLimiter createLimiter(String provider) {
+        double rps = requestsPerSecond(provider);
+        int burst = burst(provider);
+        log.info("Rate limiter created: provider={}, mode={}, requestsPerSecond={}, burst={}", provider, mode, rps, burst);
+        if ("distributed".equalsIgnoreCase(mode)) {
+            RateLimitBucketStore store = bucketStore.getIfAvailable();
+            if (store == null) {
+                throw new IllegalStateException("Distributed rate limiting requires RateLimitBucketStore");
+            }
+            return new LeasedTokenBucketRateLimiter(provider, store, rps, burst, leaseSize);
+        }
+        return new TokenBucketRateLimiter(rps, burst);
+    }
+}
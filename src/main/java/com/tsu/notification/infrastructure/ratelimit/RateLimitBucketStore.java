@@ -0,0 +1,95 @@
+package com.tsu.notification.infrastructure.ratelimit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Shared token buckets stored in Postgres (table provider_rate_limit, see db/provider_rate_limit.sql)
+ * <p>
+ * Refill is computed lazily from the elapsed time on every lease, so no background
+ * job is needed. Each lease is a single UPDATE that locks only the provider's row,
+ * run in its own short transaction so the row lock is never held across a dispatch.
+ */
+@Component
+@ConditionalOnProperty(name = "notification.rate-limit.mode", havingValue = "distributed")
+public class RateLimitBucketStore {
+
+    private static final String REGISTER_SQL = """
+            INSERT INTO provider_rate_limit (provider, tokens, capacity, refill_rate, updated_date)
+            VALUES (?, ?, ?, ?, clock_timestamp())
+            ON CONFLICT (provider) DO UPDATE
+            SET capacity = EXCLUDED.capacity,
+                refill_rate = EXCLUDED.refill_rate
+            """;
+
+    private static final String UPDATE_RATE_SQL = """
+            UPDATE provider_rate_limit SET refill_rate = ? WHERE provider = ?
+            """;
+
+    private static final String UPDATE_RATE_AND_CAPACITY_SQL = """
+            UPDATE provider_rate_limit
+            SET refill_rate = ?,
+                capacity = ?,
+                tokens = LEAST(tokens, ?)
+            WHERE provider = ?
+            """;
+
+    private static final String LEASE_SQL = """
+            WITH refill AS (
+                SELECT provider,
+                       LEAST(capacity, tokens + EXTRACT(EPOCH FROM (clock_timestamp() - updated_date)) * refill_rate) AS available
+                FROM provider_rate_limit
+                WHERE provider = ?
+                FOR UPDATE
+            ), grant_tokens AS (
+                SELECT provider, available, FLOOR(LEAST(available, ?)) AS granted
+                FROM refill
+            )
+            UPDATE provider_rate_limit b
+            SET tokens = g.available - g.granted,
+                updated_date = clock_timestamp()
+            FROM grant_tokens g
+            WHERE b.provider = g.provider
+            RETURNING g.granted
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate requiresNew;
+
+    public RateLimitBucketStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public void register(String provider, double refillRate, int capacity) {
+        requiresNew.executeWithoutResult(status ->
+                jdbcTemplate.update(REGISTER_SQL, provider, (double) capacity, (double) capacity, refillRate));
+    }
+
+    public void updateRate(String provider, double refillRate) {
+        requiresNew.executeWithoutResult(status -> jdbcTemplate.update(UPDATE_RATE_SQL, refillRate, provider));
+    }
+
+    public void updateRate(String provider, double refillRate, int capacity) {
+        requiresNew.executeWithoutResult(status ->
+                jdbcTemplate.update(UPDATE_RATE_AND_CAPACITY_SQL, refillRate, (double) capacity, (double) capacity, provider));
+    }
+
+    /**
+     * Atomically take up to {@code requested} tokens from the provider's bucket
+     *
+     * @return number of tokens granted (0 if the bucket is empty)
+     */
+    public long lease(String provider, int requested) {
+        List<Long> granted = requiresNew.execute(status -> jdbcTemplate.query(LEASE_SQL,
+                (rs, rowNum) -> rs.getLong(1), provider, requested));
+        return granted == null || granted.isEmpty() ? 0 : granted.get(0);
+    }
+}
@@ -0,0 +1,50 @@
+package com.tsu.notification.infrastructure.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * Rate limiter guarding calls to an external provider
+ */
+public interface RateLimiter {
+
+    /**
+     * Acquire one permit, waiting up to maxWait for it
+     *
+     * @param maxWait maximum time the caller is willing to wait
+     * @return true if a permit was acquired, false if it would have waited longer than maxWait
+     */
+    boolean tryAcquire(Duration maxWait);
+
+    /**
+     * Acquire several permits for one call (e.g., a bulk send the provider counts per recipient),
+     * waiting up to maxWait for all of them
+     *
+     * @return true if all permits were acquired; permits taken before a failure are not returned
+     */
+    default boolean tryAcquire(int permits, Duration maxWait) {
+        long deadline = System.nanoTime() + maxWait.toNanos();
+        for (int i = 0; i < permits; i++) {
+            if (!tryAcquire(Duration.ofNanos(Math.max(0, deadline - System.nanoTime())))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Change the sustained rate
+     *
+     * @param permitsPerSecond new sustained rate
+     */
+    void setRate(double permitsPerSecond);
+
+    /**
+     * Change the sustained rate and the number of permits granted at once after idle time
+     *
+     * @param permitsPerSecond new sustained rate
+     * @param burst            new burst size
+     */
+    void setRate(double permitsPerSecond, int burst);
+
+    double getRate();
+}
@@ -0,0 +1,64 @@
+package com.tsu.notification.infrastructure.ratelimit;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.ses.SesClient;
+import software.amazon.awssdk.services.ses.model.GetSendQuotaResponse;
+
+/**
+ * Configures the AWS_SES rate limiter from the account's SES send quota
+ * <p>
+ * GetSendQuota.maxSendRate is the account-wide per-second limit; the limiter is
+ * set to a configurable share of it so that the service paces below the quota
+ * instead of discovering throttling after the fact. The burst is sized to about one
+ * second of the quota, so sends after idle time do not exceed it either.
+ */
+@Component
+@ConditionalOnProperty(name = "notification.channels.email.provider", havingValue = "AWS_SES")
+@RequiredArgsConstructor
+@Slf4j
+public class SesSendQuotaRateConfigurer {
+
+    public static final String PROVIDER = "AWS_SES";
+
+    private final SesClient sesClient;
+    private final ProviderRateLimiters rateLimiters;
+
+    @Value("${notification.rate-limit.ses.quota-utilization:0.9}")
+    private double quotaUtilization;
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void onStartup() {
+        refreshQuota();
+    }
+
+    /**
+     * Re-read the quota, SES raises maxSendRate as the account's reputation grows
+     */
+    @Scheduled(fixedDelayString = "${notification.rate-limit.ses.quota-refresh-interval:3600000}",
+            initialDelayString = "${notification.rate-limit.ses.quota-refresh-interval:3600000}")
+    public void refreshQuota() {
+        if (!rateLimiters.isEnabled()) {
+            return;
+        }
+        try {
+            GetSendQuotaResponse quota = sesClient.getSendQuota();
+            Double maxSendRate = quota.maxSendRate();
+            if (maxSendRate == null || maxSendRate <= 0) {
+                log.warn("SES send quota did not report maxSendRate, keeping configured rate");
+                return;
+            }
+            double rate = maxSendRate * quotaUtilization;
+            // About one second of sends after idle time: a larger burst overshoots the per-second quota
+            rateLimiters.updateRate(PROVIDER, rate, (int) Math.ceil(rate));
+        } catch (Exception e) {
+            log.warn("Failed to read SES send quota, keeping current rate: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.tsu.notification.infrastructure.ratelimit;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Lock-free token bucket implemented as a generic cell rate algorithm (GCRA)
+ * <p>
+ * The bucket state is a single "theoretical arrival time" updated with CAS.
+ * Each caller reserves the next free slot and parks until it is due, so sends
+ * are paced evenly at the configured rate instead of bursting into provider
+ * throttles. Up to {@code burst} permits are granted immediately after idle time.
+ */
+public class TokenBucketRateLimiter implements RateLimiter {
+
+    private final AtomicLong theoreticalArrivalNanos;
+    private volatile Settings settings;
+
+    public TokenBucketRateLimiter(double permitsPerSecond, int burst) {
+        this.settings = new Settings(permitsPerSecond, burst);
+        this.theoreticalArrivalNanos = new AtomicLong(System.nanoTime());
+    }
+
+    @Override
+    public boolean tryAcquire(Duration maxWait) {
+        return tryAcquire(1, maxWait);
+    }
+
+    /**
+     * Reserve all permits in one slot update, so a rejected call takes none of them
+     */
+    @Override
+    public boolean tryAcquire(int permits, Duration maxWait) {
+        long maxWaitNanos = maxWait.toNanos();
+        while (true) {
+            Settings current = settings;
+            long now = System.nanoTime();
+            long tat = theoreticalArrivalNanos.get();
+            long newTat = Math.max(tat, now) + current.intervalNanos * Math.max(1, permits);
+            long waitNanos = newTat - current.burstWindowNanos - now;
+            if (waitNanos > maxWaitNanos) {
+                return false;
+            }
+            if (theoreticalArrivalNanos.compareAndSet(tat, newTat)) {
+                parkUntil(now + waitNanos);
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public void setRate(double permitsPerSecond) {
+        this.settings = new Settings(permitsPerSecond, settings.burst);
+    }
+
+    @Override
+    public void setRate(double permitsPerSecond, int burst) {
+        this.settings = new Settings(permitsPerSecond, burst);
+    }
+
+    @Override
+    public double getRate() {
+        return settings.permitsPerSecond;
+    }
+
+    public int getBurst() {
+        return settings.burst;
+    }
+
+    private static void parkUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+        }
+    }
+
+    private static final class Settings {
+        private final double permitsPerSecond;
+        private final int burst;
+        private final long intervalNanos;
+        private final long burstWindowNanos;
+
+        private Settings(double permitsPerSecond, int burst) {
+            if (permitsPerSecond <= 0) {
+                throw new IllegalArgumentException("permitsPerSecond must be positive: " + permitsPerSecond);
+            }
+            this.permitsPerSecond = permitsPerSecond;
+            this.burst = Math.max(1, burst);
+            this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+            this.burstWindowNanos = this.intervalNanos * this.burst;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.tsu.notification.infrastructure.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Consecutive-failure circuit breaker for a single provider
+ * <p>
+ * - CLOSED: calls pass; the circuit opens after failureThreshold consecutive failures
+ * - OPEN: calls are rejected until openDuration has elapsed
+ * - HALF_OPEN: up to halfOpenMaxCalls trial calls pass; a success closes the circuit,
+ *   a failure opens it again
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private record Status(State state, int failures, long openedAtNanos) {
+    }
+
+    private final int failureThreshold;
+    private final long openDurationNanos;
+    private final int halfOpenMaxCalls;
+    private final AtomicReference<Status> status = new AtomicReference<>(new Status(State.CLOSED, 0, 0));
+    private final AtomicInteger halfOpenCalls = new AtomicInteger();
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration, int halfOpenMaxCalls) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDurationNanos = openDuration.toNanos();
+        this.halfOpenMaxCalls = Math.max(1, halfOpenMaxCalls);
+    }
+
+    /**
+     * Whether a call may proceed; callers that get true must report the outcome
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            Status current = status.get();
+            switch (current.state()) {
+                case CLOSED:
+                    return true;
+                case OPEN:
+                    if (System.nanoTime() - current.openedAtNanos() < openDurationNanos) {
+                        return false;
+                    }
+                    if (status.compareAndSet(current, new Status(State.HALF_OPEN, current.failures(), current.openedAtNanos()))) {
+                        halfOpenCalls.set(0);
+                    }
+                    continue;
+                case HALF_OPEN:
+                default:
+                    return halfOpenCalls.incrementAndGet() <= halfOpenMaxCalls;
+            }
+        }
+    }
+
+    public void onSuccess() {
+        Status current = status.get();
+        if (current.state() != State.CLOSED || current.failures() > 0) {
+            status.set(new Status(State.CLOSED, 0, 0));
+        }
+    }
+
+    /**
+     * Report a call that did not reach the provider, releasing a half-open trial slot
+     */
+    public void onIgnored() {
+        if (status.get().state() == State.HALF_OPEN) {
+            halfOpenCalls.decrementAndGet();
+        }
+    }
+
+    public void onFailure() {
+        while (true) {
+            Status current = status.get();
+            Status next;
+            if (current.state() == State.HALF_OPEN) {
+                next = new Status(State.OPEN, current.failures() + 1, System.nanoTime());
+            } else if (current.state() == State.OPEN) {
+                return;
+            } else if (current.failures() + 1 >= failureThreshold) {
+                next = new Status(State.OPEN, current.failures() + 1, System.nanoTime());
+            } else {
+                next = new Status(State.CLOSED, current.failures() + 1, 0);
+            }
+            if (status.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+
+    public State getState() {
+        return status.get().state();
+    }
+
+    /**
+     * Time until an open circuit lets a trial call through
+     */
+    public Duration remainingOpenDuration() {
+        Status current = status.get();
+        if (current.state() != State.OPEN) {
+            return Duration.ZERO;
+        }
+        long remaining = openDurationNanos - (System.nanoTime() - current.openedAtNanos());
+        return Duration.ofNanos(Math.max(0, remaining));
+    }
+}
@@ -0,0 +1,100 @@
+package com.tsu.notification.infrastructure.resilience;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-provider circuit breakers and bulkheads around the sender adapters
+ * <p>
+ * Defaults come from notification.resilience.*, and can be overridden per provider:
+ * notification.resilience.providers.AWS_SES.max-concurrent-calls=10
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProviderResilience {
+
+    private static final String PROVIDER_PREFIX = "notification.resilience.providers.";
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    private final Map<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+
+    @Value("${notification.resilience.enabled:true}")
+    private boolean enabled;
+
+    @Value("${notification.resilience.circuit-breaker.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${notification.resilience.circuit-breaker.open-duration-ms:30000}")
+    private long openDurationMs;
+
+    @Value("${notification.resilience.circuit-breaker.half-open-max-calls:1}")
+    private int halfOpenMaxCalls;
+
+    @Value("${notification.resilience.circuit-breaker.ignored-error-codes:}")
+    private Set<String> ignoredErrorCodes;
+
+    @Value("${notification.resilience.bulkhead.max-concurrent-calls:20}")
+    private int maxConcurrentCalls;
+
+    @Value("${notification.resilience.bulkhead.max-wait-ms:0}")
+    private long bulkheadMaxWaitMs;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public CircuitBreaker circuitBreaker(String provider) {
+        return circuitBreakers.computeIfAbsent(provider, this::createCircuitBreaker);
+    }
+
+    public Bulkhead bulkhead(String provider) {
+        return bulkheads.computeIfAbsent(provider, this::createBulkhead);
+    }
+
+    public Duration bulkheadMaxWait() {
+        return Duration.ofMillis(bulkheadMaxWaitMs);
+    }
+
+    /**
+     * Whether a failed result indicates provider health (and should count towards opening the circuit)
+     * Permanent and per-message errors (invalid recipient, rejected content) do not.
+     */
+    public boolean isProviderFailure(String errorCode, boolean permanent) {
+        return !permanent && (errorCode == null || !ignoredErrorCodes.contains(errorCode));
+    }
+
+    private CircuitBreaker createCircuitBreaker(String provider) {
+        CircuitBreaker breaker = new CircuitBreaker(
+                environment.getProperty(PROVIDER_PREFIX + provider + ".failure-threshold", Integer.class, failureThreshold),
+                Duration.ofMillis(environment.getProperty(PROVIDER_PREFIX + provider + ".open-duration-ms", Long.class, openDurationMs)),
+                halfOpenMaxCalls);
+        Gauge.builder("notification.provider.circuit.state", breaker, b -> b.getState().ordinal())
+                .description("Circuit breaker state per provider (0=closed, 1=open, 2=half-open)")
+                .tag("provider", provider)
+                .register(meterRegistry);
+        return breaker;
+    }
+
+    private Bulkhead createBulkhead(String provider) {
+        Bulkhead bulkhead = new Bulkhead(
+                environment.getProperty(PROVIDER_PREFIX + provider + ".max-concurrent-calls", Integer.class, maxConcurrentCalls));
+        Gauge.builder("notification.provider.bulkhead.available", bulkhead, Bulkhead::getAvailablePermits)
+                .description("Available bulkhead permits per provider")
+                .tag("provider", provider)
+                .register(meterRegistry);
+        return bulkhead;
+    }
+}
@@ -0,0 +1,40 @@
+package com.tsu.notification.infrastructure.retry;
+
+import java.time.Instant;
+
+/**
+ * Outcome of a failed delivery attempt: retry at a given time, or dead-letter
+ */
+public class RetryDecision {
+
+    private final Instant nextAttempt;
+    private final String reason;
+
+    private RetryDecision(Instant nextAttempt, String reason) {
+        this.nextAttempt = nextAttempt;
+        this.reason = reason;
+    }
+
+    public static RetryDecision retryAt(Instant nextAttempt) {
+        return new RetryDecision(nextAttempt, null);
+    }
+
+    public static RetryDecision deadLetter(String reason) {
+        return new RetryDecision(null, reason);
+    }
+
+    public boolean isRetry() {
+        return nextAttempt != null;
+    }
+
+    public Instant getNextAttempt() {
+        return nextAttempt;
+    }
+
+    /**
+     * Why the message is dead-lettered (null for retries)
+     */
+    public String getReason() {
+        return reason;
+    }
+}
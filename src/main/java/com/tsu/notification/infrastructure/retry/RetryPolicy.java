@@ -0,0 +1,58 @@
+package com.tsu.notification.infrastructure.retry;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff with full jitter and a bounded number of attempts
+ * <p>
+ * delay(n) = random(0, min(maxDelay, initialDelay * 2^(n-1)))
+ * <p>
+ * Full jitter spreads retries of messages that failed together (e.g., during a provider
+ * incident) so they do not all come back at the same instant.
+ */
+public class RetryPolicy {
+
+    private final Duration initialDelay;
+    private final Duration maxDelay;
+    private final int maxAttempts;
+    private final boolean jitter;
+
+    public RetryPolicy(Duration initialDelay, Duration maxDelay, int maxAttempts, boolean jitter) {
+        this.initialDelay = initialDelay;
+        this.maxDelay = maxDelay;
+        this.maxAttempts = maxAttempts;
+        this.jitter = jitter;
+    }
+
+    /**
+     * Whether another attempt is allowed after the given number of attempts
+     */
+    public boolean canRetry(int attempts) {
+        return attempts < maxAttempts;
+    }
+
+    /**
+     * Delay before the next attempt, after the given number of attempts (1-based)
+     */
+    public Duration backoff(int attempts) {
+        int exponent = Math.min(Math.max(attempts - 1, 0), 30);
+        long ceilingMillis = Math.min(maxDelay.toMillis(), initialDelay.toMillis() << exponent);
+        if (ceilingMillis <= 0) {
+            return Duration.ZERO;
+        }
+        return Duration.ofMillis(jitter ? ThreadLocalRandom.current().nextLong(ceilingMillis + 1) : ceilingMillis);
+    }
+
+    public Duration getInitialDelay() {
+        return initialDelay;
+    }
+
+    public Duration getMaxDelay() {
+        return maxDelay;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+}
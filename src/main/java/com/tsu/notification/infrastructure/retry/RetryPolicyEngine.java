@@ -0,0 +1,147 @@
+package com.tsu.notification.infrastructure.retry;
+
+import com.tsu.common.enums.MessageChannel;
+import com.tsu.notification.infrastructure.metrics.NotificationMetrics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retry decisions for failed deliveries, keyed by channel and error code
+ * <p>
+ * Policies come from notification.retry.policies.&lt;channel&gt;.*, and can be overridden
+ * per error code:
+ * notification.retry.policies.sms.errors.SNS_RATE_LIMIT.initial-delay-seconds=30
+ * notification.retry.policies.email.errors.SES_REJECTED.permanent=true
+ * <p>
+ * A failure is dead-lettered immediately when:
+ * - the provider reported it as permanent (SendResult.permanent)
+ * - its error code is in notification.retry.permanent-error-codes, or marked permanent for the channel
+ * - the policy's max attempts (default notification.dispatcher.max-retries) are used up
+ * <p>
+ * Retry-after hints (throttling, open circuit) raise the jittered delay, never lower it.
+ * <p>
+ * Sends rejected locally before reaching the provider are deferred instead (see defer):
+ * they are never dead-lettered and do not count as attempts.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RetryPolicyEngine {
+
+    private static final String POLICY_PREFIX = "notification.retry.policies.";
+
+    /**
+     * Defaults per channel (initial delay, max delay in seconds)
+     */
+    private static final Map<MessageChannel, long[]> CHANNEL_DEFAULTS = new EnumMap<>(Map.of(
+            MessageChannel.email, new long[]{60, 600},
+            MessageChannel.sms, new long[]{10, 180},
+            MessageChannel.notification, new long[]{1, 60}
+    ));
+
+    private final Environment environment;
+    private final NotificationMetrics metrics;
+    private final Map<String, RetryPolicy> policies = new ConcurrentHashMap<>();
+
+    @Value("${notification.dispatcher.max-retries:5}")
+    private int defaultMaxAttempts;
+
+    @Value("${notification.retry.jitter:true}")
+    private boolean jitter;
+
+    @Value("${notification.retry.permanent-error-codes:}")
+    private Set<String> permanentErrorCodes;
+
+    /**
+     * Decide what to do after a failed attempt
+     *
+     * @param attempts   attempts made so far, including the one that just failed
+     * @param permanent  whether the provider reported the failure as permanent
+     * @param retryAfter earliest time the provider can accept a retry (optional)
+     */
+    public RetryDecision decide(MessageChannel channel, String errorCode, boolean permanent,
+                                int attempts, Duration retryAfter) {
+        RetryDecision decision = evaluate(channel, errorCode, permanent, attempts, retryAfter);
+        metrics.recordRetryDecision(channel, errorCode, decision.isRetry());
+        return decision;
+    }
+
+    /**
+     * Retry a send that never reached the provider (open circuit, full bulkhead, rate limit)
+     * once the rejection clears, spread by up to the policy's initial delay so deferred
+     * messages do not all come back at the same instant
+     *
+     * @param retryAfter when the local rejection is expected to clear (optional)
+     */
+    public RetryDecision defer(MessageChannel channel, String errorCode, Duration retryAfter) {
+        Duration delay = retryAfter != null ? retryAfter : Duration.ZERO;
+        long spreadMillis = policy(channel, errorCode).getInitialDelay().toMillis();
+        if (jitter && spreadMillis > 0) {
+            delay = delay.plusMillis(ThreadLocalRandom.current().nextLong(spreadMillis + 1));
+        }
+        metrics.recordRetryDecision(channel, errorCode, true);
+        return RetryDecision.retryAt(Instant.now().plus(delay));
+    }
+
+    public RetryPolicy policy(MessageChannel channel, String errorCode) {
+        String key = channel.name() + ":" + (errorCode != null ? errorCode : "");
+        return policies.computeIfAbsent(key, k -> createPolicy(channel, errorCode));
+    }
+
+    private RetryDecision evaluate(MessageChannel channel, String errorCode, boolean permanent,
+                                   int attempts, Duration retryAfter) {
+        if (permanent || isPermanent(channel, errorCode)) {
+            return RetryDecision.deadLetter("permanent error");
+        }
+        RetryPolicy policy = policy(channel, errorCode);
+        if (!policy.canRetry(attempts)) {
+            return RetryDecision.deadLetter("max attempts (" + policy.getMaxAttempts() + ") reached");
+        }
+        Duration delay = policy.backoff(attempts);
+        if (retryAfter != null && retryAfter.compareTo(delay) > 0) {
+            // Provider cannot accept before then (throttling, open circuit)
+            delay = retryAfter;
+        }
+        return RetryDecision.retryAt(Instant.now().plus(delay));
+    }
+
+    private boolean isPermanent(MessageChannel channel, String errorCode) {
+        if (errorCode == null) {
+            return false;
+        }
+        return permanentErrorCodes.contains(errorCode)
+                || environment.getProperty(errorPrefix(channel, errorCode) + "permanent", Boolean.class, false);
+    }
+
+    private RetryPolicy createPolicy(MessageChannel channel, String errorCode) {
+        String channelPrefix = POLICY_PREFIX + channel.name() + ".";
+        long[] defaults = CHANNEL_DEFAULTS.getOrDefault(channel, new long[]{60, 600});
+        long initialDelay = environment.getProperty(channelPrefix + "initial-delay-seconds", Long.class, defaults[0]);
+        long maxDelay = environment.getProperty(channelPrefix + "max-delay-seconds", Long.class, defaults[1]);
+        int maxAttempts = environment.getProperty(channelPrefix + "max-attempts", Integer.class, defaultMaxAttempts);
+        if (errorCode != null) {
+            String errorPrefix = errorPrefix(channel, errorCode);
+            initialDelay = environment.getProperty(errorPrefix + "initial-delay-seconds", Long.class, initialDelay);
+            maxDelay = environment.getProperty(errorPrefix + "max-delay-seconds", Long.class, maxDelay);
+            maxAttempts = environment.getProperty(errorPrefix + "max-attempts", Integer.class, maxAttempts);
+        }
+        log.debug("Retry policy created: channel={}, errorCode={}, initialDelay={}s, maxDelay={}s, maxAttempts={}",
+                channel, errorCode, initialDelay, maxDelay, maxAttempts);
+        return new RetryPolicy(Duration.ofSeconds(initialDelay), Duration.ofSeconds(maxDelay), maxAttempts, jitter);
+    }
+
+    private static String errorPrefix(MessageChannel channel, String errorCode) {
+        return POLICY_PREFIX + channel.name() + ".errors." + errorCode + ".";
+    }
+}
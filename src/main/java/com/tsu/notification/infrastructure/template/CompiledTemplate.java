@@ -0,0 +1,126 @@
+package com.tsu.notification.infrastructure.template;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pre-parsed template: literal segments interleaved with variable references
+ * <p>
+ * Syntax (Mustache subset):
+ * - {{name}}: variable, HTML-escaped when rendering HTML
+ * - {{{name}}}: variable, never escaped
+ * - {{a.b}}: nested map lookup
+ * Missing variables render as empty strings. Rendering does no parsing, only appends.
+ */
+public final class CompiledTemplate {
+
+    private final String[] literals;
+    private final String[][] variables;
+    private final boolean[] raw;
+    private final int estimatedLength;
+
+    private CompiledTemplate(String[] literals, String[][] variables, boolean[] raw, int estimatedLength) {
+        this.literals = literals;
+        this.variables = variables;
+        this.raw = raw;
+        this.estimatedLength = estimatedLength;
+    }
+
+    public static CompiledTemplate compile(String source) {
+        List<String> literals = new ArrayList<>();
+        List<String[]> variables = new ArrayList<>();
+        List<Boolean> raw = new ArrayList<>();
+
+        int position = 0;
+        StringBuilder literal = new StringBuilder();
+        while (position < source.length()) {
+            int open = source.indexOf("{{", position);
+            if (open < 0) {
+                break;
+            }
+            boolean triple = source.startsWith("{{{", open);
+            String closeTag = triple ? "}}}" : "}}";
+            int nameStart = open + (triple ? 3 : 2);
+            int close = source.indexOf(closeTag, nameStart);
+            if (close < 0) {
+                break;
+            }
+            String name = source.substring(nameStart, close).trim();
+            literal.append(source, position, open);
+            if (name.isEmpty()) {
+                literal.append(source, open, close + closeTag.length());
+            } else {
+                literals.add(literal.toString());
+                literal.setLength(0);
+                variables.add(name.split("\\."));
+                raw.add(triple);
+            }
+            position = close + closeTag.length();
+        }
+        literal.append(source, position, source.length());
+        literals.add(literal.toString());
+
+        boolean[] rawFlags = new boolean[raw.size()];
+        for (int i = 0; i < rawFlags.length; i++) {
+            rawFlags[i] = raw.get(i);
+        }
+        return new CompiledTemplate(
+                literals.toArray(String[]::new),
+                variables.toArray(String[][]::new),
+                rawFlags,
+                source.length() + 16 * variables.size());
+    }
+
+    /**
+     * Whether the template has no variables (renders to its source as-is)
+     */
+    public boolean isConstant() {
+        return variables.length == 0;
+    }
+
+    public String render(Map<String, ?> values, boolean escapeHtml) {
+        if (isConstant()) {
+            return literals[0];
+        }
+        StringBuilder out = new StringBuilder(estimatedLength);
+        for (int i = 0; i < variables.length; i++) {
+            out.append(literals[i]);
+            Object value = lookup(values, variables[i]);
+            if (value != null) {
+                if (escapeHtml && !raw[i]) {
+                    appendEscaped(out, value.toString());
+                } else {
+                    out.append(value);
+                }
+            }
+        }
+        out.append(literals[variables.length]);
+        return out.toString();
+    }
+
+    private static Object lookup(Map<String, ?> values, String[] path) {
+        Object current = values;
+        for (String key : path) {
+            if (!(current instanceof Map<?, ?> map)) {
+                return null;
+            }
+            current = map.get(key);
+        }
+        return current;
+    }
+
+    private static void appendEscaped(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&' -> out.append("&amp;");
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.tsu.notification.infrastructure.template;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Renders subject/body templates with per-recipient variables
+ * <p>
+ * Templates are compiled once and kept in a size-bounded cache keyed by their source,
+ * so bulk sends of the same content only pay for variable substitution.
+ * Sources without "{{" are returned as-is without touching the cache.
+ */
+@Component
+public class TemplateEngine {
+
+    private final Cache<String, CompiledTemplate> compiled;
+
+    public TemplateEngine(MeterRegistry meterRegistry,
+                          @Value("${notification.templates.cache.maximum-size:1000}") long maximumSize) {
+        this.compiled = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, compiled, "notification.templates");
+    }
+
+    public CompiledTemplate compile(String source) {
+        return compiled.get(source, CompiledTemplate::compile);
+    }
+
+    /**
+     * Render plain text (subjects, push titles and bodies)
+     */
+    public String renderText(String source, Map<String, ?> variables) {
+        return render(source, variables, false);
+    }
+
+    /**
+     * Render HTML, escaping {{name}} values ({{{name}}} stays raw)
+     */
+    public String renderHtml(String source, Map<String, ?> variables) {
+        return render(source, variables, true);
+    }
+
+    private String render(String source, Map<String, ?> variables, boolean escapeHtml) {
+        if (source == null || !source.contains("{{")) {
+            return source;
+        }
+        return compile(source).render(variables, escapeHtml);
+    }
+}
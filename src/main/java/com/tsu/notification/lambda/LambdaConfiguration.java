@@ -1,6 +1,8 @@
 package com.tsu.notification.lambda;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
@@ -26,6 +28,14 @@ public class LambdaConfiguration {
         return new ObjectMapper();
     }
 
+    /**
+     * Actuator is not bootstrapped in Lambda; pipeline metrics are kept in-process
+     */
+    @Bean
+    public MeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+
     // Note: Database, AWS clients, and other beans are automatically
     // configured through component scanning and Spring Boot auto-configuration
 }
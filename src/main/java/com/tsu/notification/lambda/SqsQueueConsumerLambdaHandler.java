@@ -5,6 +5,7 @@ import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.SQSEvent;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tsu.notification.infrastructure.dispatcher.OutboxEventMessageHandler;
+import com.tsu.notification.infrastructure.metrics.DeliveryLatencyTracker;
 import com.tsu.notification.infrastructure.queue.OutboxEventMessage;
 import com.tsu.notification.infrastructure.queue.QueueMessage;
 import lombok.extern.slf4j.Slf4j;
@@ -29,6 +30,7 @@ public class SqsQueueConsumerLambdaHandler implements RequestHandler<SQSEvent, V
     private static ApplicationContext applicationContext;
     private static OutboxEventMessageHandler eventHandler;
     private static ObjectMapper objectMapper;
+    private static DeliveryLatencyTracker latencyTracker;
 
     static {
         // Initialize Spring context once (Lambda container reuse)
@@ -39,6 +41,7 @@ public class SqsQueueConsumerLambdaHandler implements RequestHandler<SQSEvent, V
             );
             eventHandler = applicationContext.getBean(OutboxEventMessageHandler.class);
             objectMapper = applicationContext.getBean(ObjectMapper.class);
+            latencyTracker = applicationContext.getBean(DeliveryLatencyTracker.class);
             log.info("Spring Application Context initialized successfully");
         } catch (Exception e) {
             log.error("Failed to initialize Spring Application Context", e);
@@ -63,7 +66,7 @@ public class SqsQueueConsumerLambdaHandler implements RequestHandler<SQSEvent, V
      */
     private void processMessage(SQSEvent.SQSMessage message, Context context) {
         try {
-            log.info("Processing SQS message: messageId={}", message.getMessageId());
+            log.debug("Processing SQS message: messageId={}", message.getMessageId());
 
             // Parse queue message
             QueueMessage<OutboxEventMessage> queueMessage = objectMapper.readValue(
@@ -75,11 +78,12 @@ public class SqsQueueConsumerLambdaHandler implements RequestHandler<SQSEvent, V
             );
 
             OutboxEventMessage eventMessage = queueMessage.getPayload();
+            latencyTracker.recordQueueArrival(eventMessage, queueMessage.getTimestamp(), message.getAttributes());
 
             // Process event
             eventHandler.handle(eventMessage);
 
-            log.info("SQS message processed successfully: messageId={}, eventType={}",
+            log.debug("SQS message processed successfully: messageId={}, eventType={}",
                     message.getMessageId(), eventMessage.getEventType());
 
         } catch (Exception e) {
@@ -0,0 +1,5 @@
+-- Supports EmailBulkStore.claimSiblings: pending rows sharing a subject/body template
+-- Keep the WHERE clause in sync with notification.email.bulk.claim-statuses
+CREATE INDEX IF NOT EXISTS idx_email_message_bulk_content
+    ON email_message (md5(subject || body), created_date)
+    WHERE status = 'pending';
@@ -0,0 +1,11 @@
+-- In-app deliveries per notification and recipient (InAppDeliveryStore), so retries and
+-- redeliveries of the outbox event do not send the same notification in-app twice
+-- Rows are purged after notification.channels.in-app.delivery-retention
+CREATE TABLE IF NOT EXISTS in_app_delivery (
+    notification_id UUID        NOT NULL,
+    user_id         UUID        NOT NULL,
+    delivered_date  TIMESTAMPTZ NOT NULL DEFAULT now(),
+    PRIMARY KEY (notification_id, user_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_in_app_delivery_delivered_date ON in_app_delivery (delivered_date);
@@ -0,0 +1,12 @@
+-- Node routes of in-app sessions for notification.channels.in-app.bus=postgres
+-- One row per user and node holding at least one of the user's sessions
+CREATE TABLE IF NOT EXISTS in_app_session_route (
+    user_id      UUID        NOT NULL,
+    node_id      VARCHAR(64) NOT NULL,
+    updated_date TIMESTAMPTZ NOT NULL DEFAULT now(),
+    PRIMARY KEY (user_id, node_id)
+);
+
+-- Shutdown cleanup by node, and expiry of routes of nodes that died
+CREATE INDEX IF NOT EXISTS idx_in_app_session_route_node ON in_app_session_route (node_id);
+CREATE INDEX IF NOT EXISTS idx_in_app_session_route_updated ON in_app_session_route (updated_date);
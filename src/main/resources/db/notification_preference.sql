@@ -0,0 +1,9 @@
+-- Recipient channel opt-outs checked during dispatch fan-out
+-- Only explicit preferences are stored; no row means the channel is enabled
+CREATE TABLE IF NOT EXISTS notification_preference (
+    user_id      UUID        NOT NULL,
+    channel      VARCHAR(32) NOT NULL,
+    enabled      BOOLEAN     NOT NULL,
+    updated_date TIMESTAMPTZ NOT NULL DEFAULT now(),
+    PRIMARY KEY (user_id, channel)
+);
@@ -0,0 +1,16 @@
+-- Recommended partial indexes for the outbox hot paths
+-- Use CREATE INDEX CONCURRENTLY on a live table.
+-- QueryPlanRegressionTest (src/test) checks that the store queries keep using them.
+
+-- Claim (OutboxMessageRepository.findOutboxMessageForUpdate): only claimable rows are indexed,
+-- so the SKIP LOCKED scan never walks the processed history
+CREATE INDEX IF NOT EXISTS idx_outbox_message_claimable
+    ON outbox_message (next_attempt_date, created_date)
+    WHERE status IN ('PENDING', 'FAILED');
+
+-- Retention (OutboxRetentionStore.deleteProcessedBefore)
+CREATE INDEX IF NOT EXISTS idx_outbox_message_processed_date
+    ON outbox_message (processed_date)
+    WHERE status = 'PROCESSED';
+
+-- Lease sweep (OutboxLeaseStore.reclaimExpired): see db/outbox_message_lease.sql
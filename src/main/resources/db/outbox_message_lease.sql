@@ -0,0 +1,9 @@
+-- Claim lease for OutboxLeaseStore / OutboxLeaseSweeper
+-- Set when OutboxDispatcher claims a row; expired leases on unfinished rows are reclaimed
+ALTER TABLE outbox_message ADD COLUMN IF NOT EXISTS lease_expires_date TIMESTAMPTZ;
+
+-- Only leased rows that have not reached a terminal state are indexed, so the sweep
+-- query stays an index range scan however large the table grows
+CREATE INDEX IF NOT EXISTS idx_outbox_message_lease_expires
+    ON outbox_message (lease_expires_date)
+    WHERE lease_expires_date IS NOT NULL AND status NOT IN ('PROCESSED', 'INVALID');
@@ -0,0 +1,17 @@
+-- Optional partition mode for outbox retention (notification.outbox.retention.mode=partition)
+-- Daily range partitions on created_date; OutboxRetention creates upcoming partitions and
+-- detaches/drops partitions past retention instead of deleting rows.
+-- Postgres requires the partition key in the primary key, hence (id, created_date).
+-- Migrate by creating the partitioned table, copying open rows, and swapping names.
+CREATE TABLE IF NOT EXISTS outbox_message_partitioned (
+    LIKE outbox_message INCLUDING DEFAULTS,
+    PRIMARY KEY (id, created_date)
+) PARTITION BY RANGE (created_date);
+
+-- Catch-all for rows outside the daily partitions (never dropped by retention)
+CREATE TABLE IF NOT EXISTS outbox_message_default
+    PARTITION OF outbox_message_partitioned DEFAULT;
+
+-- After the swap:
+-- ALTER TABLE outbox_message RENAME TO outbox_message_legacy;
+-- ALTER TABLE outbox_message_partitioned RENAME TO outbox_message;
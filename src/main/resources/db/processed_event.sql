@@ -0,0 +1,8 @@
+-- Dedupe table for EventIdempotency: outbox events that reached a terminal state
+-- Rows are purged after notification.idempotency.retention
+CREATE TABLE IF NOT EXISTS processed_event (
+    event_id       UUID        PRIMARY KEY,
+    processed_date TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS idx_processed_event_processed_date ON processed_event (processed_date);
@@ -0,0 +1,9 @@
+-- Shared token buckets for notification.rate-limit.mode=distributed
+-- Rows are upserted by the service on first use of a provider
+CREATE TABLE IF NOT EXISTS provider_rate_limit (
+    provider     VARCHAR(64)      PRIMARY KEY,
+    tokens       DOUBLE PRECISION NOT NULL,
+    capacity     DOUBLE PRECISION NOT NULL,
+    refill_rate  DOUBLE PRECISION NOT NULL,
+    updated_date TIMESTAMPTZ      NOT NULL DEFAULT now()
+);
@@ -0,0 +1,136 @@
+package com.tsu.notification.infrastructure.dispatcher;
+
+import com.tsu.common.enums.MessageChannel;
+import com.tsu.notification.infrastructure.idempotency.EventIdempotency;
+import com.tsu.notification.infrastructure.metrics.NotificationMetrics;
+import com.tsu.notification.infrastructure.queue.OutboxEventMessage;
+import com.tsu.notification.infrastructure.queue.QueuePublisher;
+import com.tsu.notification.repo.OutboxMessageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class OutboxEventMessageHandlerTest {
+
+    private ChannelDispatcher dispatcher;
+    private EventIdempotency idempotency;
+    private QueuePublisher queuePublisher;
+    private DelayedRetryScheduler retryScheduler;
+    private OutboxLeaseStore leaseStore;
+    private OutboxEventMessageHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = mock(ChannelDispatcher.class);
+        ChannelDispatcherFactory factory = mock(ChannelDispatcherFactory.class);
+        when(factory.getDispatcher(any())).thenReturn(dispatcher);
+        NotificationMetrics metrics = mock(NotificationMetrics.class);
+        when(metrics.inFlight(any(), any())).thenReturn(new AtomicInteger());
+        idempotency = mock(EventIdempotency.class);
+        queuePublisher = mock(QueuePublisher.class);
+        retryScheduler = new DelayedRetryScheduler(queuePublisher);
+        ReflectionTestUtils.setField(retryScheduler, "mode", "queue");
+        ReflectionTestUtils.setField(retryScheduler, "maxQueueDelaySeconds", 900L);
+        ReflectionTestUtils.setField(retryScheduler, "outboxFallbackGraceSeconds", 900L);
+        leaseStore = mock(OutboxLeaseStore.class);
+        handler = new OutboxEventMessageHandler(factory, mock(OutboxMessageRepository.class), metrics,
+                idempotency, retryScheduler, leaseStore);
+        ReflectionTestUtils.setField(handler, "leaseDuration", Duration.ofMinutes(2));
+    }
+
+    @Test
+    void successfulDispatchIsSettled() {
+        DispatchOutcome outcome = handler.handleOrdered(event());
+
+        assertThat(outcome.settled()).isTrue();
+    }
+
+    @Test
+    void completedEventIsSettledWithoutDispatch() {
+        OutboxEventMessage event = event();
+        when(idempotency.isCompleted(event.getEventId())).thenReturn(true);
+
+        assertThat(handler.handleOrdered(event).settled()).isTrue();
+        verifyNoInteractions(dispatcher);
+    }
+
+    @Test
+    void failedDispatchIsNotSettled() {
+        doThrow(new IllegalStateException("boom")).when(dispatcher).dispatch(any());
+
+        DispatchOutcome outcome = handler.handleOrdered(event());
+
+        assertThat(outcome.settled()).isFalse();
+        assertThat(outcome.retryAt()).isNull();
+    }
+
+    @Test
+    void scheduledRetryIsHeldInTheQueue() {
+        Instant retryAt = Instant.now().plusSeconds(30);
+        Instant[] outboxNextAttempt = new Instant[1];
+        doAnswer(invocation -> {
+            outboxNextAttempt[0] = retryScheduler.schedule(invocation.getArgument(0), retryAt);
+            return null;
+        }).when(dispatcher).dispatch(any());
+
+        DispatchOutcome outcome = handler.handleOrdered(event());
+
+        assertThat(outcome.settled()).isFalse();
+        assertThat(outcome.retryAt()).isEqualTo(retryAt);
+        // The outbox row only serves as a fallback, and nothing is re-published
+        assertThat(outboxNextAttempt[0]).isEqualTo(retryAt.plusSeconds(900));
+        verifyNoInteractions(queuePublisher);
+    }
+
+    @Test
+    void leaseIsRenewedForTheDispatchAndReleasedAfterwards() {
+        OutboxEventMessage event = event();
+
+        handler.handle(event);
+
+        var inOrder = inOrder(leaseStore, dispatcher);
+        inOrder.verify(leaseStore).renew(event.getEventId(), Duration.ofMinutes(2));
+        inOrder.verify(dispatcher).dispatch(event);
+        inOrder.verify(leaseStore).release(event.getEventId());
+    }
+
+    @Test
+    void failedDispatchKeepsItsLease() {
+        OutboxEventMessage event = event();
+        doThrow(new IllegalStateException("boom")).when(dispatcher).dispatch(any());
+
+        handler.handle(event);
+
+        verify(leaseStore).renew(event.getEventId(), Duration.ofMinutes(2));
+        verify(leaseStore, never()).release(any());
+    }
+
+    @Test
+    void holdEndsWithTheDispatch() {
+        OutboxEventMessage event = event();
+        handler.handleOrdered(event);
+
+        // Outside handleOrdered retries go through the normal path again
+        retryScheduler.schedule(event, Instant.now().plusSeconds(30));
+
+        verify(queuePublisher).supportsDelayedRetry(event);
+    }
+
+    private static OutboxEventMessage event() {
+        return OutboxEventMessage.builder()
+                .eventId(UUID.randomUUID())
+                .messageId(UUID.randomUUID())
+                .messageType(MessageChannel.email)
+                .eventType("EMAIL")
+                .build();
+    }
+}
@@ -0,0 +1,73 @@
+package com.tsu.notification.infrastructure.dispatcher;
+
+import com.tsu.common.enums.MessageChannel;
+import com.tsu.notification.infrastructure.adapter.SendResult;
+import com.tsu.notification.infrastructure.metrics.NotificationMetrics;
+import com.tsu.notification.infrastructure.ratelimit.ProviderRateLimiters;
+import com.tsu.notification.infrastructure.resilience.Bulkhead;
+import com.tsu.notification.infrastructure.resilience.CircuitBreaker;
+import com.tsu.notification.infrastructure.resilience.ProviderResilience;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProviderCallExecutorTest {
+
+    private static final String PROVIDER = "AWS_SES";
+
+    private CircuitBreaker circuitBreaker;
+    private Bulkhead bulkhead;
+    private ProviderCallExecutor executor;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        circuitBreaker = new CircuitBreaker(1, Duration.ZERO, 1);
+        bulkhead = new Bulkhead(1);
+        ProviderResilience resilience = mock(ProviderResilience.class);
+        when(resilience.isEnabled()).thenReturn(true);
+        when(resilience.circuitBreaker(PROVIDER)).thenReturn(circuitBreaker);
+        when(resilience.bulkhead(PROVIDER)).thenReturn(bulkhead);
+        when(resilience.bulkheadMaxWait()).thenReturn(Duration.ZERO);
+        when(resilience.isProviderFailure(any(), anyBoolean())).thenReturn(true);
+        ProviderRateLimiters rateLimiters = mock(ProviderRateLimiters.class);
+        when(rateLimiters.tryAcquire(eq(PROVIDER), anyInt())).thenReturn(true);
+        NotificationMetrics metrics = mock(NotificationMetrics.class);
+        when(metrics.recordProviderSend(any(), any(), any())).thenAnswer(invocation ->
+                ((Supplier<SendResult>) invocation.getArgument(2)).get());
+        executor = new ProviderCallExecutor(rateLimiters, resilience, metrics);
+    }
+
+    @Test
+    void fullBulkheadReleasesHalfOpenTrial() {
+        circuitBreaker.onFailure();
+        assertThat(bulkhead.tryAcquire(Duration.ZERO)).isTrue();
+
+        SendResult rejected = executor.execute(MessageChannel.email, PROVIDER, () -> SendResult.success("id", PROVIDER));
+
+        assertThat(rejected.getErrorCode()).isEqualTo(ProviderCallExecutor.BULKHEAD_FULL);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+
+        bulkhead.release();
+        SendResult trial = executor.execute(MessageChannel.email, PROVIDER, () -> SendResult.success("id", PROVIDER));
+
+        assertThat(trial.isSuccess()).isTrue();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void failedCallOpensCircuit() {
+        SendResult result = executor.execute(MessageChannel.email, PROVIDER,
+                () -> SendResult.failure("down", "SES_ERROR"));
+
+        assertThat(result.isSuccess()).isFalse();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+}
@@ -0,0 +1,168 @@
+package com.tsu.notification.infrastructure.dispatcher;
+
+import com.tsu.common.enums.MessageChannel;
+import com.tsu.notification.entities.DevicePushTokenTb;
+import com.tsu.notification.entities.NotificationRecipientTb;
+import com.tsu.notification.entities.NotificationTb;
+import com.tsu.notification.entities.OutboxMessageTb;
+import com.tsu.notification.enums.DeliveryStatus;
+import com.tsu.notification.enums.OutboxStatus;
+import com.tsu.notification.infrastructure.adapter.PushSenderAdapter;
+import com.tsu.notification.infrastructure.adapter.SendResult;
+import com.tsu.notification.infrastructure.idempotency.EventIdempotency;
+import com.tsu.notification.infrastructure.logging.HotPathLog;
+import com.tsu.notification.infrastructure.metrics.DeliveryLatencyTracker;
+import com.tsu.notification.infrastructure.preference.RecipientPreferenceService;
+import com.tsu.notification.infrastructure.queue.OutboxEventMessage;
+import com.tsu.notification.infrastructure.retry.RetryDecision;
+import com.tsu.notification.infrastructure.retry.RetryPolicyEngine;
+import com.tsu.notification.infrastructure.template.TemplateEngine;
+import com.tsu.notification.repo.DevicePushTokenRepository;
+import com.tsu.notification.repo.NotificationRecipientRepository;
+import com.tsu.notification.repo.NotificationRepository;
+import com.tsu.notification.repo.OutboxMessageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.util.Streamable;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Outbox status of a push fan-out whose recipients end differently in one pass
+ */
+class PushChannelDispatcherTest {
+
+    private final UUID eventId = UUID.randomUUID();
+    private final UUID notificationId = UUID.randomUUID();
+    private final AtomicReference<OutboxStatus> outboxStatus = new AtomicReference<>();
+
+    private NotificationRecipientRepository recipientRepository;
+    private DevicePushTokenRepository deviceRepository;
+    private ProviderCallExecutor providerCalls;
+    private RetryPolicyEngine retryPolicies;
+    private EventIdempotency idempotency;
+    private OutboxMessageTb outbox;
+    private PushChannelDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        NotificationRepository notificationRepository = mock(NotificationRepository.class);
+        OutboxMessageRepository outboxRepository = mock(OutboxMessageRepository.class);
+        recipientRepository = mock(NotificationRecipientRepository.class);
+        deviceRepository = mock(DevicePushTokenRepository.class);
+        providerCalls = mock(ProviderCallExecutor.class);
+        retryPolicies = mock(RetryPolicyEngine.class);
+        idempotency = mock(EventIdempotency.class);
+        RecipientPreferenceService preferences = mock(RecipientPreferenceService.class);
+        when(preferences.isEnabled(any(), any())).thenReturn(true);
+
+        outbox = mock(OutboxMessageTb.class);
+        when(outbox.getId()).thenReturn(eventId);
+        doAnswer(invocation -> {
+            outboxStatus.set(invocation.getArgument(0));
+            return null;
+        }).when(outbox).setStatus(any());
+        when(outbox.getStatus()).thenAnswer(invocation -> outboxStatus.get());
+        NotificationTb notification = mock(NotificationTb.class);
+        when(notification.getId()).thenReturn(notificationId);
+        when(outboxRepository.findById(eventId)).thenAnswer(invocation -> Optional.of(outbox));
+        when(notificationRepository.findById(notificationId)).thenAnswer(invocation -> Optional.of(notification));
+
+        dispatcher = new PushChannelDispatcher(mock(PushSenderAdapter.class), notificationRepository, recipientRepository,
+                deviceRepository, outboxRepository, providerCalls, retryPolicies, mock(TemplateEngine.class),
+                mock(DelayedRetryScheduler.class), preferences, mock(DeliveryLatencyTracker.class), mock(HotPathLog.class),
+                idempotency);
+    }
+
+    @Test
+    void laterSuccessDoesNotCompleteEventWithPendingRetry() {
+        NotificationRecipientTb failing = recipient();
+        NotificationRecipientTb delivered = recipient();
+        givenRecipients(failing, delivered);
+        givenTokens(Map.of(failing.getUserId(), List.of(), delivered.getUserId(), List.of(token())));
+        when(providerCalls.execute(any(), any(), any())).thenReturn(SendResult.success("push-1", "FCM"));
+        when(retryPolicies.decide(any(), any(), anyBoolean(), anyInt(), any()))
+                .thenReturn(RetryDecision.retryAt(Instant.now().plusSeconds(60)));
+
+        dispatcher.dispatch(message());
+
+        verify(failing).setStatus(DeliveryStatus.failed);
+        verify(delivered).setStatus(DeliveryStatus.delivered);
+        verify(outbox, never()).setStatus(OutboxStatus.PROCESSED);
+        assertThat(outboxStatus.get()).isEqualTo(OutboxStatus.FAILED);
+        verify(idempotency).markCompletedIfTerminal(outbox);
+    }
+
+    @Test
+    void allDeliveredCompletesEvent() {
+        NotificationRecipientTb first = recipient();
+        NotificationRecipientTb second = recipient();
+        givenRecipients(first, second);
+        givenTokens(Map.of(first.getUserId(), List.of(token()), second.getUserId(), List.of(token())));
+        when(providerCalls.execute(any(), any(), any())).thenReturn(SendResult.success("push-1", "FCM"));
+
+        dispatcher.dispatch(message());
+
+        assertThat(outboxStatus.get()).isEqualTo(OutboxStatus.PROCESSED);
+        verifyNoInteractions(retryPolicies);
+    }
+
+    private void givenRecipients(NotificationRecipientTb... recipients) {
+        when(recipientRepository.findByNotificationIdAndStatusList(eq(notificationId), any()))
+                .thenAnswer(invocation -> results(invocation.getMethod().getReturnType(), List.of(recipients)));
+    }
+
+    private void givenTokens(Map<UUID, List<DevicePushTokenTb>> tokens) {
+        when(deviceRepository.findByUserIdAndActiveAndRevokedDateIsNull(any(), anyBoolean()))
+                .thenAnswer(invocation -> results(invocation.getMethod().getReturnType(),
+                        tokens.getOrDefault(invocation.<UUID>getArgument(0), List.of())));
+    }
+
+    /**
+     * Repository results in whichever container type the repository method declares
+     */
+    private static Object results(Class<?> type, List<?> items) {
+        if (type.isAssignableFrom(ArrayList.class)) {
+            return new ArrayList<>(items);
+        }
+        if (Stream.class.isAssignableFrom(type)) {
+            return items.stream();
+        }
+        return Streamable.of(items);
+    }
+
+    private static NotificationRecipientTb recipient() {
+        NotificationRecipientTb recipient = mock(NotificationRecipientTb.class);
+        UUID userId = UUID.randomUUID();
+        when(recipient.getId()).thenReturn(UUID.randomUUID());
+        when(recipient.getUserId()).thenReturn(userId);
+        when(recipient.getStatus()).thenReturn(DeliveryStatus.queued);
+        return recipient;
+    }
+
+    private static DevicePushTokenTb token() {
+        DevicePushTokenTb token = mock(DevicePushTokenTb.class);
+        when(token.getPlatform()).thenAnswer(invocation -> invocation.getMethod().getReturnType().getEnumConstants()[0]);
+        return token;
+    }
+
+    private OutboxEventMessage message() {
+        return OutboxEventMessage.builder()
+                .eventId(eventId)
+                .messageId(notificationId)
+                .messageType(MessageChannel.notification)
+                .eventType("PUSH")
+                .build();
+    }
+}
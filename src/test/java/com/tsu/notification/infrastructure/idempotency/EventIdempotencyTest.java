@@ -0,0 +1,122 @@
+package com.tsu.notification.infrastructure.idempotency;
+
+import com.tsu.notification.entities.OutboxMessageTb;
+import com.tsu.notification.enums.OutboxStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class EventIdempotencyTest {
+
+    private ProcessedEventStore store;
+    private EventIdempotency idempotency;
+
+    @BeforeEach
+    void setUp() {
+        store = mock(ProcessedEventStore.class);
+        idempotency = create(true, true);
+    }
+
+    @Test
+    void unknownEventIsNotCompleted() {
+        UUID eventId = UUID.randomUUID();
+
+        assertThat(idempotency.isCompleted(eventId)).isFalse();
+        verify(store).exists(eventId);
+    }
+
+    @Test
+    void completedEventIsAnsweredFromCache() {
+        UUID eventId = UUID.randomUUID();
+
+        idempotency.markCompleted(eventId);
+
+        verify(store).insert(eventId);
+        assertThat(idempotency.isCompleted(eventId)).isTrue();
+        verify(store, never()).exists(eventId);
+    }
+
+    @Test
+    void storeHitIsCached() {
+        UUID eventId = UUID.randomUUID();
+        when(store.exists(eventId)).thenReturn(true);
+
+        assertThat(idempotency.isCompleted(eventId)).isTrue();
+        assertThat(idempotency.isCompleted(eventId)).isTrue();
+        verify(store, times(1)).exists(eventId);
+    }
+
+    @Test
+    void cacheIsOnlyFilledAfterCommit() {
+        UUID eventId = UUID.randomUUID();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            idempotency.markCompleted(eventId);
+            assertThat(idempotency.isCompleted(eventId)).isFalse();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(idempotency.isCompleted(eventId)).isTrue();
+    }
+
+    @Test
+    void onlyTerminalOutboxStatusesAreRecorded() {
+        idempotency.markCompletedIfTerminal(outbox(OutboxStatus.FAILED));
+        verify(store, never()).insert(any());
+
+        OutboxMessageTb processed = outbox(OutboxStatus.PROCESSED);
+        idempotency.markCompletedIfTerminal(processed);
+        OutboxMessageTb invalid = outbox(OutboxStatus.INVALID);
+        idempotency.markCompletedIfTerminal(invalid);
+
+        verify(store).insert(processed.getId());
+        verify(store).insert(invalid.getId());
+    }
+
+    @Test
+    void disabledNeverSkips() {
+        EventIdempotency disabled = create(false, true);
+        UUID eventId = UUID.randomUUID();
+
+        disabled.markCompleted(eventId);
+
+        assertThat(disabled.isCompleted(eventId)).isFalse();
+        verifyNoInteractions(store);
+    }
+
+    @Test
+    void cacheOnlyModeSkipsStore() {
+        EventIdempotency cacheOnly = create(true, false);
+        UUID eventId = UUID.randomUUID();
+
+        assertThat(cacheOnly.isCompleted(eventId)).isFalse();
+        cacheOnly.markCompleted(eventId);
+
+        assertThat(cacheOnly.isCompleted(eventId)).isTrue();
+        verifyNoInteractions(store);
+    }
+
+    private EventIdempotency create(boolean enabled, boolean storeEnabled) {
+        return new EventIdempotency(store, new SimpleMeterRegistry(), enabled, storeEnabled,
+                1000, Duration.ofHours(1), Duration.ofDays(7));
+    }
+
+    private static OutboxMessageTb outbox(OutboxStatus status) {
+        OutboxMessageTb outbox = mock(OutboxMessageTb.class);
+        when(outbox.getId()).thenReturn(UUID.randomUUID());
+        when(outbox.getStatus()).thenReturn(status);
+        return outbox;
+    }
+}
@@ -0,0 +1,76 @@
+package com.tsu.notification.infrastructure.inapp;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class InAppRouterTest {
+
+    private InAppSessionRegistry registry;
+    private InAppRouteStore routeStore;
+    private InAppRouter router;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        registry = mock(InAppSessionRegistry.class);
+        routeStore = mock(InAppRouteStore.class);
+        ObjectProvider<InAppRouteStore> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(routeStore);
+        router = new InAppRouter(registry, provider, "node-1");
+    }
+
+    @Test
+    void presenceChangesAreWrittenInOneBatch() {
+        UUID connected = UUID.randomUUID();
+        UUID disconnected = UUID.randomUUID();
+        UUID flapping = UUID.randomUUID();
+
+        router.onPresenceChanged(new InAppPresenceChangedEvent(connected, true));
+        router.onPresenceChanged(new InAppPresenceChangedEvent(disconnected, false));
+        router.onPresenceChanged(new InAppPresenceChangedEvent(flapping, true));
+        router.onPresenceChanged(new InAppPresenceChangedEvent(flapping, false));
+        verifyNoInteractions(routeStore);
+
+        router.flushRoutes();
+
+        verify(routeStore).refresh("node_1", List.of(connected));
+        verify(routeStore).removeAll(eq("node_1"), argThat(users -> Set.copyOf(users).equals(Set.of(disconnected, flapping))));
+
+        router.flushRoutes();
+        verifyNoMoreInteractions(routeStore);
+    }
+
+    @Test
+    void deliversOnlyToClaimedUsersAcrossNodes() {
+        UUID local = UUID.randomUUID();
+        UUID remote = UUID.randomUUID();
+        UUID alreadyDelivered = UUID.randomUUID();
+        when(routeStore.findRoutes(anyCollection())).thenReturn(new HashMap<>(Map.of(
+                remote, new ArrayList<>(List.of("node_2")),
+                alreadyDelivered, new ArrayList<>(List.of("node_2")))));
+        // Connected here, but its route is not flushed yet
+        when(registry.isConnected(local)).thenReturn(true);
+        when(registry.sendToUser(any(), any())).thenReturn(1);
+
+        int routed = router.deliver(List.of(local, remote, alreadyDelivered),
+                users -> Set.of(local, remote),
+                userId -> "payload");
+
+        assertThat(routed).isEqualTo(2);
+        verify(registry).sendToUser(local, "payload");
+        verify(routeStore).notify(List.of("in_app_node_2"), List.of(remote + ":payload"));
+    }
+}
@@ -0,0 +1,105 @@
+package com.tsu.notification.infrastructure.inapp;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class InAppSessionRegistryTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ApplicationEventPublisher eventPublisher;
+    private InAppSessionRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        registry = new InAppSessionRegistry(meterRegistry, eventPublisher);
+        ReflectionTestUtils.setField(registry, "maxSessionsPerUser", 2);
+    }
+
+    @Test
+    void sendsToEverySessionOfTheUser() {
+        UUID userId = UUID.randomUUID();
+        InAppSession first = session(userId, true);
+        InAppSession second = session(userId, true);
+        registry.register(first);
+        registry.register(second);
+
+        assertThat(registry.sendToUser(userId, "hello")).isEqualTo(2);
+        assertThat(registry.sendToUser(UUID.randomUUID(), "hello")).isZero();
+        verify(first).send("hello");
+        verify(second).send("hello");
+    }
+
+    @Test
+    void limitsSessionsPerUser() {
+        UUID userId = UUID.randomUUID();
+
+        assertThat(registry.register(session(userId, true))).isTrue();
+        assertThat(registry.register(session(userId, true))).isTrue();
+        assertThat(registry.register(session(userId, true))).isFalse();
+        assertThat(registry.getSessionCount()).isEqualTo(2);
+    }
+
+    @Test
+    void publishesPresenceOnFirstAndLastSession() {
+        UUID userId = UUID.randomUUID();
+        InAppSession first = session(userId, true);
+        InAppSession second = session(userId, true);
+
+        registry.register(first);
+        registry.register(second);
+        registry.unregister(first);
+        verify(eventPublisher, times(1)).publishEvent(new InAppPresenceChangedEvent(userId, true));
+        verify(eventPublisher, never()).publishEvent(new InAppPresenceChangedEvent(userId, false));
+        assertThat(registry.isConnected(userId)).isTrue();
+
+        registry.unregister(second);
+        verify(eventPublisher).publishEvent(new InAppPresenceChangedEvent(userId, false));
+        assertThat(registry.isConnected(userId)).isFalse();
+        assertThat(registry.connectedUsers()).isEmpty();
+    }
+
+    @Test
+    void unregisterOfUnknownSessionIsIgnored() {
+        UUID userId = UUID.randomUUID();
+        registry.register(session(userId, true));
+
+        registry.unregister(session(userId, true));
+
+        assertThat(registry.getSessionCount()).isEqualTo(1);
+        verify(eventPublisher, never()).publishEvent(new InAppPresenceChangedEvent(userId, false));
+    }
+
+    @Test
+    void evictsSessionsThatFailASend() {
+        UUID userId = UUID.randomUUID();
+        InAppSession healthy = session(userId, true);
+        InAppSession slow = session(userId, false);
+        registry.register(healthy);
+        registry.register(slow);
+
+        assertThat(registry.sendToUser(userId, "hello")).isEqualTo(1);
+
+        verify(slow).close();
+        assertThat(registry.getSessionCount()).isEqualTo(1);
+        assertThat(meterRegistry.get("notification.inapp.evicted").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("notification.inapp.sessions").gauge().value()).isEqualTo(1);
+    }
+
+    private static InAppSession session(UUID userId, boolean accepts) {
+        InAppSession session = mock(InAppSession.class);
+        when(session.getId()).thenReturn(UUID.randomUUID().toString());
+        when(session.getUserId()).thenReturn(userId);
+        when(session.send(anyString())).thenReturn(accepts);
+        return session;
+    }
+}
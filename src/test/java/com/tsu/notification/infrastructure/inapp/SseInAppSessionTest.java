@@ -0,0 +1,78 @@
+package com.tsu.notification.infrastructure.inapp;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SseInAppSessionTest {
+
+    private SseEmitter emitter;
+    private Queue<Runnable> tasks;
+
+    @BeforeEach
+    void setUp() {
+        emitter = mock(SseEmitter.class);
+        tasks = new ArrayDeque<>();
+    }
+
+    @Test
+    void sendOnlyBuffersAndOneDrainWritesEverything() throws Exception {
+        SseInAppSession session = new SseInAppSession(UUID.randomUUID(), emitter, 1024, tasks::add);
+
+        assertThat(session.send("first")).isTrue();
+        assertThat(session.send("second")).isTrue();
+
+        // Nothing is written on the caller thread, and the second send reuses the pending drain
+        verify(emitter, never()).send(any(SseEmitter.SseEventBuilder.class));
+        assertThat(tasks).hasSize(1);
+
+        tasks.poll().run();
+
+        verify(emitter, times(2)).send(any(SseEmitter.SseEventBuilder.class));
+        assertThat(session.send("third")).isTrue();
+        assertThat(tasks).hasSize(1);
+    }
+
+    @Test
+    void bufferOverflowEvictsTheSession() {
+        SseInAppSession session = new SseInAppSession(UUID.randomUUID(), emitter, 8, tasks::add);
+
+        assertThat(session.send("12345")).isTrue();
+        assertThat(session.send("67890")).isFalse();
+
+        verify(emitter).complete();
+        assertThat(session.send("again")).isFalse();
+    }
+
+    @Test
+    void rejectedDrainEvictsTheSession() {
+        SseInAppSession session = new SseInAppSession(UUID.randomUUID(), emitter, 1024, task -> {
+            throw new RejectedExecutionException("full");
+        });
+
+        assertThat(session.send("hello")).isFalse();
+
+        verify(emitter).complete();
+    }
+
+    @Test
+    void failedWriteClosesTheSession() throws Exception {
+        doThrow(new IllegalStateException("completed")).when(emitter).send(any(SseEmitter.SseEventBuilder.class));
+        SseInAppSession session = new SseInAppSession(UUID.randomUUID(), emitter, 1024, tasks::add);
+
+        session.send("hello");
+        tasks.poll().run();
+
+        verify(emitter).complete();
+        assertThat(session.send("again")).isFalse();
+    }
+}
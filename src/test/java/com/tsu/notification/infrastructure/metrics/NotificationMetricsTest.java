@@ -0,0 +1,59 @@
+package com.tsu.notification.infrastructure.metrics;
+
+import com.tsu.common.enums.MessageChannel;
+import com.tsu.notification.infrastructure.adapter.SendResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NotificationMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private NotificationMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        metrics = new NotificationMetrics(meterRegistry, new DeliveryLatencyTracker(meterRegistry));
+    }
+
+    @Test
+    void providerSendsShareOneTimerPerTagCombination() {
+        SendResult failure = SendResult.failure("throttled", "SES_THROTTLED");
+
+        metrics.recordProviderSend(MessageChannel.email, "AWS_SES", () -> failure);
+        metrics.recordProviderSend(MessageChannel.email, "AWS_SES", () -> failure);
+        metrics.recordProviderSend(MessageChannel.sms, "AWS_SNS", () -> failure);
+
+        assertThat(meterRegistry.find("notification.provider.send")
+                .tag("channel", "email")
+                .tag("result", NotificationMetrics.RESULT_ERROR)
+                .tag("error_code", "SES_THROTTLED")
+                .timers()).singleElement()
+                .satisfies(timer -> assertThat(timer.count()).isEqualTo(2));
+        assertThat(meterRegistry.find("notification.provider.send").timers()).hasSize(2);
+    }
+
+    @Test
+    void countersAccumulateAcrossCalls() {
+        metrics.recordRetryDecision(MessageChannel.sms, "SNS_RATE_LIMIT", true);
+        metrics.recordRetryDecision(MessageChannel.sms, "SNS_RATE_LIMIT", true);
+        metrics.recordRetryDecision(MessageChannel.sms, null, false);
+
+        assertThat(meterRegistry.get("notification.retry.decision").tag("outcome", "retry").counter().count())
+                .isEqualTo(2);
+        assertThat(meterRegistry.get("notification.retry.decision").tag("error_code", "none").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void inFlightCounterIsReusedPerStageAndChannel() {
+        assertThat(metrics.inFlight(NotificationMetrics.STAGE_DISPATCH, MessageChannel.email))
+                .isSameAs(metrics.inFlight(NotificationMetrics.STAGE_DISPATCH, MessageChannel.email));
+        assertThat(metrics.inFlight(NotificationMetrics.STAGE_DISPATCH, null))
+                .isSameAs(metrics.inFlight(NotificationMetrics.STAGE_DISPATCH, null))
+                .isNotSameAs(metrics.inFlight(NotificationMetrics.STAGE_DISPATCH, MessageChannel.email));
+    }
+}
@@ -0,0 +1,104 @@
+package com.tsu.notification.infrastructure.plan;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DataSource that plans statements instead of running them
+ * <p>
+ * Every prepared statement is sent as EXPLAIN (FORMAT JSON) with the parameters the caller
+ * binds, so the plan is the custom plan Postgres would use for those values. Queries then
+ * return no rows and updates report 0 rows; the JSON plans are collected in order.
+ */
+class ExplainingDataSource extends DelegatingDataSource {
+
+    private final List<String> plans = new ArrayList<>();
+
+    ExplainingDataSource(DataSource target) {
+        super(target);
+    }
+
+    /**
+     * Plans collected since the last call
+     */
+    List<String> takePlans() {
+        List<String> taken = List.copyOf(plans);
+        plans.clear();
+        return taken;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Connection connection = super.getConnection();
+        return proxy(Connection.class, (target, method, args) -> {
+            if (method.getName().equals("prepareStatement") && args != null && args.length >= 1) {
+                args = args.clone();
+                args[0] = "EXPLAIN (FORMAT JSON) " + args[0];
+                return explaining((PreparedStatement) invoke(connection, method, args));
+            }
+            return invoke(connection, method, args);
+        });
+    }
+
+    private PreparedStatement explaining(PreparedStatement statement) {
+        return proxy(PreparedStatement.class, (target, method, args) -> switch (method.getName()) {
+            case "executeQuery" -> {
+                collectPlan(statement);
+                yield emptyResultSet();
+            }
+            case "executeUpdate" -> {
+                collectPlan(statement);
+                yield 0;
+            }
+            case "execute" -> {
+                collectPlan(statement);
+                yield false;
+            }
+            default -> invoke(statement, method, args);
+        });
+    }
+
+    private void collectPlan(PreparedStatement statement) throws SQLException {
+        try (ResultSet rs = statement.executeQuery()) {
+            rs.next();
+            plans.add(rs.getString(1));
+        }
+    }
+
+    private static ResultSet emptyResultSet() {
+        return proxy(ResultSet.class, (target, method, args) -> {
+            Class<?> type = method.getReturnType();
+            if (type == boolean.class) {
+                return method.getName().equals("isClosed");
+            }
+            if (type == int.class || type == long.class) {
+                return 0;
+            }
+            return null;
+        });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(ExplainingDataSource.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+}
@@ -0,0 +1,162 @@
+package com.tsu.notification.infrastructure.plan;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tsu.notification.infrastructure.dispatcher.EmailBulkStore;
+import com.tsu.notification.infrastructure.dispatcher.OutboxLeaseStore;
+import com.tsu.notification.infrastructure.dispatcher.OutboxRetentionStore;
+import com.tsu.notification.infrastructure.idempotency.ProcessedEventStore;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.ds.PGSimpleDataSource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Plan regression checks for the hand-written SQL of the JdbcTemplate stores
+ * <p>
+ * Runs the stores' own statements as EXPLAIN (see ExplainingDataSource) against Postgres
+ * with the deployed indexes (src/main/resources/db) and production-shaped data, and fails
+ * if a hot query stops using its index or falls back to a sequential scan of a large table.
+ * The outbox claim query belongs to the bx-notification repositories and is not covered here.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class QueryPlanRegressionTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static PGSimpleDataSource dataSource;
+
+    private ExplainingDataSource explaining;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void createSchema() {
+        dataSource = new PGSimpleDataSource();
+        dataSource.setUrl(POSTGRES.getJdbcUrl());
+        dataSource.setUser(POSTGRES.getUsername());
+        dataSource.setPassword(POSTGRES.getPassword());
+        new ResourceDatabasePopulator(
+                new ClassPathResource("plan/schema.sql"),
+                new ClassPathResource("db/outbox_message_indexes.sql"),
+                new ClassPathResource("db/outbox_message_lease.sql"),
+                new ClassPathResource("db/email_message_bulk_index.sql"),
+                new ClassPathResource("db/processed_event.sql"),
+                new ClassPathResource("plan/data.sql"))
+                .execute(dataSource);
+    }
+
+    @BeforeEach
+    void setUp() {
+        explaining = new ExplainingDataSource(dataSource);
+        jdbcTemplate = new JdbcTemplate(explaining);
+    }
+
+    @Test
+    void leaseUsesPrimaryKey() {
+        new OutboxLeaseStore(jdbcTemplate, "outbox_message")
+                .lease(List.of(UUID.randomUUID(), UUID.randomUUID()), Duration.ofMinutes(2));
+
+        assertIndexScan(singlePlan(), "outbox_message", "outbox_message_pkey");
+    }
+
+    @Test
+    void leaseRenewAndReleaseUsePrimaryKey() {
+        OutboxLeaseStore leaseStore = new OutboxLeaseStore(jdbcTemplate, "outbox_message");
+
+        leaseStore.renew(UUID.randomUUID(), Duration.ofMinutes(2));
+        assertIndexScan(singlePlan(), "outbox_message", "outbox_message_pkey");
+
+        leaseStore.release(UUID.randomUUID());
+        assertIndexScan(singlePlan(), "outbox_message", "outbox_message_pkey");
+    }
+
+    @Test
+    void leaseSweepUsesPartialLeaseIndex() {
+        new OutboxLeaseStore(jdbcTemplate, "outbox_message").reclaimExpired(100);
+
+        assertIndexScan(singlePlan(), "outbox_message", "idx_outbox_message_lease_expires");
+    }
+
+    @Test
+    void retentionChunkUsesProcessedDateIndex() {
+        new OutboxRetentionStore(jdbcTemplate, "outbox_message")
+                .deleteProcessedBefore(Instant.now().minus(Duration.ofDays(7)), 1000);
+
+        assertIndexScan(singlePlan(), "outbox_message", "idx_outbox_message_processed_date");
+    }
+
+    @Test
+    void bulkSiblingClaimUsesContentIndex() {
+        new EmailBulkStore(jdbcTemplate, "email_message", Set.of("pending"))
+                .claimSiblings(UUID.randomUUID(), "Weekly digest", "<p>Your weekly digest</p>", 49);
+
+        assertIndexScan(singlePlan(), "email_message", "idx_email_message_bulk_content");
+    }
+
+    @Test
+    void processedEventLookupUsesPrimaryKey() {
+        try {
+            new ProcessedEventStore(jdbcTemplate).exists(UUID.randomUUID());
+        } catch (IncorrectResultSizeDataAccessException e) {
+            // Planned, not run: no row to read back
+        }
+
+        assertIndexScan(singlePlan(), "processed_event", "processed_event_pkey");
+    }
+
+    @Test
+    void processedEventPurgeUsesProcessedDateIndex() {
+        new ProcessedEventStore(jdbcTemplate).purgeBefore(Instant.now().minus(Duration.ofDays(7)), 5000);
+
+        assertIndexScan(singlePlan(), "processed_event", "idx_processed_event_processed_date");
+    }
+
+    private JsonNode singlePlan() {
+        List<String> plans = explaining.takePlans();
+        assertThat(plans).hasSize(1);
+        try {
+            return OBJECT_MAPPER.readTree(plans.get(0)).get(0).get("Plan");
+        } catch (Exception e) {
+            throw new IllegalStateException("Unreadable plan: " + plans.get(0), e);
+        }
+    }
+
+    /**
+     * The plan reads the table through the index and never scans it sequentially
+     */
+    private static void assertIndexScan(JsonNode plan, String table, String index) {
+        List<JsonNode> nodes = new ArrayList<>();
+        collect(plan, nodes);
+        assertThat(nodes)
+                .as("plan of %s: %s", table, plan.toPrettyString())
+                .noneMatch(node -> "Seq Scan".equals(node.path("Node Type").asText())
+                        && table.equals(node.path("Relation Name").asText()))
+                .anyMatch(node -> index.equals(node.path("Index Name").asText()));
+    }
+
+    private static void collect(JsonNode node, List<JsonNode> nodes) {
+        nodes.add(node);
+        for (JsonNode child : node.path("Plans")) {
+            collect(child, nodes);
+        }
+    }
+}
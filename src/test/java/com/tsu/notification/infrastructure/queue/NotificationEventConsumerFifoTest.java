@@ -0,0 +1,148 @@
+package com.tsu.notification.infrastructure.queue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tsu.common.enums.MessageChannel;
+import com.tsu.notification.infrastructure.dispatcher.DispatchOutcome;
+import com.tsu.notification.infrastructure.dispatcher.OutboxEventMessageHandler;
+import com.tsu.notification.infrastructure.logging.HotPathLog;
+import com.tsu.notification.infrastructure.metrics.DeliveryLatencyTracker;
+import com.tsu.notification.infrastructure.metrics.NotificationMetrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Ordered consumption of SQS FIFO message groups
+ */
+class NotificationEventConsumerFifoTest {
+
+    private static final String QUEUE_URL = "https://sqs.us-east-1.amazonaws.com/123456789012/notification-events.fifo";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private SqsClient sqsClient;
+    private OutboxEventMessageHandler handler;
+    private NotificationEventConsumer consumer;
+    private final List<UUID> handled = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        sqsClient = mock(SqsClient.class);
+        handler = mock(OutboxEventMessageHandler.class);
+        NotificationMetrics metrics = mock(NotificationMetrics.class);
+        when(metrics.inFlight(any(), any())).thenReturn(new AtomicInteger());
+
+        ChannelQueueProperties.QueueSettings settings = new ChannelQueueProperties.QueueSettings();
+        settings.setQueueUrl(QUEUE_URL);
+        settings.setConcurrency(4);
+        settings.setWaitTimeSeconds(0);
+        consumer = new NotificationEventConsumer("test", settings, new ChannelQueueProperties.PrioritySettings(),
+                sqsClient, handler, objectMapper, metrics, mock(DeliveryLatencyTracker.class), mock(HotPathLog.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        consumer.stop();
+    }
+
+    @Test
+    void failedMessageStaysInFlightAndStopsItsGroup() throws Exception {
+        List<OutboxEventMessage> events = List.of(event(), event(), event());
+        Instant retryAt = Instant.now().plusSeconds(60);
+        when(handler.handleOrdered(any())).thenAnswer(invocation -> {
+            OutboxEventMessage event = invocation.getArgument(0);
+            handled.add(event.getEventId());
+            return event.getEventId().equals(events.get(1).getEventId())
+                    ? DispatchOutcome.retry(retryAt)
+                    : DispatchOutcome.done();
+        });
+        receiveOnce(List.of(
+                message("r0", "group-a", events.get(0)),
+                message("r1", "group-a", events.get(1)),
+                message("r2", "group-a", events.get(2))));
+
+        consumer.start();
+
+        ArgumentCaptor<ChangeMessageVisibilityRequest> visibility = ArgumentCaptor.forClass(ChangeMessageVisibilityRequest.class);
+        verify(sqsClient, timeout(5000)).changeMessageVisibility(visibility.capture());
+        assertThat(visibility.getValue().receiptHandle()).isEqualTo("r1");
+        assertThat(visibility.getValue().visibilityTimeout()).isBetween(55, 60);
+
+        ArgumentCaptor<DeleteMessageRequest> deleted = ArgumentCaptor.forClass(DeleteMessageRequest.class);
+        verify(sqsClient, timeout(5000)).deleteMessage(deleted.capture());
+        assertThat(deleted.getAllValues()).extracting(DeleteMessageRequest::receiptHandle).containsExactly("r0");
+        assertThat(handled).containsExactly(events.get(0).getEventId(), events.get(1).getEventId());
+    }
+
+    @Test
+    void failureDoesNotBlockOtherGroups() throws Exception {
+        OutboxEventMessage failing = event();
+        OutboxEventMessage other = event();
+        when(handler.handleOrdered(any())).thenAnswer(invocation -> {
+            OutboxEventMessage event = invocation.getArgument(0);
+            handled.add(event.getEventId());
+            return event.getEventId().equals(failing.getEventId())
+                    ? DispatchOutcome.retry(null)
+                    : DispatchOutcome.done();
+        });
+        receiveOnce(List.of(
+                message("r0", "group-a", failing),
+                message("r1", "group-b", other)));
+
+        consumer.start();
+
+        ArgumentCaptor<DeleteMessageRequest> deleted = ArgumentCaptor.forClass(DeleteMessageRequest.class);
+        verify(sqsClient, timeout(5000)).deleteMessage(deleted.capture());
+        assertThat(deleted.getValue().receiptHandle()).isEqualTo("r1");
+        verify(handler, timeout(5000).times(2)).handleOrdered(any());
+        // No retry time: the message returns after the queue's visibility timeout
+        verify(sqsClient, never()).changeMessageVisibility(any(ChangeMessageVisibilityRequest.class));
+    }
+
+    /**
+     * The first receive returns the batch, later ones are empty (with a short pause, like a poll)
+     */
+    private void receiveOnce(List<Message> batch) {
+        AtomicBoolean delivered = new AtomicBoolean();
+        when(sqsClient.receiveMessage(any(ReceiveMessageRequest.class))).thenAnswer(invocation -> {
+            if (delivered.compareAndSet(false, true)) {
+                return ReceiveMessageResponse.builder().messages(batch).build();
+            }
+            Thread.sleep(20);
+            return ReceiveMessageResponse.builder().messages(new ArrayList<>()).build();
+        });
+    }
+
+    private Message message(String receiptHandle, String groupId, OutboxEventMessage event) throws Exception {
+        return Message.builder()
+                .messageId(UUID.randomUUID().toString())
+                .receiptHandle(receiptHandle)
+                .body(objectMapper.writeValueAsString(QueueMessage.create("OUTBOX_EVENT", event)))
+                .attributes(Map.of(MessageSystemAttributeName.MESSAGE_GROUP_ID, groupId))
+                .build();
+    }
+
+    private static OutboxEventMessage event() {
+        return OutboxEventMessage.builder()
+                .eventId(UUID.randomUUID())
+                .messageId(UUID.randomUUID())
+                .messageType(MessageChannel.email)
+                .eventType("EMAIL")
+                .build();
+    }
+}
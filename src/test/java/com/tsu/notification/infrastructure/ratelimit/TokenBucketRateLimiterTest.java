@@ -0,0 +1,70 @@
+package com.tsu.notification.infrastructure.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenBucketRateLimiterTest {
+
+    @Test
+    void grantsBurstImmediatelyThenRejectsWithoutWait() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, 5);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire(Duration.ZERO)).isTrue();
+        }
+        assertThat(limiter.tryAcquire(Duration.ZERO)).isFalse();
+    }
+
+    @Test
+    void waitsForNextSlotWithinMaxWait() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(100, 1);
+        assertThat(limiter.tryAcquire(Duration.ZERO)).isTrue();
+
+        long start = System.nanoTime();
+        assertThat(limiter.tryAcquire(Duration.ofMillis(500))).isTrue();
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThan(Duration.ofMillis(1));
+    }
+
+    @Test
+    void rejectedMultiPermitCallTakesNoPermits() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, 5);
+
+        assertThat(limiter.tryAcquire(6, Duration.ZERO)).isFalse();
+        assertThat(limiter.tryAcquire(5, Duration.ZERO)).isTrue();
+        assertThat(limiter.tryAcquire(1, Duration.ZERO)).isFalse();
+    }
+
+    @Test
+    void setRateWithBurstChangesBoth() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1);
+
+        limiter.setRate(2, 3);
+
+        assertThat(limiter.getRate()).isEqualTo(2);
+        assertThat(limiter.getBurst()).isEqualTo(3);
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire(Duration.ZERO)).isTrue();
+        }
+        assertThat(limiter.tryAcquire(Duration.ZERO)).isFalse();
+    }
+
+    @Test
+    void setRateKeepsBurst() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 4);
+
+        limiter.setRate(50);
+
+        assertThat(limiter.getRate()).isEqualTo(50);
+        assertThat(limiter.getBurst()).isEqualTo(4);
+    }
+
+    @Test
+    void rejectsNonPositiveRate() {
+        assertThatThrownBy(() -> new TokenBucketRateLimiter(0, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,46 @@
+package com.tsu.notification.infrastructure.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BulkheadTest {
+
+    @Test
+    void limitsConcurrentCalls() {
+        Bulkhead bulkhead = new Bulkhead(2);
+
+        assertThat(bulkhead.tryAcquire(Duration.ZERO)).isTrue();
+        assertThat(bulkhead.tryAcquire(Duration.ZERO)).isTrue();
+        assertThat(bulkhead.tryAcquire(Duration.ofMillis(10))).isFalse();
+        assertThat(bulkhead.getAvailablePermits()).isZero();
+
+        bulkhead.release();
+
+        assertThat(bulkhead.tryAcquire(Duration.ZERO)).isTrue();
+    }
+
+    @Test
+    void allowsAtLeastOneCall() {
+        Bulkhead bulkhead = new Bulkhead(0);
+
+        assertThat(bulkhead.getMaxConcurrentCalls()).isEqualTo(1);
+        assertThat(bulkhead.tryAcquire(Duration.ZERO)).isTrue();
+    }
+
+    @Test
+    void interruptedWaitIsRejected() {
+        Bulkhead bulkhead = new Bulkhead(1);
+        bulkhead.tryAcquire(Duration.ZERO);
+
+        Thread.currentThread().interrupt();
+        try {
+            assertThat(bulkhead.tryAcquire(Duration.ofSeconds(1))).isFalse();
+            assertThat(Thread.currentThread().isInterrupted()).isTrue();
+        } finally {
+            Thread.interrupted();
+        }
+    }
+}
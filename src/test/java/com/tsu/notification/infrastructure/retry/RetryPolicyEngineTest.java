@@ -0,0 +1,107 @@
+package com.tsu.notification.infrastructure.retry;
+
+import com.tsu.common.enums.MessageChannel;
+import com.tsu.notification.infrastructure.metrics.NotificationMetrics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class RetryPolicyEngineTest {
+
+    private MockEnvironment environment;
+    private NotificationMetrics metrics;
+    private RetryPolicyEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        environment = new MockEnvironment();
+        metrics = mock(NotificationMetrics.class);
+        engine = new RetryPolicyEngine(environment, metrics);
+        ReflectionTestUtils.setField(engine, "defaultMaxAttempts", 3);
+        ReflectionTestUtils.setField(engine, "jitter", false);
+        ReflectionTestUtils.setField(engine, "permanentErrorCodes", Set.of("INVALID_ADDRESS"));
+    }
+
+    @Test
+    void retriesWithChannelBackoff() {
+        Instant before = Instant.now();
+
+        RetryDecision decision = engine.decide(MessageChannel.email, "SES_ERROR", false, 2, null);
+
+        assertThat(decision.isRetry()).isTrue();
+        assertThat(decision.getNextAttempt()).isAfterOrEqualTo(before.plusSeconds(120));
+        verify(metrics).recordRetryDecision(MessageChannel.email, "SES_ERROR", true);
+    }
+
+    @Test
+    void deadLettersPermanentFailures() {
+        assertThat(engine.decide(MessageChannel.sms, "SNS_ERROR", true, 1, null).isRetry()).isFalse();
+        assertThat(engine.decide(MessageChannel.sms, "INVALID_ADDRESS", false, 1, null).isRetry()).isFalse();
+
+        environment.setProperty("notification.retry.policies.email.errors.SES_REJECTED.permanent", "true");
+        RetryDecision decision = engine.decide(MessageChannel.email, "SES_REJECTED", false, 1, null);
+
+        assertThat(decision.isRetry()).isFalse();
+        assertThat(decision.getReason()).isEqualTo("permanent error");
+    }
+
+    @Test
+    void deadLettersWhenAttemptsAreUsedUp() {
+        RetryDecision decision = engine.decide(MessageChannel.sms, "SNS_ERROR", false, 3, null);
+
+        assertThat(decision.isRetry()).isFalse();
+        assertThat(decision.getReason()).contains("max attempts (3)");
+    }
+
+    @Test
+    void errorCodeOverridesChannelPolicy() {
+        environment.setProperty("notification.retry.policies.sms.max-attempts", "10");
+        environment.setProperty("notification.retry.policies.sms.errors.SNS_RATE_LIMIT.initial-delay-seconds", "30");
+        environment.setProperty("notification.retry.policies.sms.errors.SNS_RATE_LIMIT.max-delay-seconds", "300");
+
+        RetryPolicy policy = engine.policy(MessageChannel.sms, "SNS_RATE_LIMIT");
+
+        assertThat(policy.getInitialDelay()).isEqualTo(Duration.ofSeconds(30));
+        assertThat(policy.getMaxDelay()).isEqualTo(Duration.ofSeconds(300));
+        assertThat(policy.getMaxAttempts()).isEqualTo(10);
+    }
+
+    @Test
+    void retryAfterRaisesDelay() {
+        Instant before = Instant.now();
+
+        RetryDecision decision = engine.decide(MessageChannel.notification, "PUSH_ERROR", false, 1, Duration.ofMinutes(5));
+
+        assertThat(decision.getNextAttempt()).isAfterOrEqualTo(before.plus(Duration.ofMinutes(5)));
+    }
+
+    @Test
+    void deferNeverDeadLettersLocalRejections() {
+        Instant before = Instant.now();
+
+        RetryDecision decision = engine.defer(MessageChannel.email, "CIRCUIT_OPEN", Duration.ofSeconds(20));
+
+        assertThat(decision.isRetry()).isTrue();
+        assertThat(decision.getNextAttempt()).isBetween(before.plusSeconds(20), Instant.now().plusSeconds(21));
+        verify(metrics).recordRetryDecision(MessageChannel.email, "CIRCUIT_OPEN", true);
+    }
+
+    @Test
+    void deferSpreadsByInitialDelayWithJitter() {
+        ReflectionTestUtils.setField(engine, "jitter", true);
+        Instant before = Instant.now();
+
+        RetryDecision decision = engine.defer(MessageChannel.sms, "RATE_LIMITED", null);
+
+        assertThat(decision.getNextAttempt()).isBetween(before, Instant.now().plusSeconds(10).plusMillis(1));
+    }
+}
@@ -0,0 +1,45 @@
+package com.tsu.notification.infrastructure.retry;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RetryPolicyTest {
+
+    @Test
+    void backoffDoublesUpToMaxDelay() {
+        RetryPolicy policy = new RetryPolicy(Duration.ofSeconds(1), Duration.ofSeconds(10), 5, false);
+
+        assertThat(policy.backoff(1)).isEqualTo(Duration.ofSeconds(1));
+        assertThat(policy.backoff(2)).isEqualTo(Duration.ofSeconds(2));
+        assertThat(policy.backoff(4)).isEqualTo(Duration.ofSeconds(8));
+        assertThat(policy.backoff(5)).isEqualTo(Duration.ofSeconds(10));
+        assertThat(policy.backoff(100)).isEqualTo(Duration.ofSeconds(10));
+    }
+
+    @Test
+    void fullJitterStaysWithinCeiling() {
+        RetryPolicy policy = new RetryPolicy(Duration.ofSeconds(1), Duration.ofSeconds(10), 5, true);
+
+        for (int i = 0; i < 1000; i++) {
+            assertThat(policy.backoff(3)).isBetween(Duration.ZERO, Duration.ofSeconds(4));
+        }
+    }
+
+    @Test
+    void canRetryUntilMaxAttempts() {
+        RetryPolicy policy = new RetryPolicy(Duration.ofSeconds(1), Duration.ofSeconds(10), 3, false);
+
+        assertThat(policy.canRetry(2)).isTrue();
+        assertThat(policy.canRetry(3)).isFalse();
+    }
+
+    @Test
+    void zeroInitialDelayRetriesImmediately() {
+        RetryPolicy policy = new RetryPolicy(Duration.ZERO, Duration.ofSeconds(10), 3, true);
+
+        assertThat(policy.backoff(2)).isZero();
+    }
+}
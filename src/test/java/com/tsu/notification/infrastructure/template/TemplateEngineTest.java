@@ -0,0 +1,64 @@
+package com.tsu.notification.infrastructure.template;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TemplateEngineTest {
+
+    private TemplateEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new TemplateEngine(new SimpleMeterRegistry(), 100);
+    }
+
+    @Test
+    void rendersVariablesAndNestedValues() {
+        String text = engine.renderText("Order {{order.id}} for {{ name }}", Map.of(
+                "name", "Alex",
+                "order", Map.of("id", "A-1")));
+
+        assertThat(text).isEqualTo("Order A-1 for Alex");
+    }
+
+    @Test
+    void escapesHtmlUnlessTripleBraces() {
+        Map<String, Object> variables = Map.of("name", "<b>\"Alex\" & co</b>", "link", "<a href=\"x\">x</a>");
+
+        assertThat(engine.renderHtml("<p>{{name}}</p>{{{link}}}", variables))
+                .isEqualTo("<p>&lt;b&gt;&quot;Alex&quot; &amp; co&lt;/b&gt;</p><a href=\"x\">x</a>");
+        assertThat(engine.renderText("{{name}}", variables)).isEqualTo("<b>\"Alex\" & co</b>");
+    }
+
+    @Test
+    void missingVariablesRenderEmpty() {
+        assertThat(engine.renderText("Hi {{name}}{{order.id}}!", Map.of("order", "not a map"))).isEqualTo("Hi !");
+    }
+
+    @Test
+    void sourceWithoutVariablesIsReturnedAsIs() {
+        String source = "Plain subject";
+
+        assertThat(engine.renderText(source, Map.of())).isSameAs(source);
+        assertThat(engine.renderText(null, Map.of())).isNull();
+    }
+
+    @Test
+    void keepsEmptyAndUnclosedTagsLiteral() {
+        assertThat(engine.renderText("a {{}} b {{name", Map.of("name", "x"))).isEqualTo("a {{}} b {{name");
+    }
+
+    @Test
+    void compilesEachSourceOnce() {
+        CompiledTemplate first = engine.compile("Hi {{name}}");
+
+        assertThat(engine.compile("Hi {{name}}")).isSameAs(first);
+        assertThat(first.isConstant()).isFalse();
+        assertThat(CompiledTemplate.compile("no variables").isConstant()).isTrue();
+    }
+}
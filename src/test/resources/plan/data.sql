@@ -0,0 +1,38 @@
+-- Production-shaped data: a large processed history and few rows each query should find
+
+-- Outbox: recent processed history, old rows due for retention, open rows (mostly leased)
+INSERT INTO outbox_message (id, status, created_date, processed_date)
+SELECT gen_random_uuid(), 'PROCESSED', now() - g * interval '1 second', now() - g * interval '1 second'
+FROM generate_series(1, 200000) g;
+INSERT INTO outbox_message (id, status, created_date, processed_date)
+SELECT gen_random_uuid(), 'PROCESSED', now() - interval '30 days', now() - interval '30 days'
+FROM generate_series(1, 100) g;
+INSERT INTO outbox_message (id, status, created_date, lease_expires_date)
+SELECT gen_random_uuid(), 'PENDING', now(), now() + interval '1 minute'
+FROM generate_series(1, 2000) g;
+INSERT INTO outbox_message (id, status, created_date, lease_expires_date)
+SELECT gen_random_uuid(), 'FAILED', now() - interval '1 hour', now() - interval '5 minutes'
+FROM generate_series(1, 20) g;
+
+-- Email: sent history, distinct pending mails, one bulk group of identical pending mails
+INSERT INTO email_message (id, subject, body, status, created_date)
+SELECT gen_random_uuid(), 'Subject ' || g, 'Body ' || g, 'sent', now() - g * interval '1 second'
+FROM generate_series(1, 200000) g;
+INSERT INTO email_message (id, subject, body, status, created_date)
+SELECT gen_random_uuid(), 'Pending ' || g, 'Body ' || g, 'pending', now()
+FROM generate_series(1, 5000) g;
+INSERT INTO email_message (id, subject, body, status, created_date)
+SELECT gen_random_uuid(), 'Weekly digest', '<p>Your weekly digest</p>', 'pending', now()
+FROM generate_series(1, 50) g;
+
+-- Processed events: recent dedupe rows and a few past retention
+INSERT INTO processed_event (event_id, processed_date)
+SELECT gen_random_uuid(), now() - g * interval '1 second'
+FROM generate_series(1, 200000) g;
+INSERT INTO processed_event (event_id, processed_date)
+SELECT gen_random_uuid(), now() - interval '30 days'
+FROM generate_series(1, 100) g;
+
+ANALYZE outbox_message;
+ANALYZE email_message;
+ANALYZE processed_event;
@@ -0,0 +1,19 @@
+-- Stand-ins for the tables owned by bx-notification, with only the columns the stores use.
+-- The indexes and added columns come from src/main/resources/db, as deployed.
+CREATE TABLE outbox_message (
+    id                      UUID        PRIMARY KEY,
+    status                  VARCHAR(32) NOT NULL,
+    attempt_count           INT         NOT NULL DEFAULT 0,
+    created_date            TIMESTAMPTZ NOT NULL DEFAULT now(),
+    next_attempt_date       TIMESTAMPTZ,
+    processing_started_date TIMESTAMPTZ,
+    processed_date          TIMESTAMPTZ
+);
+
+CREATE TABLE email_message (
+    id           UUID        PRIMARY KEY,
+    subject      TEXT        NOT NULL,
+    body         TEXT        NOT NULL,
+    status       VARCHAR(32) NOT NULL,
+    created_date TIMESTAMPTZ NOT NULL DEFAULT now()
+);